@@ -0,0 +1,95 @@
+package io.yosemiteblockchain.benchmark;
+
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteBufferReader;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
+import io.yosemiteblockchain.data.types.EosByteReader;
+import io.yosemiteblockchain.data.types.EosByteWriter;
+import io.yosemiteblockchain.data.types.EosType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EosByteWriter, EosByteBufferWriter, EosByteReader and EosByteBufferReader for the mix of the primitive values of a typical action,
+ * and the hex conversion of the encoded bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ByteCodecBenchmark {
+
+    private static final int RECORDS = 16;
+    private static final byte[] CHECKSUM = new byte[32];
+
+    private byte[] encoded;
+    private String encodedHex;
+
+    @Setup
+    public void setUp() {
+        encoded = write(new EosByteWriter(64));
+        encodedHex = HexUtils.toHex(encoded);
+    }
+
+    private static byte[] write(EosType.Writer writer) {
+        for (int i = 0; i < RECORDS; i++) {
+            writer.putLongLE(0x5530ea0000000000L + i);
+            writer.putIntLE(i);
+            writer.putShortLE((short) i);
+            writer.put((byte) i);
+            writer.putVariableUInt(100000L + i);
+            writer.putString("memo of the transfer");
+            writer.putBytes(CHECKSUM);
+        }
+        return writer.toBytes();
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return write(new EosByteWriter(64));
+    }
+
+    @Benchmark
+    public byte[] writePooled() {
+        try (EosByteBufferWriter writer = EosByteBufferWriter.acquire()) {
+            return write(writer);
+        }
+    }
+
+    @Benchmark
+    public long read() throws EosType.InsufficientBytesException {
+        return read(new EosByteReader(encoded));
+    }
+
+    @Benchmark
+    public long readBuffer() throws EosType.InsufficientBytesException {
+        return read(new EosByteBufferReader(encoded));
+    }
+
+    @Benchmark
+    public String toHex() {
+        return HexUtils.toHex(encoded);
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return HexUtils.toBytes(encodedHex);
+    }
+
+    private static long read(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        long sum = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            sum += reader.getLongLE();
+            sum += reader.getIntLE();
+            sum += reader.getShortLE();
+            sum += reader.get();
+            sum += reader.getVariableUint();
+            sum += reader.getString().length();
+            sum += reader.getBytes(CHECKSUM.length).length;
+        }
+        return sum;
+    }
+}
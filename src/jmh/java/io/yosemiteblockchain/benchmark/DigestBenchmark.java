@@ -0,0 +1,54 @@
+package io.yosemiteblockchain.benchmark;
+
+import io.yosemiteblockchain.crypto.digest.Ripemd160;
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.Base58;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base58 encoding and decoding of a key-sized input, and SHA-256 and RIPEMD-160 for the input sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DigestBenchmark {
+
+    @Param({"37", "1024"})
+    public int size;
+
+    private byte[] data;
+    private String base58;
+
+    @Setup
+    public void setUp() {
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        base58 = Base58.encode(data);
+    }
+
+    @Benchmark
+    public String base58Encode() {
+        return Base58.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base58Decode() {
+        return Base58.decode(base58);
+    }
+
+    @Benchmark
+    public Sha256 sha256() {
+        return Sha256.from(data);
+    }
+
+    @Benchmark
+    public Ripemd160 ripemd160() {
+        return Ripemd160.from(data);
+    }
+}
@@ -0,0 +1,54 @@
+package io.yosemiteblockchain.benchmark;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.ec.CurveParam;
+import io.yosemiteblockchain.crypto.ec.EcDsa;
+import io.yosemiteblockchain.crypto.ec.EcSignature;
+import io.yosemiteblockchain.crypto.ec.EosPrivateKey;
+import io.yosemiteblockchain.crypto.ec.EosPublicKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing, public key recovery and public key parsing for secp256k1 and secp256r1.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EcBenchmark {
+
+    @Param({"K1", "R1"})
+    public String curve;
+
+    private EosPrivateKey privateKey;
+    private Sha256 digest;
+    private EcSignature signature;
+    private String publicKey;
+
+    @Setup
+    public void setUp() {
+        privateKey = new EosPrivateKey("K1".equals(curve) ? CurveParam.SECP256_K1 : CurveParam.SECP256_R1);
+        digest = Sha256.from("yosemite".getBytes());
+        signature = privateKey.sign(digest);
+        publicKey = privateKey.getPublicKey().toString();
+    }
+
+    @Benchmark
+    public EcSignature sign() {
+        return privateKey.sign(digest);
+    }
+
+    @Benchmark
+    public EosPublicKey recoverPubKey() {
+        return EcDsa.recoverPubKey(digest.getBytes(), signature);
+    }
+
+    @Benchmark
+    public EosPublicKey parsePublicKey() {
+        return new EosPublicKey(publicKey);
+    }
+}
@@ -0,0 +1,87 @@
+package io.yosemiteblockchain.benchmark;
+
+import io.yosemiteblockchain.data.remote.chain.Action;
+import io.yosemiteblockchain.data.remote.chain.PackedTransaction;
+import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+import io.yosemiteblockchain.data.remote.chain.TransactionExtensionField;
+import io.yosemiteblockchain.data.types.EosByteWriter;
+import io.yosemiteblockchain.data.types.TypePermission;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction id, packing and PackedTransaction construction for the transactions of 1, 10 and 100 transfer actions.
+ * The transaction keeps its packed bytes once it's packed; serialize() measures packing and hashing it again.
+ * unpack() decodes packed_trx back to the transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransactionBenchmark {
+
+    static final String TRANSFER_DATA = "0000000000ea305500000000487a2b9d102700000000000004444b52570000000474657374";
+
+    @Param({"1", "10", "100"})
+    public int actionCount;
+
+    private SignedTransaction signedTransaction;
+    private String packedTrx;
+
+    @Setup
+    public void setUp() {
+        signedTransaction = createTransaction(actionCount);
+        packedTrx = createTransaction(actionCount).getSerialized().toHex();
+    }
+
+    static SignedTransaction createTransaction(int actionCount) {
+        SignedTransaction signedTransaction = new SignedTransaction();
+        for (int i = 0; i < actionCount; i++) {
+            Action action = new Action("yx.ntoken", "transfer");
+            action.setAuthorization(Collections.singletonList(new TypePermission("user1")));
+            action.setData(TRANSFER_DATA);
+            signedTransaction.addAction(action);
+        }
+        signedTransaction.setReferenceBlock("000003e8a2b3c4d5e6f708192a3b4c5d6e7f8091a2b3c4d5e6f708192a3b4c5d");
+        signedTransaction.setExpiration("2018-12-01T00:00:30.000");
+        signedTransaction.setStringTransactionExtension(TransactionExtensionField.TRANSACTION_FEE_PAYER, "user1");
+        return signedTransaction;
+    }
+
+    @Benchmark
+    public String getId() {
+        return signedTransaction.getId();
+    }
+
+    @Benchmark
+    public String serialize() {
+        signedTransaction.invalidateSerialized();
+        return signedTransaction.getSerialized().getId();
+    }
+
+    @Benchmark
+    public byte[] pack() {
+        EosByteWriter writer = new EosByteWriter(512);
+        signedTransaction.pack(writer);
+        return writer.toBytes();
+    }
+
+    @Benchmark
+    public PackedTransaction packedTransactionNone() {
+        return new PackedTransaction(signedTransaction, PackedTransaction.CompressType.none);
+    }
+
+    @Benchmark
+    public PackedTransaction packedTransactionZlib() {
+        return new PackedTransaction(signedTransaction, PackedTransaction.CompressType.zlib);
+    }
+
+    @Benchmark
+    public SignedTransaction unpack() {
+        return PackedTransaction.unpack(packedTrx, PackedTransaction.CompressType.none);
+    }
+}
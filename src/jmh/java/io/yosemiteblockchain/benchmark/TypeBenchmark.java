@@ -0,0 +1,44 @@
+package io.yosemiteblockchain.benchmark;
+
+import io.yosemiteblockchain.data.types.TypeAsset;
+import io.yosemiteblockchain.data.types.TypeName;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account name and asset conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypeBenchmark {
+
+    private static final String NAME = "tkuserxxxxxx";
+    private static final String ASSET = "100000000.0000 DKRW";
+
+    private long nameAsLong;
+
+    @Setup
+    public void setUp() {
+        nameAsLong = TypeName.stringToName(NAME);
+    }
+
+    @Benchmark
+    public long stringToName() {
+        return TypeName.stringToName(NAME);
+    }
+
+    @Benchmark
+    public String nameToString() {
+        return TypeName.nameToString(nameAsLong);
+    }
+
+    @Benchmark
+    public TypeAsset parseAsset() {
+        return new TypeAsset(ASSET);
+    }
+}
@@ -4,17 +4,23 @@ import com.google.gson.Gson;
 import dagger.Module;
 import dagger.Provides;
 import io.yosemiteblockchain.data.remote.HostInterceptor;
+import io.yosemiteblockchain.data.remote.MetricsInterceptor;
+import io.yosemiteblockchain.data.remote.SampledLoggingInterceptor;
+import io.yosemiteblockchain.services.HttpClientOptions;
 import io.yosemiteblockchain.util.Utils;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.Protocol;
 import retrofit2.CallAdapter;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 import retrofit2.converter.gson.GsonConverterFactory;
 
-import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 @Module
@@ -46,36 +52,39 @@ public class LibraryModule {
 
     @Provides
     @Singleton
-    static HttpLoggingInterceptor providesHttpLoggingInterceptor() {
-        HttpLoggingInterceptor httpLoggingInterceptor = new HttpLoggingInterceptor();
-        httpLoggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+    static OkHttpClient providesOkHttpClient(HttpClientOptions options, HostInterceptor hostInterceptor) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
 
-        return httpLoggingInterceptor;
-    }
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(options.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(options.getMaxRequestsPerHost());
 
-    @Provides
-    @Singleton
-    static OkHttpClient providesOkHttpClient(HostInterceptor hostInterceptor, HttpLoggingInterceptor httpLoggingInterceptor) {
-        return new OkHttpClient.Builder()
-                .addInterceptor(new HostInterceptor())
-                .addInterceptor(httpLoggingInterceptor)
-                .connectTimeout(5, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(10, TimeUnit.SECONDS)
+        builder.addInterceptor(hostInterceptor);
+        builder.addInterceptor(new MetricsInterceptor(options.getMetricsRecorder()));
+        if (options.getBodyLogSampleRate() > 0) {
+            builder.addInterceptor(new SampledLoggingInterceptor(options.getBodyLogSampleRate()));
+        }
+
+        return builder
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(options.getMaxIdleConnections(),
+                        options.getKeepAliveDurationMillis(), TimeUnit.MILLISECONDS))
+                .protocols(options.isHttp2Enabled() ?
+                        Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1))
+                .connectTimeout(options.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(options.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
                 .cache(null)
                 .build();
     }
 
     @Provides
-    @Singleton
-    static Retrofit providesRetrofit(OkHttpClient okHttpClient,
-                                     Converter.Factory converterFactory,
-                                     CallAdapter.Factory adapterFactory,
-                                     @Named("baseUrl") String baseUrl
-    ) {
+    static Retrofit.Builder providesRetrofitBuilder(OkHttpClient okHttpClient,
+                                                    Converter.Factory converterFactory,
+                                                    CallAdapter.Factory adapterFactory) {
         return new Retrofit.Builder()
+                .client(okHttpClient)
                 .addConverterFactory(converterFactory)
-                .addCallAdapterFactory(adapterFactory)
-                .baseUrl(baseUrl).build();
+                .addCallAdapterFactory(adapterFactory);
     }
 }
@@ -3,6 +3,7 @@ package io.yosemiteblockchain.crypto.digest;
 import com.google.common.base.Preconditions;
 import io.yosemiteblockchain.crypto.util.HexUtils;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -11,6 +12,8 @@ public class Sha256 {
     private static final int HASH_LENGTH = 32;
     public static final Sha256 ZERO_HASH = new Sha256(new byte[HASH_LENGTH]);
 
+    private static final ThreadLocal<MessageDigest> LOCAL_DIGEST = ThreadLocal.withInitial(Sha256::getSha256Digest);
+
     final private byte[] mHashBytes;
 
     /**
@@ -45,6 +48,19 @@ public class Sha256 {
         return new Sha256(digest.digest());
     }
 
+    /**
+     * Hash the remaining bytes of the buffer in place with the digest cached per thread.
+     * The position of the buffer is advanced to its limit.
+     *
+     * @param data
+     */
+    public static Sha256 from(ByteBuffer data) {
+        MessageDigest digest = LOCAL_DIGEST.get();
+        digest.reset();
+        digest.update(data);
+        return new Sha256(digest.digest());
+    }
+
     public static Sha256 from(byte[] data1, byte[] data2) {
         MessageDigest digest;
         digest = getSha256Digest();
@@ -54,6 +70,18 @@ public class Sha256 {
 
     }
 
+    /**
+     * Hash the concatenation of the three byte arrays with the digest cached per thread.
+     */
+    public static Sha256 from(byte[] data1, byte[] data2, byte[] data3) {
+        MessageDigest digest = LOCAL_DIGEST.get();
+        digest.reset();
+        digest.update(data1, 0, data1.length);
+        digest.update(data2, 0, data2.length);
+        digest.update(data3, 0, data3.length);
+        return new Sha256(digest.digest());
+    }
+
     public static Sha256 doubleHash(byte[] data, int offset, int length) {
         MessageDigest digest;
         digest = getSha256Digest();
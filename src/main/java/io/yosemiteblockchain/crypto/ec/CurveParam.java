@@ -40,6 +40,10 @@ public  class  CurveParam {
 
     private final BigInteger HALF_CURVE_ORDER;
 
+    // fixed-window table of G; [window][digit - 1] = digit * 16^window * G in affine coordinates
+    private static final int G_WINDOW_BITS = 4;
+    private volatile BigInteger[][][] gTable;
+
     public CurveParam( int curveParamType, String pInHex, String aInHex, String bInHex, String GxInHex, String GyInHex, String nInHex ){
         this.curveParamType = curveParamType;
         BigInteger p = new BigInteger(pInHex, 16); //p
@@ -78,4 +82,70 @@ public  class  CurveParam {
     public EcCurve getCurve() {
         return curve;
     }
-}
\ No newline at end of file
+
+    /**
+     * Multiply the generator G by k with the precomputed table; no doubling is needed.
+     */
+    public EcPoint multiplyG(BigInteger k) {
+        return multiplyGJacobian(k).toAffine(curve);
+    }
+
+    JacobianPoint multiplyGJacobian(BigInteger k) {
+        BigInteger[][][] table = getGTable();
+        BigInteger p = curve.getQ();
+        BigInteger a = curve.getA().toBigInteger();
+
+        // G has the order n
+        if (k.signum() < 0 || k.bitLength() > n.bitLength()) {
+            k = k.mod(n);
+        }
+
+        int digitMask = (1 << G_WINDOW_BITS) - 1;
+        JacobianPoint result = JacobianPoint.INFINITY;
+        for (int window = 0; window < table.length; window++) {
+            int digit = 0;
+            for (int bit = G_WINDOW_BITS - 1; bit >= 0; bit--) {
+                digit = (digit << 1) | (k.testBit(window * G_WINDOW_BITS + bit) ? 1 : 0);
+            }
+            digit &= digitMask;
+            if (digit != 0) {
+                result = result.addAffine(table[window][0][digit - 1], table[window][1][digit - 1], p, a);
+            }
+        }
+        return result;
+    }
+
+    private BigInteger[][][] getGTable() {
+        BigInteger[][][] table = gTable;
+        if (table == null) {
+            synchronized (this) {
+                table = gTable;
+                if (table == null) {
+                    table = gTable = buildGTable();
+                }
+            }
+        }
+        return table;
+    }
+
+    private BigInteger[][][] buildGTable() {
+        BigInteger p = curve.getQ();
+        BigInteger a = curve.getA().toBigInteger();
+        int windows = (n.bitLength() + G_WINDOW_BITS - 1) / G_WINDOW_BITS;
+        int digits = (1 << G_WINDOW_BITS) - 1;
+
+        BigInteger[][][] table = new BigInteger[windows][][];
+        JacobianPoint base = JacobianPoint.fromAffine(G);
+        for (int window = 0; window < windows; window++) {
+            JacobianPoint[] multiples = new JacobianPoint[digits];
+            multiples[0] = base;
+            for (int digit = 1; digit < digits; digit++) {
+                multiples[digit] = multiples[digit - 1].add(base, p, a);
+            }
+            table[window] = JacobianPoint.toAffine(multiples, p);
+
+            base = multiples[digits - 1].add(base, p, a); // 16^(window + 1) * G
+        }
+        return table;
+    }
+}
@@ -40,6 +40,7 @@ public class EcDsa {
 
         BigInteger r;
         BigInteger s;
+        int recId;
 
         SigChecker(byte[] hash, BigInteger privKey) {
             this.e = new BigInteger(1, hash);
@@ -48,12 +49,16 @@ public class EcDsa {
 
         boolean checkSignature(CurveParam curveParam, BigInteger k) {
 
-            EcPoint Q = EcTools.multiply(curveParam.G(), k);// Secp256k1Param.G, k);
+            EcPoint Q = curveParam.multiplyG(k);
             if (Q.isInfinity()) return false;
 
-            r = Q.getX().toBigInteger().mod(curveParam.n());// Secp256k1Param.n );
+            BigInteger qx = Q.getX().toBigInteger();
+            r = qx.mod(curveParam.n());// Secp256k1Param.n );
             if (r.signum() == 0) return false;
 
+            // the recovery id is decided by the parity of y and the overflow of x
+            recId = (Q.getY().toBigInteger().testBit(0) ? 1 : 0) | (qx.compareTo(curveParam.n()) >= 0 ? 2 : 0);
+
 
             s = k.modInverse(curveParam.n())// Secp256k1Param.n)
                     .multiply(e.add(privKey.multiply(r)))
@@ -129,6 +134,36 @@ public class EcDsa {
         return t;
     }
 
+    /**
+     * Sign the digest by RFC 6979 deterministic K.
+     * The signature is made canonical, which means both r and s are 32 bytes and s is low.
+     * @param digest SHA-256 digest of the data to sign
+     * @param privateKey the private key to sign with
+     * @return the signature which has the recovery id
+     */
+    public static EcSignature sign(Sha256 digest, EosPrivateKey privateKey) {
+        byte[] hash = digest.getBytes();
+        BigInteger d = privateKey.getAsBigInteger();
+        CurveParam curveParam = privateKey.getCurveParam();
+
+        SigChecker checker = new SigChecker(hash, d);
+        for (int nonce = 0; ; nonce++) {
+            deterministicGenerateK(curveParam, hash, d, checker, nonce);
+
+            if (checker.s.compareTo(curveParam.halfCurveOrder()) > 0) {
+                // -s is for the point -R of which y has the opposite parity
+                checker.s = curveParam.n().subtract(checker.s);
+                checker.recId ^= 1;
+            }
+
+            if (checker.isRSEachLength(32)) {
+                break;
+            }
+        }
+
+        return new EcSignature(checker.r, checker.s, curveParam, checker.recId);
+    }
+
     public static boolean verifySignature(byte[] message, String signature, String pubKey) {
         EosPublicKey recoveredPubKey = recoverPubKey(Sha256.from(message).getBytes(), new EcSignature(signature));
 
@@ -179,8 +214,8 @@ public class EcDsa {
         EcPoint R = EcTools.decompressKey(curveParam, x, (recId & 1) == 1);
         // 1.4. If nR != point at infinity, then do another iteration of Step 1
         // (callers responsibility).
-        if (!R.multiply(n).isInfinity())
-            return null;
+        // The cofactor of secp256k1 and secp256r1 is 1, so every point on the curve has the order n
+        // and nR is always the point at infinity; the multiplication is skipped.
         // 1.5. Compute e from M using Steps 2 and 3 of ECDSA signature
         // verification.
         BigInteger e = new BigInteger(1, messageSigned);
@@ -212,7 +247,7 @@ public class EcDsa {
         // lost when multiply() is used.
         q = new EcPoint(curve, q.getX(), q.getY(), true);
 
-        return new EosPublicKey(q.getEncoded());
+        return new EosPublicKey(q.getEncoded(), curveParam);
     }
 
 
@@ -255,8 +290,8 @@ public class EcDsa {
         EcPoint R = EcTools.decompressKey(curveParam, x, (recId & 1) == 1);
         // 1.4. If nR != point at infinity, then do another iteration of Step 1
         // (callers responsibility).
-        if (!R.multiply(n).isInfinity())
-            return false;
+        // The cofactor of secp256k1 and secp256r1 is 1, so every point on the curve has the order n
+        // and nR is always the point at infinity; the multiplication is skipped.
         // 1.5. Compute e from M using Steps 2 and 3 of ECDSA signature
         // verification.
         BigInteger e = new BigInteger(1, messageSigned);
@@ -89,52 +89,44 @@ public class EcTools {
         return bytes;
     }
 
+    private static final int WNAF_WIDTH = 5;
+
     /**
-     * Multiply a point with a big integer
+     * Multiply a point with a big integer.
+     * The generator G of the known curves uses the precomputed table of {@link CurveParam};
+     * the other points use wNAF in Jacobian coordinates.
      */
     public static EcPoint multiply(EcPoint p, BigInteger k) {
-        BigInteger e = k;
-        BigInteger h = e.multiply(BigInteger.valueOf(3));
-
-        EcPoint neg = p.negate();
-        EcPoint R = p;
-
-        for (int i = h.bitLength() - 2; i > 0; --i) {
-            R = R.twice();
+        CurveParam curveParam = getCurveParamOfGenerator(p);
+        if (curveParam != null) {
+            return curveParam.multiplyG(k);
+        }
+        return JacobianPoint.multiplyWnaf(p, k, WNAF_WIDTH).toAffine(p.getCurve());
+    }
 
-            boolean hBit = h.testBit(i);
-            boolean eBit = e.testBit(i);
+    /**
+     * Compute kP + lQ with a single conversion to affine coordinates.
+     */
+    public static EcPoint sumOfTwoMultiplies(EcPoint P, BigInteger k, EcPoint Q, BigInteger l) {
+        EcCurve curve = P.getCurve();
+        BigInteger prime = curve.getQ();
+        BigInteger a = curve.getA().toBigInteger();
 
-            if (hBit != eBit) {
-                R = R.add(hBit ? p : neg);
-            }
-        }
+        CurveParam curveParam = getCurveParamOfGenerator(P);
+        JacobianPoint kP = curveParam != null ?
+                curveParam.multiplyGJacobian(k) : JacobianPoint.multiplyWnaf(P, k, WNAF_WIDTH);
+        JacobianPoint lQ = JacobianPoint.multiplyWnaf(Q, l, WNAF_WIDTH);
 
-        return R;
+        return kP.add(lQ, prime, a).toAffine(curve);
     }
 
-    public static EcPoint sumOfTwoMultiplies(EcPoint P, BigInteger k, EcPoint Q, BigInteger l) {
-        int m = Math.max(k.bitLength(), l.bitLength());
-        EcPoint Z = P.add(Q);
-        EcPoint R = P.getCurve().getInfinity();
-
-        for (int i = m - 1; i >= 0; --i) {
-            R = R.twice();
-
-            if (k.testBit(i)) {
-                if (l.testBit(i)) {
-                    R = R.add(Z);
-                } else {
-                    R = R.add(P);
-                }
-            } else {
-                if (l.testBit(i)) {
-                    R = R.add(Q);
-                }
+    private static CurveParam getCurveParamOfGenerator(EcPoint p) {
+        for (CurveParam curveParam : sCurveParams) {
+            if (curveParam != null && curveParam.G() == p) {
+                return curveParam;
             }
         }
-
-        return R;
+        return null;
     }
 
     //ported from BitcoinJ
@@ -0,0 +1,152 @@
+package io.yosemiteblockchain.crypto.ec;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.Base58;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Represents the private key of the Yosemite account.
+ * The K1 key is represented as the WIF(Wallet Import Format) string with the optional "YPV_" prefix,
+ * and the R1 key is represented as "PVT_R1_" prefixed string.
+ */
+public class EosPrivateKey {
+    private static final String PREFIX_YOSEMITE = "YPV";
+    private static final String PREFIX = "PVT";
+
+    private static final byte WIF_VERSION = (byte) 0x80;
+    private static final int CHECK_BYTE_LEN = 4;
+    private static final int PRIVATE_KEY_LEN = 32;
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private final BigInteger mPrivateKey;
+    private final CurveParam mCurveParam;
+    private final EosPublicKey mPublicKey;
+
+    public static class IllegalPrivateKeyFormatException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        public IllegalPrivateKeyFormatException(String reason) {
+            super("invalid private key : " + reason);
+        }
+    }
+
+    /**
+     * Creates a new random K1 private key.
+     */
+    public EosPrivateKey() {
+        this(CurveParam.SECP256_K1);
+    }
+
+    /**
+     * Creates a new random private key for the curve type.
+     * @param curveParamType {@link CurveParam#SECP256_K1} or {@link CurveParam#SECP256_R1}
+     */
+    public EosPrivateKey(int curveParamType) {
+        mCurveParam = EcTools.getCurveParam(curveParamType);
+
+        BigInteger d;
+        do {
+            d = new BigInteger(mCurveParam.n().bitLength(), secureRandom);
+        } while (d.signum() == 0 || d.compareTo(mCurveParam.n()) >= 0);
+
+        mPrivateKey = d;
+        mPublicKey = derivePublicKey();
+    }
+
+    public EosPrivateKey(String base58Str) {
+        String[] parts = EosEcUtil.safeSplitEosCryptoString(base58Str);
+
+        byte[] keyBytes;
+        if (parts.length == 1) {
+            mCurveParam = EcTools.getCurveParam(CurveParam.SECP256_K1);
+            keyBytes = EosEcUtil.getBytesIfMatchedSha256(base58Str, null);
+        } else if (parts.length == 2 && PREFIX_YOSEMITE.equals(parts[0])) {
+            mCurveParam = EcTools.getCurveParam(CurveParam.SECP256_K1);
+            keyBytes = EosEcUtil.getBytesIfMatchedSha256(parts[1], null);
+        } else if (parts.length == 3 && (PREFIX.equals(parts[0]) || PREFIX_YOSEMITE.equals(parts[0]))) {
+            mCurveParam = EosEcUtil.getCurveParamFrom(parts[1]);
+            keyBytes = EosEcUtil.getBytesIfMatchedRipemd160(parts[2], parts[1], null);
+        } else {
+            throw new IllegalPrivateKeyFormatException("unknown format");
+        }
+
+        if (keyBytes == null || keyBytes.length < PRIVATE_KEY_LEN) {
+            throw new IllegalPrivateKeyFormatException("wrong key length");
+        }
+
+        mPrivateKey = new BigInteger(1, Arrays.copyOf(keyBytes, PRIVATE_KEY_LEN));
+        mPublicKey = derivePublicKey();
+    }
+
+    private EosPublicKey derivePublicKey() {
+        EcPoint q = mCurveParam.multiplyG(mPrivateKey);
+
+        // the compressed form is used for the public key
+        EcPoint compressed = new EcPoint(q.getCurve(), q.getX(), q.getY(), true);
+        return new EosPublicKey(compressed.getEncoded(), mCurveParam);
+    }
+
+    public BigInteger getAsBigInteger() {
+        return mPrivateKey;
+    }
+
+    public byte[] getBytes() {
+        return EcTools.integerToBytes(mPrivateKey, PRIVATE_KEY_LEN);
+    }
+
+    public CurveParam getCurveParam() {
+        return mCurveParam;
+    }
+
+    public EosPublicKey getPublicKey() {
+        return mPublicKey;
+    }
+
+    /**
+     * Sign the SHA-256 digest with this private key.
+     * @param digest the digest to sign
+     * @return canonical signature which has the recovery id
+     */
+    public EcSignature sign(Sha256 digest) {
+        return EcDsa.sign(digest, this);
+    }
+
+    @Override
+    public String toString() {
+        byte[] keyBytes = getBytes();
+
+        if (mCurveParam.isType(CurveParam.SECP256_R1)) {
+            return EosEcUtil.encodeEosCrypto(PREFIX, mCurveParam, keyBytes);
+        }
+
+        byte[] wif = new byte[1 + PRIVATE_KEY_LEN + CHECK_BYTE_LEN];
+        wif[0] = WIF_VERSION;
+        System.arraycopy(keyBytes, 0, wif, 1, PRIVATE_KEY_LEN);
+
+        Sha256 checksum = Sha256.doubleHash(wif, 0, 1 + PRIVATE_KEY_LEN);
+        System.arraycopy(checksum.getBytes(), 0, wif, 1 + PRIVATE_KEY_LEN, CHECK_BYTE_LEN);
+
+        return PREFIX_YOSEMITE + "_" + Base58.encode(wif);
+    }
+
+    @Override
+    public int hashCode() {
+        return mPrivateKey.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        EosPrivateKey that = (EosPrivateKey) other;
+        return mCurveParam.getCurveParamType() == that.mCurveParam.getCurveParamType()
+                && mPrivateKey.equals(that.mPrivateKey);
+    }
+}
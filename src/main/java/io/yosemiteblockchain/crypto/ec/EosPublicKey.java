@@ -137,7 +137,8 @@ public class EosPublicKey {
 
     @Override
     public int hashCode() {
-        return (int) (mCheck & 0xFFFFFFFFL);
+        // equals() compares only the key data, so the checksum which may include the curve type can't be used here.
+        return Arrays.hashCode(mData);
     }
 
     @Override
@@ -0,0 +1,240 @@
+package io.yosemiteblockchain.crypto.ec;
+
+import java.math.BigInteger;
+
+/**
+ * An elliptic curve point in Jacobian coordinates (X, Y, Z) which represents the affine point (X/Z^2, Y/Z^3).
+ * Addition and doubling need no modular inverse; only {@link #toAffine(EcCurve)} does.
+ * The coordinates are plain BigIntegers reduced modulo the field prime p.
+ */
+final class JacobianPoint {
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final BigInteger THREE = BigInteger.valueOf(3);
+    private static final BigInteger FOUR = BigInteger.valueOf(4);
+    private static final BigInteger EIGHT = BigInteger.valueOf(8);
+
+    static final JacobianPoint INFINITY = new JacobianPoint(BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO);
+
+    final BigInteger x;
+    final BigInteger y;
+    final BigInteger z;
+
+    JacobianPoint(BigInteger x, BigInteger y, BigInteger z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    static JacobianPoint fromAffine(EcPoint point) {
+        if (point.isInfinity()) {
+            return INFINITY;
+        }
+        return new JacobianPoint(point.getX().toBigInteger(), point.getY().toBigInteger(), BigInteger.ONE);
+    }
+
+    boolean isInfinity() {
+        return z.signum() == 0;
+    }
+
+    JacobianPoint negate(BigInteger p) {
+        if (isInfinity()) {
+            return this;
+        }
+        return new JacobianPoint(x, p.subtract(y).mod(p), z);
+    }
+
+    /**
+     * dbl-2007-bl for the curve y^2 = x^3 + ax + b
+     */
+    JacobianPoint twice(BigInteger p, BigInteger a) {
+        if (isInfinity() || y.signum() == 0) {
+            return INFINITY;
+        }
+
+        BigInteger xx = x.multiply(x).mod(p);
+        BigInteger yy = y.multiply(y).mod(p);
+        BigInteger yyyy = yy.multiply(yy).mod(p);
+        BigInteger s = FOUR.multiply(x).multiply(yy).mod(p);
+        BigInteger m = THREE.multiply(xx);
+        if (a.signum() != 0) {
+            BigInteger zz = z.multiply(z).mod(p);
+            m = m.add(a.multiply(zz.multiply(zz).mod(p)));
+        }
+        m = m.mod(p);
+
+        BigInteger x3 = m.multiply(m).subtract(TWO.multiply(s)).mod(p);
+        BigInteger y3 = m.multiply(s.subtract(x3)).subtract(EIGHT.multiply(yyyy)).mod(p);
+        BigInteger z3 = TWO.multiply(y).multiply(z).mod(p);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    /**
+     * madd-2007-bl; adds the affine point (ax, ay)
+     */
+    JacobianPoint addAffine(BigInteger ax, BigInteger ay, BigInteger p, BigInteger a) {
+        if (isInfinity()) {
+            return new JacobianPoint(ax, ay, BigInteger.ONE);
+        }
+
+        BigInteger z1z1 = z.multiply(z).mod(p);
+        BigInteger u2 = ax.multiply(z1z1).mod(p);
+        BigInteger s2 = ay.multiply(z).multiply(z1z1).mod(p);
+        BigInteger h = u2.subtract(x).mod(p);
+        BigInteger r = s2.subtract(y).mod(p);
+
+        if (h.signum() == 0) {
+            return r.signum() == 0 ? twice(p, a) : INFINITY;
+        }
+
+        BigInteger hh = h.multiply(h).mod(p);
+        BigInteger hhh = h.multiply(hh).mod(p);
+        BigInteger v = x.multiply(hh).mod(p);
+
+        BigInteger x3 = r.multiply(r).subtract(hhh).subtract(TWO.multiply(v)).mod(p);
+        BigInteger y3 = r.multiply(v.subtract(x3)).subtract(y.multiply(hhh)).mod(p);
+        BigInteger z3 = z.multiply(h).mod(p);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    /**
+     * add-2007-bl without the Z1 == Z2 shortcuts
+     */
+    JacobianPoint add(JacobianPoint other, BigInteger p, BigInteger a) {
+        if (isInfinity()) {
+            return other;
+        }
+        if (other.isInfinity()) {
+            return this;
+        }
+
+        BigInteger z1z1 = z.multiply(z).mod(p);
+        BigInteger z2z2 = other.z.multiply(other.z).mod(p);
+        BigInteger u1 = x.multiply(z2z2).mod(p);
+        BigInteger u2 = other.x.multiply(z1z1).mod(p);
+        BigInteger s1 = y.multiply(other.z).multiply(z2z2).mod(p);
+        BigInteger s2 = other.y.multiply(z).multiply(z1z1).mod(p);
+        BigInteger h = u2.subtract(u1).mod(p);
+        BigInteger r = s2.subtract(s1).mod(p);
+
+        if (h.signum() == 0) {
+            return r.signum() == 0 ? twice(p, a) : INFINITY;
+        }
+
+        BigInteger hh = h.multiply(h).mod(p);
+        BigInteger hhh = h.multiply(hh).mod(p);
+        BigInteger v = u1.multiply(hh).mod(p);
+
+        BigInteger x3 = r.multiply(r).subtract(hhh).subtract(TWO.multiply(v)).mod(p);
+        BigInteger y3 = r.multiply(v.subtract(x3)).subtract(s1.multiply(hhh)).mod(p);
+        BigInteger z3 = z.multiply(other.z).multiply(h).mod(p);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    EcPoint toAffine(EcCurve curve) {
+        if (isInfinity()) {
+            return curve.getInfinity();
+        }
+
+        BigInteger p = curve.getQ();
+        BigInteger zInv = z.modInverse(p);
+        BigInteger zInv2 = zInv.multiply(zInv).mod(p);
+        BigInteger ax = x.multiply(zInv2).mod(p);
+        BigInteger ay = y.multiply(zInv2).multiply(zInv).mod(p);
+        return new EcPoint(curve, curve.fromBigInteger(ax), curve.fromBigInteger(ay));
+    }
+
+    /**
+     * Convert the points to affine coordinates with a single modular inverse (Montgomery's trick).
+     * None of the points may be the point at infinity.
+     * @return x coordinates at [0] and y coordinates at [1]
+     */
+    static BigInteger[][] toAffine(JacobianPoint[] points, BigInteger p) {
+        int n = points.length;
+        BigInteger[] products = new BigInteger[n];
+        BigInteger product = BigInteger.ONE;
+        for (int i = 0; i < n; i++) {
+            product = product.multiply(points[i].z).mod(p);
+            products[i] = product;
+        }
+
+        BigInteger[][] affine = new BigInteger[2][n];
+        BigInteger inverse = product.modInverse(p);
+        for (int i = n - 1; i >= 0; i--) {
+            BigInteger zInv = i > 0 ? inverse.multiply(products[i - 1]).mod(p) : inverse;
+            inverse = inverse.multiply(points[i].z).mod(p);
+
+            BigInteger zInv2 = zInv.multiply(zInv).mod(p);
+            affine[0][i] = points[i].x.multiply(zInv2).mod(p);
+            affine[1][i] = points[i].y.multiply(zInv2).multiply(zInv).mod(p);
+        }
+        return affine;
+    }
+
+    /**
+     * Multiply the point by the width-w NAF of k; the odd multiples P, 3P, ..., (2^(w-1) - 1)P are precomputed.
+     */
+    static JacobianPoint multiplyWnaf(EcPoint point, BigInteger k, int w) {
+        EcCurve curve = point.getCurve();
+        BigInteger p = curve.getQ();
+        BigInteger a = curve.getA().toBigInteger();
+
+        if (point.isInfinity() || k.signum() == 0) {
+            return INFINITY;
+        }
+
+        JacobianPoint base = fromAffine(point);
+        if (k.signum() < 0) {
+            base = base.negate(p);
+            k = k.negate();
+        }
+
+        JacobianPoint[] oddMultiples = new JacobianPoint[1 << (w - 2)];
+        oddMultiples[0] = base;
+        JacobianPoint twiceBase = base.twice(p, a);
+        for (int i = 1; i < oddMultiples.length; i++) {
+            oddMultiples[i] = oddMultiples[i - 1].add(twiceBase, p, a);
+        }
+
+        int[] naf = wnaf(k, w);
+        JacobianPoint result = INFINITY;
+        for (int i = naf.length - 1; i >= 0; i--) {
+            result = result.twice(p, a);
+            int digit = naf[i];
+            if (digit > 0) {
+                result = result.add(oddMultiples[(digit - 1) >> 1], p, a);
+            } else if (digit < 0) {
+                result = result.add(oddMultiples[(-digit - 1) >> 1].negate(p), p, a);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The width-w non-adjacent form of the positive k, from the least significant digit.
+     * Every non-zero digit is odd and less than 2^(w-1) in absolute value, and it's followed by at least w - 1 zeros.
+     */
+    static int[] wnaf(BigInteger k, int w) {
+        int[] naf = new int[k.bitLength() + 1];
+        int windowSize = 1 << w;
+        int windowMask = windowSize - 1;
+
+        int length = 0;
+        while (k.signum() > 0) {
+            int digit = 0;
+            if (k.testBit(0)) {
+                digit = k.intValue() & windowMask;
+                if (digit >= (windowSize >> 1)) {
+                    digit -= windowSize;
+                }
+                k = k.subtract(BigInteger.valueOf(digit));
+            }
+            naf[length++] = digit;
+            k = k.shiftRight(1);
+        }
+
+        int[] result = new int[length];
+        System.arraycopy(naf, 0, result, 0, length);
+        return result;
+    }
+}
@@ -1,10 +1,41 @@
 package io.yosemiteblockchain.crypto.util;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * Utilities for going to and from ASCII-HEX representation.
+ * <p>
+ * The conversions are table-driven; the hex string is encoded in lower case and decoded in either case.
+ * The methods taking the caller's array or buffer don't allocate.
  */
 public class HexUtils {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // the two hex digits of each byte value
+    private static final char[] HEX_PAIRS = new char[256 * 2];
+
+    // the value of each ASCII hex digit; -1 if it's not a hex digit
+    private static final byte[] DIGIT_VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HEX_PAIRS[i * 2] = HEX_DIGITS[i >>> 4];
+            HEX_PAIRS[i * 2 + 1] = HEX_DIGITS[i & 0x0F];
+        }
+
+        Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            DIGIT_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGIT_VALUES['a' + i] = (byte) (10 + i);
+            DIGIT_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
     /**
      * Encodes an array of bytes as hex symbols.
      *
@@ -13,7 +44,7 @@ public class HexUtils {
      * @return the resulting hex string
      */
     public static String toHex(byte[] bytes) {
-        return toHex(bytes, null);
+        return toHex(bytes, 0, bytes.length);
     }
 
     /**
@@ -41,7 +72,55 @@ public class HexUtils {
      * @return the resulting hex string
      */
     public static String toHex(byte[] bytes, int offset, int length) {
-        return toHex(bytes, offset, length, null);
+        char[] hex = new char[length * 2];
+        toHex(bytes, offset, length, hex, 0);
+        return new String(hex);
+    }
+
+    /**
+     * Encodes the remaining bytes of the buffer as hex symbols. The position of the buffer is not changed.
+     *
+     * @param bytes
+     *           the buffer of bytes to encode
+     * @return the resulting hex string
+     */
+    public static String toHex(ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            return toHex(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+
+        int position = bytes.position();
+        char[] hex = new char[bytes.remaining() * 2];
+        for (int i = 0, j = 0; i < bytes.remaining(); i++, j += 2) {
+            int pair = (bytes.get(position + i) & 0xFF) << 1;
+            hex[j] = HEX_PAIRS[pair];
+            hex[j + 1] = HEX_PAIRS[pair + 1];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Encodes an array of bytes as hex symbols into the array of the caller.
+     *
+     * @param bytes
+     *           the array of bytes to encode
+     * @param offset
+     *           the start offset in the array of bytes
+     * @param length
+     *           the number of bytes to encode
+     * @param dst
+     *           the array to write the hex symbols into; length * 2 chars are written
+     * @param dstOffset
+     *           the start offset in the array to write into
+     * @return the number of the chars written
+     */
+    public static int toHex(byte[] bytes, int offset, int length, char[] dst, int dstOffset) {
+        for (int i = offset, j = dstOffset, end = offset + length; i < end; i++, j += 2) {
+            int pair = (bytes[i] & 0xFF) << 1;
+            dst[j] = HEX_PAIRS[pair];
+            dst[j + 1] = HEX_PAIRS[pair + 1];
+        }
+        return length * 2;
     }
 
     /**
@@ -51,9 +130,8 @@ public class HexUtils {
      * @return the resulting hex string
      */
     public static String toHex(byte b) {
-        StringBuilder sb = new StringBuilder();
-        appendByteAsHex(sb, b);
-        return sb.toString();
+        int pair = (b & 0xFF) << 1;
+        return new String(HEX_PAIRS, pair, 2);
     }
 
 
@@ -71,20 +149,22 @@ public class HexUtils {
      * @return the resulting hex string
      */
     public static String toHex(byte[] bytes, int offset, int length, String separator) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int unsignedByte = bytes[i + offset] & 0xff;
-
-            if (unsignedByte < 16) {
-                result.append("0");
-            }
+        if (separator == null || separator.isEmpty() || length <= 1) {
+            return toHex(bytes, offset, length);
+        }
 
-            result.append(Integer.toHexString(unsignedByte));
-            if (separator != null && i + 1 < length) {
-                result.append(separator);
+        int separatorLength = separator.length();
+        char[] hex = new char[length * 2 + (length - 1) * separatorLength];
+        for (int i = 0, j = 0; i < length; i++) {
+            int pair = (bytes[i + offset] & 0xFF) << 1;
+            hex[j++] = HEX_PAIRS[pair];
+            hex[j++] = HEX_PAIRS[pair + 1];
+            if (i + 1 < length) {
+                separator.getChars(0, separatorLength, hex, j);
+                j += separatorLength;
             }
         }
-        return result.toString();
+        return new String(hex);
     }
 
     /**
@@ -98,21 +178,75 @@ public class HexUtils {
         if (hexString == null || hexString.length() % 2 != 0) {
             throw new RuntimeException("Input string must contain an even number of characters");
         }
-        char[] hex = hexString.toCharArray();
-        int length = hex.length / 2;
-        byte[] raw = new byte[length];
-        for (int i = 0; i < length; i++) {
-            int high = Character.digit(hex[i * 2], 16);
-            int low = Character.digit(hex[i * 2 + 1], 16);
-            if (high < 0 || low < 0){
-                throw new RuntimeException("Invalid hex digit " + hex[i * 2] + hex[i * 2 + 1]);
+        byte[] raw = new byte[hexString.length() / 2];
+        toBytes(hexString, 0, hexString.length(), raw, 0);
+        return raw;
+    }
+
+    /**
+     * Decodes the ASCII-HEX characters into the array of the caller.
+     *
+     * @param hex
+     *           the hex characters to decode
+     * @param offset
+     *           the start offset in the hex characters
+     * @param length
+     *           the number of the hex characters to decode; must be even
+     * @param dst
+     *           the array to write the bytes into; length / 2 bytes are written
+     * @param dstOffset
+     *           the start offset in the array to write into
+     * @return the number of the bytes written
+     */
+    public static int toBytes(CharSequence hex, int offset, int length, byte[] dst, int dstOffset) {
+        if (length % 2 != 0) {
+            throw new RuntimeException("Input string must contain an even number of characters");
+        }
+        for (int i = offset, j = dstOffset, end = offset + length; i < end; i += 2, j++) {
+            dst[j] = (byte) decodePair(hex, i);
+        }
+        return length / 2;
+    }
+
+    /**
+     * Decodes the ASCII-HEX characters into the buffer of the caller from its position.
+     * The position of the buffer is advanced by the number of the bytes written.
+     *
+     * @param hex
+     *           the hex characters to decode; the number of them must be even
+     * @param dst
+     *           the buffer to write the bytes into
+     * @return the number of the bytes written
+     */
+    public static int toBytes(CharSequence hex, ByteBuffer dst) {
+        int length = hex.length();
+        if (length % 2 != 0) {
+            throw new RuntimeException("Input string must contain an even number of characters");
+        }
+        int size = length / 2;
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            toBytes(hex, 0, length, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + size);
+        } else {
+            for (int i = 0; i < length; i += 2) {
+                dst.put((byte) decodePair(hex, i));
             }
-            int value = (high << 4) | low;
-            if (value > 127)
-                value -= 256;
-            raw[i] = (byte) value;
         }
-        return raw;
+        return size;
+    }
+
+    private static int decodePair(CharSequence hex, int index) {
+        char highChar = hex.charAt(index);
+        char lowChar = hex.charAt(index + 1);
+        int high = highChar < DIGIT_VALUES.length ? DIGIT_VALUES[highChar] : -1;
+        int low = lowChar < DIGIT_VALUES.length ? DIGIT_VALUES[lowChar] : -1;
+        if ((high | low) < 0) {
+            throw new RuntimeException("Invalid hex digit " + highChar + lowChar);
+        }
+        return (high << 4) | low;
     }
 
     public static byte[] toBytesReversed( String hexString) {
@@ -128,10 +262,7 @@ public class HexUtils {
     }
 
     public static void appendByteAsHex(StringBuilder sb, byte b) {
-        int unsignedByte = b & 0xFF;
-        if (unsignedByte < 16) {
-            sb.append("0");
-        }
-        sb.append(Integer.toHexString(unsignedByte));
+        int pair = (b & 0xFF) << 1;
+        sb.append(HEX_PAIRS[pair]).append(HEX_PAIRS[pair + 1]);
     }
 }
@@ -0,0 +1,110 @@
+package io.yosemiteblockchain.data.remote;
+
+import io.yosemiteblockchain.services.MetricsRecorder;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+
+/**
+ * Records the latency, the status code and the bytes in/out of each request to {@link MetricsRecorder}.
+ * The response body is not buffered; its size is counted while it's read.
+ */
+public class MetricsInterceptor implements Interceptor {
+    private final MetricsRecorder mMetricsRecorder;
+
+    public MetricsInterceptor(MetricsRecorder metricsRecorder) {
+        mMetricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = request.url().encodedPath();
+        long bytesSent = request.body() != null ? request.body().contentLength() : 0;
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            mMetricsRecorder.recordFailure(endpoint, System.nanoTime() - start, e);
+            throw e;
+        }
+        long latencyNanos = System.nanoTime() - start;
+
+        if (response.body() == null) {
+            mMetricsRecorder.recordResponse(endpoint, response.code(), latencyNanos, bytesSent, 0);
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingResponseBody(response.body(), endpoint, response.code(), latencyNanos, bytesSent))
+                .build();
+    }
+
+    private class CountingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final String endpoint;
+        private final int statusCode;
+        private final long latencyNanos;
+        private final long bytesSent;
+        private final BufferedSource source;
+        private long bytesReceived;
+        private boolean recorded;
+
+        CountingResponseBody(ResponseBody delegate, String endpoint, int statusCode, long latencyNanos, long bytesSent) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+            this.latencyNanos = latencyNanos;
+            this.bytesSent = bytesSent;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        record();
+                    } else {
+                        bytesReceived += read;
+                    }
+                    return read;
+                }
+            });
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                mMetricsRecorder.recordResponse(endpoint, statusCode, latencyNanos, bytesSent, bytesReceived);
+            }
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+
+        @Override
+        public void close() {
+            record();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.yosemiteblockchain.data.remote;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs the request and response bodies of the sampled requests at the debug level.
+ * The other requests are not buffered at all.
+ */
+public class SampledLoggingInterceptor implements Interceptor {
+    private final static Logger logger = LoggerFactory.getLogger(SampledLoggingInterceptor.class);
+
+    private final double mSampleRate;
+    private final HttpLoggingInterceptor mBodyLoggingInterceptor;
+
+    /**
+     * @param sampleRate the ratio of the requests to log, between 0 and 1
+     */
+    public SampledLoggingInterceptor(double sampleRate) {
+        mSampleRate = sampleRate;
+        mBodyLoggingInterceptor = new HttpLoggingInterceptor(logger::debug);
+        mBodyLoggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (mSampleRate > 0 && logger.isDebugEnabled()
+                && (mSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < mSampleRate)) {
+            return mBodyLoggingInterceptor.intercept(chain);
+        }
+        return chain.proceed(chain.request());
+    }
+}
@@ -0,0 +1,655 @@
+package io.yosemiteblockchain.data.remote.abi;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.yosemiteblockchain.crypto.ec.CurveParam;
+import io.yosemiteblockchain.crypto.ec.EcSignature;
+import io.yosemiteblockchain.crypto.ec.EcTools;
+import io.yosemiteblockchain.crypto.ec.EosEcUtil;
+import io.yosemiteblockchain.crypto.ec.EosPublicKey;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteBufferReader;
+import io.yosemiteblockchain.data.types.EosByteReader;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
+import io.yosemiteblockchain.data.types.EosType;
+import io.yosemiteblockchain.data.types.TypeName;
+import io.yosemiteblockchain.data.types.TypeSymbol;
+import io.yosemiteblockchain.util.Utils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts the json-formatted action data to the binary format and vice versa by the ABI of the contract.
+ * It does the same thing as abi_json_to_bin and abi_bin_to_json of the chain API without any network request.
+ */
+public class EosAbiSerializer {
+
+    private static final long BLOCK_TIMESTAMP_EPOCH_MS = 946684800000L; // 2000-01-01T00:00:00Z
+    private static final int BLOCK_INTERVAL_MS = 500;
+
+    private static final int KEY_DATA_LEN = 33;
+    private static final int SIGNATURE_DATA_LEN = 65;
+
+    private final Map<String, String> typeDefs = new HashMap<>();
+    private final Map<String, EosAbiStruct> structs = new HashMap<>();
+    private final Map<String, String> actionTypes = new HashMap<>();
+
+    public static class AbiSerializationException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        public AbiSerializationException(String message) {
+            super(message);
+        }
+
+        public AbiSerializationException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public EosAbiSerializer(EosAbiMain abi) {
+        if (abi == null) throw new IllegalArgumentException("abi cannot be null");
+
+        if (abi.types != null) {
+            for (EosAbiTypeDef typeDef : abi.types) {
+                typeDefs.put(typeDef.new_type_name, typeDef.type);
+            }
+        }
+        if (abi.structs != null) {
+            for (EosAbiStruct struct : abi.structs) {
+                structs.put(struct.name, struct);
+            }
+        }
+        if (abi.actions != null) {
+            for (EosAbiAction action : abi.actions) {
+                actionTypes.put(action.name, action.type);
+            }
+        }
+    }
+
+    public boolean hasAction(String actionName) {
+        return actionTypes.containsKey(actionName);
+    }
+
+    /**
+     * Get the type name of the action data.
+     * @param actionName the name of the action
+     * @return the type name, usually the struct name
+     */
+    public String getActionType(String actionName) {
+        String type = actionTypes.get(actionName);
+        if (type == null) {
+            throw new AbiSerializationException("unknown action: " + actionName);
+        }
+        return type;
+    }
+
+    /**
+     * Converts the json-formatted action data to the binary format.
+     * @param actionName the name of the action
+     * @param jsonData the json-formatted data
+     * @return the action data as hex string
+     */
+    public String actionJsonToHex(String actionName, String jsonData) {
+        return HexUtils.toHex(encodeAction(actionName, new JsonParser().parse(jsonData)));
+    }
+
+    public byte[] encodeAction(String actionName, JsonElement data) {
+        try (EosByteBufferWriter writer = EosByteBufferWriter.acquire()) {
+            encode(getActionType(actionName), data, writer);
+            return writer.toBytes();
+        }
+    }
+
+    public JsonElement decodeAction(String actionName, byte[] data) {
+        return decode(getActionType(actionName), new EosByteBufferReader(data));
+    }
+
+    /**
+     * @param data the action data from its position to its limit; the buffer is not modified
+     */
+    public JsonElement decodeAction(String actionName, ByteBuffer data) {
+        return decode(getActionType(actionName), new EosByteBufferReader(data));
+    }
+
+    /**
+     * Converts the hex-formatted action data to json.
+     * @param actionName the name of the action
+     * @param hexData the action data as hex string
+     * @return the json-formatted data
+     */
+    public String actionHexToJson(String actionName, String hexData) {
+        return decodeAction(actionName, HexUtils.toBytes(hexData)).toString();
+    }
+
+    private String resolveType(String type) {
+        String resolved = type;
+        for (int depth = 0; typeDefs.containsKey(resolved); depth++) {
+            if (depth > typeDefs.size()) {
+                throw new AbiSerializationException("circular typedef: " + type);
+            }
+            resolved = typeDefs.get(resolved);
+        }
+        return resolved;
+    }
+
+    public void encode(String type, JsonElement value, EosType.Writer writer) {
+        String resolved = resolveType(type);
+
+        if (resolved.endsWith("[]")) {
+            String elementType = resolved.substring(0, resolved.length() - 2);
+            if (value == null || !value.isJsonArray()) {
+                throw new AbiSerializationException("expected array for " + type);
+            }
+            JsonArray array = value.getAsJsonArray();
+            writer.putVariableUInt(array.size());
+            for (JsonElement element : array) {
+                encode(elementType, element, writer);
+            }
+            return;
+        }
+
+        if (resolved.endsWith("?")) {
+            if (value == null || value.isJsonNull()) {
+                writer.put((byte) 0);
+            } else {
+                writer.put((byte) 1);
+                encode(resolved.substring(0, resolved.length() - 1), value, writer);
+            }
+            return;
+        }
+
+        if (resolved.endsWith("$")) {
+            if (value != null && !value.isJsonNull()) {
+                encode(resolved.substring(0, resolved.length() - 1), value, writer);
+            }
+            return;
+        }
+
+        EosAbiStruct struct = structs.get(resolved);
+        if (struct != null) {
+            encodeStruct(struct, value, writer);
+            return;
+        }
+
+        if (value == null || value.isJsonNull()) {
+            throw new AbiSerializationException("missing value for " + type);
+        }
+
+        try {
+            encodeBuiltIn(resolved, value, writer);
+        } catch (AbiSerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new AbiSerializationException("wrong value for " + type + ": " + value, e);
+        }
+    }
+
+    private void encodeStruct(EosAbiStruct struct, JsonElement value, EosType.Writer writer) {
+        if (value == null || !(value.isJsonObject() || value.isJsonArray())) {
+            throw new AbiSerializationException("expected object or array for " + struct.name);
+        }
+
+        if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            int consumed = encodeStructByPosition(struct, array, 0, writer);
+            if (consumed != array.size()) {
+                throw new AbiSerializationException("wrong number of fields for " + struct.name);
+            }
+        } else {
+            encodeStructByName(struct, value.getAsJsonObject(), writer);
+        }
+    }
+
+    private int encodeStructByPosition(EosAbiStruct struct, JsonArray array, int index, EosType.Writer writer) {
+        if (struct.base != null && !struct.base.isEmpty()) {
+            index = encodeStructByPosition(getStruct(struct.base), array, index, writer);
+        }
+        if (struct.fields != null) {
+            for (EosAbiField field : struct.fields) {
+                JsonElement element = index < array.size() ? array.get(index) : null;
+                if (element == null && !field.type.endsWith("$")) {
+                    throw new AbiSerializationException("missing field " + field.name + " of " + struct.name);
+                }
+                encode(field.type, element, writer);
+                index++;
+            }
+        }
+        return Math.min(index, array.size());
+    }
+
+    private void encodeStructByName(EosAbiStruct struct, JsonObject object, EosType.Writer writer) {
+        if (struct.base != null && !struct.base.isEmpty()) {
+            encodeStructByName(getStruct(struct.base), object, writer);
+        }
+        if (struct.fields != null) {
+            for (EosAbiField field : struct.fields) {
+                JsonElement element = object.get(field.name);
+                if (element == null && !(field.type.endsWith("$") || field.type.endsWith("?"))) {
+                    throw new AbiSerializationException("missing field " + field.name + " of " + struct.name);
+                }
+                encode(field.type, element, writer);
+            }
+        }
+    }
+
+    private EosAbiStruct getStruct(String name) {
+        EosAbiStruct struct = structs.get(resolveType(name));
+        if (struct == null) {
+            throw new AbiSerializationException("unknown struct: " + name);
+        }
+        return struct;
+    }
+
+    private void encodeBuiltIn(String type, JsonElement value, EosType.Writer writer) {
+        switch (type) {
+            case "bool":
+                writer.put((byte) (parseBool(value) ? 1 : 0));
+                break;
+            case "int8":
+            case "uint8":
+                writer.put((byte) value.getAsInt());
+                break;
+            case "int16":
+            case "uint16":
+                writer.putShortLE((short) value.getAsInt());
+                break;
+            case "int32":
+                writer.putIntLE(value.getAsInt());
+                break;
+            case "uint32":
+                writer.putIntLE((int) value.getAsLong());
+                break;
+            case "int64":
+                writer.putLongLE(Long.parseLong(value.getAsString()));
+                break;
+            case "uint64":
+                writer.putLongLE(Long.parseUnsignedLong(value.getAsString()));
+                break;
+            case "int128":
+            case "uint128":
+                writer.putBytes(toLittleEndian128(parseBigInteger(value.getAsString())));
+                break;
+            case "varint32": {
+                int v = value.getAsInt();
+                writer.putVariableUInt(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL); // zigzag
+                break;
+            }
+            case "varuint32":
+                writer.putVariableUInt(value.getAsLong() & 0xFFFFFFFFL);
+                break;
+            case "float32":
+                writer.putIntLE(Float.floatToIntBits(value.getAsFloat()));
+                break;
+            case "float64":
+                writer.putLongLE(Double.doubleToLongBits(value.getAsDouble()));
+                break;
+            case "float128":
+                writer.putBytes(toFixedBytes(value.getAsString(), 16));
+                break;
+            case "time_point":
+                writer.putLongLE(parseTimeMillis(value.getAsString()) * 1000);
+                break;
+            case "time_point_sec":
+                writer.putIntLE((int) (parseTimeMillis(value.getAsString()) / 1000));
+                break;
+            case "block_timestamp_type":
+                writer.putIntLE((int) ((parseTimeMillis(value.getAsString()) - BLOCK_TIMESTAMP_EPOCH_MS) / BLOCK_INTERVAL_MS));
+                break;
+            case "name":
+            case "account_name":
+            case "action_name":
+            case "permission_name":
+            case "table_name":
+            case "scope_name":
+                writer.putLongLE(TypeName.stringToName(value.getAsString()));
+                break;
+            case "bytes": {
+                byte[] bytes = HexUtils.toBytes(value.getAsString());
+                writer.putVariableUInt(bytes.length);
+                writer.putBytes(bytes);
+                break;
+            }
+            case "string": {
+                byte[] bytes = value.getAsString().getBytes(StandardCharsets.UTF_8);
+                writer.putVariableUInt(bytes.length);
+                writer.putBytes(bytes);
+                break;
+            }
+            case "checksum160":
+                writer.putBytes(toFixedBytes(value.getAsString(), 20));
+                break;
+            case "checksum256":
+            case "transaction_id_type":
+            case "block_id_type":
+                writer.putBytes(toFixedBytes(value.getAsString(), 32));
+                break;
+            case "checksum512":
+                writer.putBytes(toFixedBytes(value.getAsString(), 64));
+                break;
+            case "public_key": {
+                EosPublicKey publicKey = new EosPublicKey(value.getAsString());
+                writer.put((byte) (publicKey.isCurveParamK1() ? CurveParam.SECP256_K1 : CurveParam.SECP256_R1));
+                writer.putBytes(publicKey.getBytes());
+                break;
+            }
+            case "signature":
+                encodeSignature(value.getAsString(), writer);
+                break;
+            case "symbol":
+                TypeSymbol.fromString(value.getAsString()).pack(writer);
+                break;
+            case "symbol_code":
+                // the symbol without the precision byte
+                writer.putLongLE(TypeSymbol.stringToSymbol(0, value.getAsString()) >>> 8);
+                break;
+            case "asset":
+                encodeAsset(value.getAsString(), writer);
+                break;
+            case "extended_asset": {
+                JsonObject object = value.getAsJsonObject();
+                encodeAsset(object.get("quantity").getAsString(), writer);
+                writer.putLongLE(TypeName.stringToName(object.get("contract").getAsString()));
+                break;
+            }
+            default:
+                throw new AbiSerializationException("unknown type: " + type);
+        }
+    }
+
+    private static boolean parseBool(JsonElement value) {
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            return primitive.getAsInt() != 0;
+        }
+        return Boolean.parseBoolean(primitive.getAsString());
+    }
+
+    private static BigInteger parseBigInteger(String value) {
+        if (value.startsWith("0x") || value.startsWith("0X")) {
+            return new BigInteger(value.substring(2), 16);
+        }
+        return new BigInteger(value);
+    }
+
+    private static byte[] toLittleEndian128(BigInteger value) {
+        byte[] bigEndian = value.toByteArray();
+        byte[] result = new byte[16];
+        byte fill = (byte) (value.signum() < 0 ? 0xFF : 0x00);
+        for (int i = 0; i < result.length; i++) {
+            int srcIndex = bigEndian.length - 1 - i;
+            result[i] = srcIndex >= 0 ? bigEndian[srcIndex] : fill;
+        }
+        return result;
+    }
+
+    private static byte[] toFixedBytes(String hexString, int length) {
+        if (hexString.startsWith("0x")) {
+            hexString = hexString.substring(2);
+        }
+        byte[] bytes = HexUtils.toBytes(hexString);
+        if (bytes.length != length) {
+            throw new AbiSerializationException("expected " + length + " bytes: " + hexString);
+        }
+        return bytes;
+    }
+
+    private static long parseTimeMillis(String value) {
+        String time = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+
+        long fractionMillis = 0;
+        int dotIndex = time.indexOf('.');
+        if (dotIndex >= 0) {
+            String fraction = (time.substring(dotIndex + 1) + "000").substring(0, 3);
+            fractionMillis = Long.parseLong(fraction);
+            time = time.substring(0, dotIndex);
+        }
+
+        try {
+            return Utils.convertTimestampToDate(time).getTime() + fractionMillis;
+        } catch (ParseException e) {
+            throw new AbiSerializationException("wrong time format: " + value, e);
+        }
+    }
+
+    private static void encodeSignature(String value, EosType.Writer writer) {
+        String[] parts = EosEcUtil.safeSplitEosCryptoString(value);
+        if (parts.length < 3) {
+            throw new AbiSerializationException("wrong signature: " + value);
+        }
+        byte[] data = EosEcUtil.getBytesIfMatchedRipemd160(parts[2], parts[1], null);
+        if (data.length != SIGNATURE_DATA_LEN) {
+            throw new AbiSerializationException("wrong signature length: " + value);
+        }
+        writer.put((byte) (EosEcUtil.PREFIX_R1.equals(parts[1]) ? CurveParam.SECP256_R1 : CurveParam.SECP256_K1));
+        writer.putBytes(data);
+    }
+
+    private static void encodeAsset(String value, EosType.Writer writer) {
+        String[] parts = value.trim().split(" ");
+        if (parts.length != 2) {
+            throw new AbiSerializationException("wrong asset: " + value);
+        }
+
+        String amountStr = parts[0];
+        int dotIndex = amountStr.indexOf('.');
+        int precision = dotIndex < 0 ? 0 : amountStr.length() - dotIndex - 1;
+        long amount = Long.parseLong(dotIndex < 0 ? amountStr : amountStr.substring(0, dotIndex) + amountStr.substring(dotIndex + 1));
+
+        writer.putLongLE(amount);
+        writer.putLongLE(TypeSymbol.stringToSymbol(precision, parts[1]));
+    }
+
+    public JsonElement decode(String type, EosType.Reader reader) {
+        try {
+            return decodeInternal(type, reader);
+        } catch (EosType.InsufficientBytesException e) {
+            throw new AbiSerializationException("insufficient bytes for " + type, e);
+        }
+    }
+
+    private JsonElement decodeInternal(String type, EosType.Reader reader) throws EosType.InsufficientBytesException {
+        String resolved = resolveType(type);
+
+        if (resolved.endsWith("[]")) {
+            String elementType = resolved.substring(0, resolved.length() - 2);
+            long size = reader.getVariableUint();
+            JsonArray array = new JsonArray();
+            for (long i = 0; i < size; i++) {
+                array.add(decodeInternal(elementType, reader));
+            }
+            return array;
+        }
+
+        if (resolved.endsWith("?")) {
+            if (reader.get() == 0) {
+                return JsonNull.INSTANCE;
+            }
+            return decodeInternal(resolved.substring(0, resolved.length() - 1), reader);
+        }
+
+        if (resolved.endsWith("$")) {
+            if (reader instanceof EosByteReader && ((EosByteReader) reader).remaining() == 0) {
+                return null;
+            }
+            if (reader instanceof EosByteBufferReader && ((EosByteBufferReader) reader).remaining() == 0) {
+                return null;
+            }
+            return decodeInternal(resolved.substring(0, resolved.length() - 1), reader);
+        }
+
+        EosAbiStruct struct = structs.get(resolved);
+        if (struct != null) {
+            JsonObject object = new JsonObject();
+            decodeStruct(struct, reader, object);
+            return object;
+        }
+
+        return decodeBuiltIn(resolved, reader);
+    }
+
+    private void decodeStruct(EosAbiStruct struct, EosType.Reader reader, JsonObject object)
+            throws EosType.InsufficientBytesException {
+        if (struct.base != null && !struct.base.isEmpty()) {
+            decodeStruct(getStruct(struct.base), reader, object);
+        }
+        if (struct.fields != null) {
+            for (EosAbiField field : struct.fields) {
+                JsonElement element = decodeInternal(field.type, reader);
+                if (element != null) {
+                    object.add(field.name, element);
+                }
+            }
+        }
+    }
+
+    private JsonElement decodeBuiltIn(String type, EosType.Reader reader) throws EosType.InsufficientBytesException {
+        switch (type) {
+            case "bool":
+                return new JsonPrimitive(reader.get() != 0);
+            case "int8":
+                return new JsonPrimitive(reader.get());
+            case "uint8":
+                return new JsonPrimitive(reader.get() & 0xFF);
+            case "int16":
+                return new JsonPrimitive((short) reader.getShortLE());
+            case "uint16":
+                return new JsonPrimitive(reader.getShortLE());
+            case "int32":
+                return new JsonPrimitive(reader.getIntLE());
+            case "uint32":
+                return new JsonPrimitive(reader.getIntLE() & 0xFFFFFFFFL);
+            case "int64":
+                return new JsonPrimitive(reader.getLongLE());
+            case "uint64":
+                return new JsonPrimitive(Long.toUnsignedString(reader.getLongLE()));
+            case "int128":
+                return new JsonPrimitive(fromLittleEndian128(reader.getBytes(16), true).toString());
+            case "uint128":
+                return new JsonPrimitive(fromLittleEndian128(reader.getBytes(16), false).toString());
+            case "varint32": {
+                long v = reader.getVariableUint();
+                return new JsonPrimitive((int) ((v >>> 1) ^ -(v & 1))); // zigzag
+            }
+            case "varuint32":
+                return new JsonPrimitive(reader.getVariableUint() & 0xFFFFFFFFL);
+            case "float32":
+                return new JsonPrimitive(Float.intBitsToFloat(reader.getIntLE()));
+            case "float64":
+                return new JsonPrimitive(Double.longBitsToDouble(reader.getLongLE()));
+            case "float128":
+                return new JsonPrimitive("0x" + HexUtils.toHex(reader.getBytes(16)));
+            case "time_point": {
+                long millis = reader.getLongLE() / 1000;
+                return new JsonPrimitive(formatTime(millis) + String.format(".%03d", millis % 1000));
+            }
+            case "time_point_sec":
+                return new JsonPrimitive(formatTime((reader.getIntLE() & 0xFFFFFFFFL) * 1000));
+            case "block_timestamp_type": {
+                long millis = (reader.getIntLE() & 0xFFFFFFFFL) * BLOCK_INTERVAL_MS + BLOCK_TIMESTAMP_EPOCH_MS;
+                return new JsonPrimitive(formatTime(millis) + String.format(".%03d", millis % 1000));
+            }
+            case "name":
+            case "account_name":
+            case "action_name":
+            case "permission_name":
+            case "table_name":
+            case "scope_name":
+                return new JsonPrimitive(TypeName.nameToString(reader.getLongLE()));
+            case "bytes":
+                return new JsonPrimitive(HexUtils.toHex(reader.getBytes((int) reader.getVariableUint())));
+            case "string":
+                if (reader instanceof EosByteBufferReader) {
+                    return new JsonPrimitive(((EosByteBufferReader) reader).getUtf8());
+                }
+                return new JsonPrimitive(new String(reader.getBytes((int) reader.getVariableUint()), StandardCharsets.UTF_8));
+            case "checksum160":
+                return new JsonPrimitive(HexUtils.toHex(reader.getBytes(20)));
+            case "checksum256":
+            case "transaction_id_type":
+            case "block_id_type":
+                return new JsonPrimitive(HexUtils.toHex(reader.getBytes(32)));
+            case "checksum512":
+                return new JsonPrimitive(HexUtils.toHex(reader.getBytes(64)));
+            case "public_key": {
+                int curveType = reader.get();
+                byte[] data = reader.getBytes(KEY_DATA_LEN);
+                return new JsonPrimitive(new EosPublicKey(data, EcTools.getCurveParam(curveType)).toString());
+            }
+            case "signature": {
+                int curveType = reader.get();
+                byte[] data = reader.getBytes(SIGNATURE_DATA_LEN);
+                return new JsonPrimitive(EosEcUtil.encodeEosCrypto(EcSignature.PREFIX_YSG, EcTools.getCurveParam(curveType), data));
+            }
+            case "symbol":
+                return new JsonPrimitive(symbolFromLong(reader.getLongLE()).toString());
+            case "symbol_code":
+                return new JsonPrimitive(symbolFromLong(reader.getLongLE() << 8).name());
+            case "asset":
+                return new JsonPrimitive(decodeAsset(reader));
+            case "extended_asset": {
+                JsonObject object = new JsonObject();
+                object.addProperty("quantity", decodeAsset(reader));
+                object.addProperty("contract", TypeName.nameToString(reader.getLongLE()));
+                return object;
+            }
+            default:
+                throw new AbiSerializationException("unknown type: " + type);
+        }
+    }
+
+    private static BigInteger fromLittleEndian128(byte[] littleEndian, boolean signed) {
+        byte[] bigEndian = new byte[littleEndian.length];
+        for (int i = 0; i < littleEndian.length; i++) {
+            bigEndian[i] = littleEndian[littleEndian.length - 1 - i];
+        }
+        return signed ? new BigInteger(bigEndian) : new BigInteger(1, bigEndian);
+    }
+
+    private static String formatTime(long millis) {
+        DateFormat sdf = Utils.SIMPLE_DATE_FORMAT_FOR_EOS.get();
+        return sdf.format(new Date(millis));
+    }
+
+    private static TypeSymbol symbolFromLong(long value) {
+        int precision = (int) (value & 0xFF);
+        StringBuilder name = new StringBuilder(7);
+        for (long v = value >>> 8; v > 0; v >>>= 8) {
+            name.append((char) (v & 0xFF));
+        }
+        return new TypeSymbol(precision, name.toString());
+    }
+
+    private static String decodeAsset(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        long amount = reader.getLongLE();
+        TypeSymbol symbol = symbolFromLong(reader.getLongLE());
+
+        StringBuilder builder = new StringBuilder();
+        int decimals = symbol.decimals();
+        if (decimals > 0) {
+            String digits = Long.toString(Math.abs(amount));
+            while (digits.length() <= decimals) {
+                digits = "0" + digits;
+            }
+            if (amount < 0) builder.append('-');
+            builder.append(digits, 0, digits.length() - decimals).append('.').append(digits.substring(digits.length() - decimals));
+        } else {
+            builder.append(amount);
+        }
+        return builder.append(' ').append(symbol.name()).toString();
+    }
+
+}
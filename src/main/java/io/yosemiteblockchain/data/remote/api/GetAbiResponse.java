@@ -0,0 +1,22 @@
+package io.yosemiteblockchain.data.remote.api;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import io.yosemiteblockchain.data.remote.abi.EosAbiMain;
+
+public class GetAbiResponse {
+    @Expose
+    @SerializedName("account_name")
+    private String accountName;
+
+    @Expose
+    private EosAbiMain abi;
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public EosAbiMain getAbi() {
+        return abi;
+    }
+}
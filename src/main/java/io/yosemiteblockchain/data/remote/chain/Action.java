@@ -28,6 +28,7 @@ import com.google.gson.JsonPrimitive;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
 import io.yosemiteblockchain.data.types.EosType;
 import io.yosemiteblockchain.data.types.TypeAccountName;
 import io.yosemiteblockchain.data.types.TypeActionName;
@@ -35,8 +36,9 @@ import io.yosemiteblockchain.data.types.TypePermission;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
-public class Action implements EosType.Packer {
+public class Action implements EosType.Packer, EosType.Unpacker {
     @Expose
     private TypeAccountName account;
 
@@ -53,6 +55,9 @@ public class Action implements EosType.Packer {
     @SerializedName("hex_data")
     private String hexData;
 
+    // counted by the setters, so the transaction of this action can tell its packed bytes are stale
+    private transient int modCount;
+
     public Action(String account, String name, TypePermission authorization, String data) {
         this.account = new TypeAccountName(account);
         this.name = new TypeActionName(name);
@@ -80,6 +85,7 @@ public class Action implements EosType.Packer {
 
     public void setAccount(String account) {
         this.account = new TypeAccountName(account);
+        modCount++;
     }
 
     public String getName() {
@@ -88,14 +94,19 @@ public class Action implements EosType.Packer {
 
     public void setName(String name) {
         this.name = new TypeActionName(name);
+        modCount++;
     }
 
+    /**
+     * @return the unmodifiable view of the authorization; use {@link #setAuthorization(Collection)} to change it
+     */
     public Collection<TypePermission> getAuthorization() {
-        return authorization;
+        return authorization == null ? null : Collections.unmodifiableCollection(authorization);
     }
 
     public void setAuthorization(Collection<TypePermission> permissions) {
         authorization = permissions;
+        modCount++;
     }
 
     public JsonElement getData() {
@@ -104,6 +115,11 @@ public class Action implements EosType.Packer {
 
     public void setData(String data) {
         this.data = new JsonPrimitive(data);
+        modCount++;
+    }
+
+    int getModCount() {
+        return modCount;
     }
 
     public String getHexData() {
@@ -118,11 +134,35 @@ public class Action implements EosType.Packer {
         writer.putCollection(authorization);
 
         if (null != data) {
-            byte[] dataAsBytes = HexUtils.toBytes(data.getAsString());
-            writer.putVariableUInt(dataAsBytes.length);
-            writer.putBytes(dataAsBytes);
+            String hex = data.getAsString();
+            if (writer instanceof EosByteBufferWriter && hex.length() % 2 == 0) {
+                // decoded into the buffer directly
+                writer.putVariableUInt(hex.length() / 2);
+                ((EosByteBufferWriter) writer).putHex(hex);
+            } else {
+                byte[] dataAsBytes = HexUtils.toBytes(hex);
+                writer.putVariableUInt(dataAsBytes.length);
+                writer.putBytes(dataAsBytes);
+            }
         } else {
             writer.putVariableUInt(0);
         }
     }
+
+    @Override
+    public void unpack(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        account = new TypeAccountName(reader.getLongLE());
+        name = new TypeActionName(reader.getLongLE());
+
+        int authorizationCount = reader.getVariableSize();
+        authorization = new ArrayList<>();
+        for (int i = 0; i < authorizationCount; i++) {
+            TypePermission permission = new TypePermission();
+            permission.unpack(reader);
+            authorization.add(permission);
+        }
+
+        data = new JsonPrimitive(HexUtils.toHex(reader.getBytes(reader.getVariableSize())));
+        modCount++;
+    }
 }
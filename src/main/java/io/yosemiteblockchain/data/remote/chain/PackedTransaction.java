@@ -2,7 +2,9 @@ package io.yosemiteblockchain.data.remote.chain;
 
 import com.google.gson.annotations.Expose;
 import io.yosemiteblockchain.crypto.util.HexUtils;
-import io.yosemiteblockchain.data.types.EosByteWriter;
+import io.yosemiteblockchain.data.types.EosByteBufferReader;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
+import io.yosemiteblockchain.data.types.EosType;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -14,6 +16,8 @@ import java.util.zip.Inflater;
 public class PackedTransaction {
     private final SignedTransaction signedTransaction;
 
+    private final SerializedTransaction serializedTransaction;
+
     @Expose
     private final List<String> signatures;
 
@@ -35,39 +39,114 @@ public class PackedTransaction {
         compression = compressType.name();
         signatures = stxn.getSignatures();
 
-        packed_trx = HexUtils.toHex(packTransaction(stxn, compressType));
+        serializedTransaction = stxn.getSerialized();
+        packed_trx = CompressType.zlib.equals(compressType)
+                ? HexUtils.toHex(compress(serializedTransaction.packedBytes(), compressType))
+                : serializedTransaction.toHex();
 
         byte[] packed_ctx_free_bytes = packContextFreeData(stxn.getCtxFreeData(), compressType);
         packed_context_free_data = (packed_ctx_free_bytes.length == 0) ? "" : HexUtils.toHex(packed_ctx_free_bytes);
     }
 
+    /**
+     * @return the id of the transaction packed in packed_trx
+     */
     public String getId() {
-        return signedTransaction.getId();
+        return serializedTransaction.getId();
     }
 
-    private byte[] packTransaction(Transaction transaction, CompressType compressType) {
-        EosByteWriter byteWriter = new EosByteWriter(512);
-        transaction.pack(byteWriter);
+    public SignedTransaction getSignedTransaction() {
+        return signedTransaction;
+    }
 
-        // pack -> compress
-        return compress(byteWriter.toBytes(), compressType);
+    /**
+     * @return the packed bytes of packed_trx before the compression and its id
+     */
+    public SerializedTransaction getSerializedTransaction() {
+        return serializedTransaction;
     }
 
-    private byte[] packContextFreeData(List<String> ctxFreeData, CompressType compressType) {
-        EosByteWriter byteWriter = new EosByteWriter(64);
+    /**
+     * Decode packed_trx, signatures and packed_context_free_data of this instance e.g. the one deserialized from json.
+     * @return the signed transaction
+     * @throws IllegalArgumentException if packed_trx or packed_context_free_data is not valid
+     */
+    public SignedTransaction unpack() {
+        return unpack(packed_trx, CompressType.valueOf(compression), signatures, packed_context_free_data);
+    }
+
+    /**
+     * Decode the packed transaction locally without abi_bin_to_json,
+     * e.g. packed_trx of the transaction trace or the transaction signed and queued by this library.
+     * The id of the decoded transaction is the hash of the decompressed bytes; it's not packed again.
+     * @param packedTrx packed_trx as hex string
+     * @param compressType the compression of packed_trx
+     * @return the transaction without the signatures and the context free data
+     * @throws IllegalArgumentException if packedTrx is not valid
+     */
+    public static SignedTransaction unpack(String packedTrx, CompressType compressType) {
+        return unpack(packedTrx, compressType, null, null);
+    }
+
+    /**
+     * @param packedTrx packed_trx as hex string
+     * @param compressType the compression of packed_trx and packedContextFreeData
+     * @param signatures the signatures to add to the decoded transaction; nullable
+     * @param packedContextFreeData packed_context_free_data as hex string; nullable
+     * @return the signed transaction
+     * @throws IllegalArgumentException if packedTrx or packedContextFreeData is not valid
+     * @see #unpack(String, CompressType)
+     */
+    public static SignedTransaction unpack(String packedTrx, CompressType compressType, List<String> signatures,
+                                           String packedContextFreeData) {
+        if (packedTrx == null) throw new IllegalArgumentException("packedTrx cannot be null.");
+        if (compressType == null) throw new IllegalArgumentException("compressType cannot be null.");
+
+        byte[] packedBytes = decompress(HexUtils.toBytes(packedTrx), compressType);
+        SignedTransaction signedTransaction = new SignedTransaction();
+        try {
+            EosByteBufferReader reader = new EosByteBufferReader(packedBytes);
+            signedTransaction.unpack(reader);
+            if (reader.remaining() != 0) {
+                throw new IllegalArgumentException("packed transaction has " + reader.remaining() + " trailing bytes");
+            }
+
+            if (packedContextFreeData != null && !packedContextFreeData.isEmpty()) {
+                EosByteBufferReader cfdReader = new EosByteBufferReader(
+                        decompress(HexUtils.toBytes(packedContextFreeData), compressType));
+                int count = cfdReader.getVariableSize();
+                for (int i = 0; i < count; i++) {
+                    signedTransaction.getCtxFreeData().add(HexUtils.toHex(cfdReader.getBytes(cfdReader.getVariableSize())));
+                }
+            }
+        } catch (EosType.InsufficientBytesException e) {
+            throw new IllegalArgumentException("packed transaction is truncated", e);
+        }
 
+        if (signatures != null) {
+            signedTransaction.getSignatures().addAll(signatures);
+        }
+        signedTransaction.setSerialized(SerializedTransaction.of(packedBytes));
+        return signedTransaction;
+    }
+
+    private byte[] packContextFreeData(List<String> ctxFreeData, CompressType compressType) {
         int ctxFreeDataCount = (ctxFreeData == null) ? 0 : ctxFreeData.size();
         if (ctxFreeDataCount == 0) {
-            return byteWriter.toBytes();
+            return new byte[0];
         }
 
-        byteWriter.putVariableUInt(ctxFreeDataCount);
+        try (EosByteBufferWriter byteWriter = EosByteBufferWriter.acquire()) {
+            byteWriter.putVariableUInt(ctxFreeDataCount);
 
-        for (String hexData : ctxFreeData) {
-            byteWriter.putBytes(HexUtils.toBytes(hexData));
-        }
+            for (String hexData : ctxFreeData) {
+                byte[] data = HexUtils.toBytes(hexData);
+                byteWriter.putVariableUInt(data.length);
+                byteWriter.putBytes(data);
+            }
 
-        return compress(byteWriter.toBytes(), compressType);
+            return compress(byteWriter.toBytes(), compressType);
+        }
     }
 
     private byte[] compress(byte[] uncompressedBytes, CompressType compressType) {
@@ -97,22 +176,35 @@ public class PackedTransaction {
         return outputStream.toByteArray();
     }
 
-    private byte[] decompress(byte[] compressedBytes) {
+    /**
+     * @param bytes the bytes of packed_trx or packed_context_free_data
+     * @param compressType the compression of the bytes
+     * @return the decompressed bytes; the bytes as they are if they're not compressed
+     * @throws IllegalArgumentException if the bytes are not valid zlib data
+     */
+    public static byte[] decompress(byte[] bytes, CompressType compressType) {
+        if (!CompressType.zlib.equals(compressType)) {
+            return bytes;
+        }
+
         Inflater inflater = new Inflater();
-        inflater.setInput(compressedBytes);
+        inflater.setInput(bytes);
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(compressedBytes.length);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length * 4);
         byte[] buffer = new byte[1024];
 
         try {
             while (!inflater.finished()) {
                 int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("zlib data is truncated");
+                }
                 outputStream.write(buffer, 0, count);
             }
-            outputStream.close();
-        } catch (DataFormatException | IOException e) {
-            e.printStackTrace();
-            return compressedBytes;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("invalid zlib data", e);
+        } finally {
+            inflater.end();
         }
 
         return outputStream.toByteArray();
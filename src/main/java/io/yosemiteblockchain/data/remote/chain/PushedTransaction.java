@@ -39,6 +39,18 @@ public class PushedTransaction {
     @Expose
     private TransactionTrace processed;
 
+    public PushedTransaction() {
+    }
+
+    /**
+     * The transaction known to be pushed without its trace, e.g. when the node reported the retried push as
+     * the duplicate of the earlier attempt of which response was lost.
+     * @param transactionId the id of the pushed transaction
+     */
+    public PushedTransaction(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
     /**
      * @return the string representation of SHA-256 hash of transaction bytes; you can use this value for retrieving
      *         transaction information from the Yosemite network.
@@ -48,7 +60,8 @@ public class PushedTransaction {
     }
 
     /**
-     * @return transaction processing result including pushed block number and block time
+     * @return transaction processing result including pushed block number and block time;
+     *         null if the transaction was pushed by the earlier attempt of the retried push
      */
     public TransactionTrace getTransactionTrace() {
         return processed;
@@ -0,0 +1,85 @@
+package io.yosemiteblockchain.data.remote.chain;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The packed bytes of the transaction and its id, serialized once.
+ * <p>
+ * {@link Transaction#getSerialized()} keeps it until the transaction is modified,
+ * so the signing digest, the id, packed_trx of {@link PackedTransaction} and the push share the same bytes.
+ */
+public final class SerializedTransaction {
+    private final byte[] packedBytes;
+    private final Sha256 idHash;
+    private final String id;
+    private volatile String hex;
+
+    private SerializedTransaction(byte[] packedBytes, Sha256 idHash) {
+        this.packedBytes = packedBytes;
+        this.idHash = idHash;
+        this.id = idHash.toString();
+    }
+
+    static SerializedTransaction pack(Transaction transaction) {
+        try (EosByteBufferWriter writer = EosByteBufferWriter.acquire()) {
+            transaction.pack(writer);
+            Sha256 idHash = writer.sha256();
+            return new SerializedTransaction(writer.toBytes(), idHash);
+        }
+    }
+
+    // the bytes are not copied
+    static SerializedTransaction of(byte[] packedBytes) {
+        return new SerializedTransaction(packedBytes, Sha256.from(ByteBuffer.wrap(packedBytes)));
+    }
+
+    /**
+     * @return the transaction id as hex string
+     */
+    public String getId() {
+        return id;
+    }
+
+    public Sha256 getIdHash() {
+        return idHash;
+    }
+
+    /**
+     * @return the read-only view of the packed bytes
+     */
+    public ByteBuffer getPackedBytes() {
+        return ByteBuffer.wrap(packedBytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the copy of the packed bytes
+     */
+    public byte[] toBytes() {
+        return packedBytes.clone();
+    }
+
+    public int length() {
+        return packedBytes.length;
+    }
+
+    /**
+     * @return the packed bytes as hex string; it's encoded once
+     */
+    public String toHex() {
+        String result = hex;
+        if (result == null) {
+            result = HexUtils.toHex(packedBytes);
+            hex = result;
+        }
+        return result;
+    }
+
+    // not copied; must not be modified
+    byte[] packedBytes() {
+        return packedBytes;
+    }
+}
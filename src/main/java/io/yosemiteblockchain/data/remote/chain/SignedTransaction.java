@@ -25,6 +25,11 @@ package io.yosemiteblockchain.data.remote.chain;
 
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.ec.EosPrivateKey;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteBufferWriter;
+import io.yosemiteblockchain.data.types.TypeChainId;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +46,12 @@ public class SignedTransaction extends Transaction {
     public SignedTransaction() {
     }
 
+    public SignedTransaction(SignedTransaction other) {
+        super(other);
+        this.signatures = new ArrayList<>(other.signatures);
+        this.contextFreeData = new ArrayList<>(other.contextFreeData);
+    }
+
     public List<String> getSignatures() {
         return signatures;
     }
@@ -49,4 +60,37 @@ public class SignedTransaction extends Transaction {
         return contextFreeData;
     }
 
+    /**
+     * Get the digest to be signed.
+     * The layout of the signed data is [chain id, packed transaction, hash of context free data or zero hash].
+     * The packed transaction is the one kept by {@link #getSerialized()}, so it's not packed again.
+     * @param chainId blockchain ID to send this transaction
+     * @return SHA-256 digest for the signature
+     */
+    public Sha256 getDigestForSignature(String chainId) {
+        Sha256 contextFreeDataHash = Sha256.ZERO_HASH;
+        if (!contextFreeData.isEmpty()) {
+            try (EosByteBufferWriter cfdWriter = EosByteBufferWriter.acquire()) {
+                cfdWriter.putVariableUInt(contextFreeData.size());
+                for (String hexData : contextFreeData) {
+                    byte[] data = HexUtils.toBytes(hexData);
+                    cfdWriter.putVariableUInt(data.length);
+                    cfdWriter.putBytes(data);
+                }
+                contextFreeDataHash = cfdWriter.sha256();
+            }
+        }
+
+        return Sha256.from(new TypeChainId(chainId).getBytes(), getSerialized().packedBytes(),
+                contextFreeDataHash.getBytes());
+    }
+
+    /**
+     * Sign this transaction with the private key and add the signature.
+     * @param privateKey the private key to sign with
+     * @param chainId blockchain ID to send this transaction
+     */
+    public void sign(EosPrivateKey privateKey, String chainId) {
+        signatures.add(privateKey.sign(getDigestForSignature(chainId)).toString());
+    }
 }
@@ -2,6 +2,7 @@ package io.yosemiteblockchain.data.remote.chain;
 
 import com.google.gson.annotations.Expose;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +21,14 @@ public class TableRow {
     public TableRow() {
     }
 
+    /**
+     * @param other the table rows of which list of rows is copied; the rows themselves are shared
+     */
+    public TableRow(TableRow other) {
+        this.rows = other.rows == null ? null : new ArrayList<>(other.rows);
+        this.more = other.more;
+    }
+
     public List<Map<String, ?>> getRows() {
         return rows;
     }
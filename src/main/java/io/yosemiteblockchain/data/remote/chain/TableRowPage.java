@@ -0,0 +1,31 @@
+package io.yosemiteblockchain.data.remote.chain;
+
+import java.util.List;
+
+/**
+ * Represents a page of the rows in the table of the smart contract.
+ * Unlike {@link TableRow}, each row is decoded into the typed row object.
+ * @param <T> the type of the row
+ */
+public class TableRowPage<T> {
+
+    private final List<T> rows;
+
+    private final boolean more;
+
+    public TableRowPage(List<T> rows, boolean more) {
+        this.rows = rows;
+        this.more = more;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return true if there are more rows after this page in the requested range
+     */
+    public boolean getMore() {
+        return more;
+    }
+}
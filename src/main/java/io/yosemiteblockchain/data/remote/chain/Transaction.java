@@ -2,13 +2,13 @@ package io.yosemiteblockchain.data.remote.chain;
 
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
-import io.yosemiteblockchain.crypto.digest.Sha256;
 import io.yosemiteblockchain.data.types.EosByteWriter;
 import io.yosemiteblockchain.data.types.EosType;
 import io.yosemiteblockchain.data.types.TypeName;
 import io.yosemiteblockchain.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Transaction extends TransactionHeader {
@@ -24,6 +24,11 @@ public class Transaction extends TransactionHeader {
     @SerializedName("transaction_extensions")
     private List<TransactionExtension> transactionExtensions = new ArrayList<>();
 
+    private transient volatile SerializedTransaction serialized;
+
+    // the sum of the modification counts of the actions when serialized is packed
+    private transient volatile int serializedModCount;
+
     public Transaction() {
     }
 
@@ -31,7 +36,9 @@ public class Transaction extends TransactionHeader {
         super(other);
         this.contextFreeActions = deepCopyOnlyContainer(other.contextFreeActions);
         this.actions = deepCopyOnlyContainer(other.actions);
-        this.transactionExtensions = other.transactionExtensions;
+        this.transactionExtensions = other.transactionExtensions == null ? null : new ArrayList<>(other.transactionExtensions);
+        this.serializedModCount = other.serializedModCount;
+        this.serialized = other.serialized;
     }
 
     public void addAction(Action action) {
@@ -40,6 +47,7 @@ public class Transaction extends TransactionHeader {
         }
 
         actions.add(action);
+        onModified();
     }
 
     public void addActions(List<Action> actions) {
@@ -48,6 +56,7 @@ public class Transaction extends TransactionHeader {
         }
 
         this.actions.addAll(actions);
+        onModified();
     }
 
     private <T> List<T> deepCopyOnlyContainer(List<T> srcList) {
@@ -61,8 +70,102 @@ public class Transaction extends TransactionHeader {
         return newList;
     }
 
+    @Override
+    public void unpack(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        super.unpack(reader);
+
+        contextFreeActions = unpackActions(reader);
+        actions = unpackActions(reader);
+
+        int extensionCount = reader.getVariableSize();
+        transactionExtensions = new ArrayList<>();
+        for (int i = 0; i < extensionCount; i++) {
+            TransactionExtension extension = new TransactionExtension();
+            extension.unpack(reader);
+            transactionExtensions.add(extension);
+        }
+        onModified();
+    }
+
+    private static List<Action> unpackActions(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        int count = reader.getVariableSize();
+        List<Action> actions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Action action = new Action();
+            action.unpack(reader);
+            actions.add(action);
+        }
+        return actions;
+    }
+
+    @Override
+    protected void onModified() {
+        invalidateSerialized();
+    }
+
+    /**
+     * Discard the packed bytes kept by {@link #getSerialized()}.
+     * The modification through the setters of this transaction and its actions discards them by itself.
+     */
+    public void invalidateSerialized() {
+        serialized = null;
+    }
+
+    // the bytes must be the packed bytes of this transaction e.g. the ones it's unpacked from
+    void setSerialized(SerializedTransaction serialized) {
+        this.serializedModCount = getActionsModCount();
+        this.serialized = serialized;
+    }
+
+    /**
+     * Get the packed bytes and the id of this transaction. It's packed once and kept until this transaction or
+     * any of its actions is modified.
+     * @return the packed transaction
+     */
+    public SerializedTransaction getSerialized() {
+        SerializedTransaction result = getValidSerialized();
+        if (result == null) {
+            int modCount = getActionsModCount();
+            result = SerializedTransaction.pack(this);
+            serializedModCount = modCount;
+            serialized = result;
+        }
+        return result;
+    }
+
+    // null if it's not packed yet or the actions are modified after it's packed
+    private SerializedTransaction getValidSerialized() {
+        SerializedTransaction result = serialized;
+        if (result != null && serializedModCount != getActionsModCount()) {
+            serialized = null;
+            return null;
+        }
+        return result;
+    }
+
+    private int getActionsModCount() {
+        int modCount = 0;
+        if (contextFreeActions != null) {
+            for (Action action : contextFreeActions) {
+                modCount += action.getModCount();
+            }
+        }
+        if (actions != null) {
+            for (Action action : actions) {
+                modCount += action.getModCount();
+            }
+        }
+        return modCount;
+    }
+
     @Override
     public void pack(EosType.Writer writer) {
+        SerializedTransaction packed = getValidSerialized();
+        if (packed != null) {
+            writer.putBytes(packed.packedBytes());
+            return;
+        }
+
         super.pack(writer);
 
         writer.putCollection(contextFreeActions);
@@ -78,20 +181,25 @@ public class Transaction extends TransactionHeader {
         EosByteWriter eosByteWriter = new EosByteWriter(8);
         typeName.pack(eosByteWriter);
         transactionExtensions.add(new TransactionExtension(field, eosByteWriter.toBytes()));
+        onModified();
     }
 
     public String getId() {
-        EosByteWriter eosByteWriter = new EosByteWriter(512);
-        this.pack(eosByteWriter);
-        return Sha256.from(eosByteWriter.toBytes()).toString();
+        return getSerialized().getId();
     }
 
+    /**
+     * @return the unmodifiable view of the actions; use {@link #addAction(Action)} to add the action
+     */
     public List<Action> getActions() {
-        return actions;
+        return actions == null ? null : Collections.unmodifiableList(actions);
     }
 
+    /**
+     * @return the unmodifiable view of the extensions; use {@link #setStringTransactionExtension} to add the extension
+     */
     public List<TransactionExtension> getTransactionExtensions() {
-        return transactionExtensions;
+        return transactionExtensions == null ? null : Collections.unmodifiableList(transactionExtensions);
     }
 }
 
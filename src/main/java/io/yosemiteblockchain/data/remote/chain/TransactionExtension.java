@@ -2,9 +2,15 @@ package io.yosemiteblockchain.data.remote.chain;
 
 import io.yosemiteblockchain.data.types.EosType;
 
-public class TransactionExtension implements EosType.Packer {
-    private final short field;
-    private final byte[] data;
+public class TransactionExtension implements EosType.Packer, EosType.Unpacker {
+    private short field;
+    private byte[] data;
+
+    /**
+     * Create the empty extension to be unpacked.
+     */
+    public TransactionExtension() {
+    }
 
     public TransactionExtension(TransactionExtensionField field, byte[] data) {
         this.field = field.getValue();
@@ -30,4 +36,10 @@ public class TransactionExtension implements EosType.Packer {
         writer.putVariableUInt(data.length);
         writer.putBytes(data);
     }
+
+    @Override
+    public void unpack(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        field = (short) reader.getShortLE();
+        data = reader.getBytes(reader.getVariableSize());
+    }
 }
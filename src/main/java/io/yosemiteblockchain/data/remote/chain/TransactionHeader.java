@@ -12,7 +12,7 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.Date;
 
-public class TransactionHeader implements EosType.Packer {
+public class TransactionHeader implements EosType.Packer, EosType.Unpacker {
     @Expose
     private String expiration;
 
@@ -54,6 +54,7 @@ public class TransactionHeader implements EosType.Packer {
 
     public void setExpiration(String expiration) {
         this.expiration = expiration;
+        onModified();
     }
 
     private Date getExpirationAsDate(String dateStr) {
@@ -72,6 +73,7 @@ public class TransactionHeader implements EosType.Packer {
         refBlockPrefix = //new BigInteger( 1, HexUtils.toBytesReversed( refBlockIdAsSha256.substring(16,24))).longValue();
                 BitUtils.uint32ToLong(HexUtils.toBytes(refBlockIdAsSha256.substring(16, 24)), 0); // BitUtils treats bytes in little endian.
         // so, no need to reverse bytes.
+        onModified();
     }
 
     public int getRefBlockNum() {
@@ -94,6 +96,12 @@ public class TransactionHeader implements EosType.Packer {
         return delaySec;
     }
 
+    /**
+     * Called when the packed fields are modified.
+     */
+    protected void onModified() {
+    }
+
     @Override
     public void pack(EosType.Writer writer) {
         writer.putIntLE((int) (getExpirationAsDate(expiration).getTime() / 1000)); // ms -> sec
@@ -103,4 +111,15 @@ public class TransactionHeader implements EosType.Packer {
         writer.putVariableUInt(maxCpuUsageMs);
         writer.putVariableUInt(delaySec);
     }
+
+    @Override
+    public void unpack(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        expiration = Utils.SIMPLE_DATE_FORMAT_FOR_EOS.get().format(new Date((reader.getIntLE() & 0xFFFFFFFFL) * 1000)); // sec -> ms
+        refBlockNum = reader.getShortLE();
+        refBlockPrefix = reader.getIntLE() & 0xFFFFFFFFL;
+        maxNetUsageWords = reader.getVariableUint();
+        maxCpuUsageMs = reader.getVariableUint();
+        delaySec = reader.getVariableUint();
+        onModified();
+    }
 }
@@ -0,0 +1,190 @@
+package io.yosemiteblockchain.data.types;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@link EosType.Reader} over the heap, direct or memory-mapped {@link ByteBuffer}.
+ * <p>
+ * Unlike {@link EosByteReader}, {@link #getSlice(int)} returns the view of the bytes instead of the copy,
+ * and {@link #getUtf8()} decodes the string without the intermediate array.
+ * The fixed-size values are bounds-checked once by the buffer itself, and the variable uint is bounds-checked once
+ * per value unless it's at the end of the buffer.
+ * <p>
+ * The reader reads its own view of the buffer; the position and the byte order of the given buffer are not changed.
+ * The reader is not thread-safe.
+ */
+public class EosByteBufferReader implements EosType.Reader {
+
+    // the maximum length of the variable uint of 64 bits
+    private static final int MAX_VARIABLE_UINT_LENGTH = 10;
+
+    private final ByteBuffer buffer;
+    private final byte[] array;
+    private final int arrayOffset;
+
+    /**
+     * @param buffer the bytes from its position to its limit are read
+     */
+    public EosByteBufferReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.hasArray()) {
+            this.array = this.buffer.array();
+            this.arrayOffset = this.buffer.arrayOffset();
+        } else {
+            this.array = null;
+            this.arrayOffset = 0;
+        }
+    }
+
+    public EosByteBufferReader(byte[] buf) {
+        this(ByteBuffer.wrap(buf));
+    }
+
+    @Override
+    public byte get() throws EosType.InsufficientBytesException {
+        try {
+            return buffer.get();
+        } catch (BufferUnderflowException e) {
+            throw new EosType.InsufficientBytesException();
+        }
+    }
+
+    @Override
+    public int getShortLE() throws EosType.InsufficientBytesException {
+        try {
+            return buffer.getShort() & 0xFFFF;
+        } catch (BufferUnderflowException e) {
+            throw new EosType.InsufficientBytesException();
+        }
+    }
+
+    @Override
+    public int getIntLE() throws EosType.InsufficientBytesException {
+        try {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new EosType.InsufficientBytesException();
+        }
+    }
+
+    @Override
+    public long getLongLE() throws EosType.InsufficientBytesException {
+        try {
+            return buffer.getLong();
+        } catch (BufferUnderflowException e) {
+            throw new EosType.InsufficientBytesException();
+        }
+    }
+
+    /**
+     * Read the bytes as the copy. Use {@link #getSlice(int)} not to copy them.
+     */
+    @Override
+    public byte[] getBytes(int size) throws EosType.InsufficientBytesException {
+        checkAvailable(size);
+        byte[] bytes = new byte[size];
+        getSlice(size).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read the bytes as the view of the underlying buffer; it's valid as long as the underlying buffer is not modified.
+     * @param size the number of the bytes
+     * @return the view from 0 to the size
+     */
+    public ByteBuffer getSlice(int size) throws EosType.InsufficientBytesException {
+        checkAvailable(size);
+        int position = buffer.position();
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(position + size);
+        buffer.position(position + size);
+        return slice.slice();
+    }
+
+    /**
+     * Same as {@link #getUtf8()}.
+     */
+    @Override
+    public String getString() throws EosType.InsufficientBytesException {
+        return getUtf8();
+    }
+
+    /**
+     * Read the UTF-8 string prefixed with its length as variable uint.
+     * The heap buffer is decoded from its array directly; the string is the only allocation.
+     */
+    public String getUtf8() throws EosType.InsufficientBytesException {
+        int size = (int) (getVariableUint() & 0x7FFFFFFF);
+        checkAvailable(size);
+        int position = buffer.position();
+        String value;
+        if (array != null) {
+            value = new String(array, arrayOffset + position, size, StandardCharsets.UTF_8);
+            buffer.position(position + size);
+        } else {
+            value = StandardCharsets.UTF_8.decode(getSlice(size)).toString();
+        }
+        return value;
+    }
+
+    @Override
+    public long getVariableUint() throws EosType.InsufficientBytesException {
+        int position = buffer.position();
+        if (array == null || buffer.limit() - position < MAX_VARIABLE_UINT_LENGTH) {
+            return getVariableUintChecked();
+        }
+
+        // all the bytes of the value are within the array
+        int index = arrayOffset + position;
+        long v = 0;
+        int by = 0;
+        byte b;
+        do {
+            b = array[index++];
+            v |= (long) (b & 0x7F) << by;
+            by += 7;
+        } while ((b & 0x80) != 0 && by < 64);
+
+        buffer.position(index - arrayOffset);
+        return v;
+    }
+
+    private long getVariableUintChecked() throws EosType.InsufficientBytesException {
+        long v = 0;
+        int by = 0;
+        byte b;
+        do {
+            b = get();
+            v |= (long) (b & 0x7F) << by;
+            by += 7;
+        } while ((b & 0x80) != 0 && by < 64);
+
+        return v;
+    }
+
+    /**
+     * @param size the number of the bytes to skip
+     */
+    public void skip(int size) throws EosType.InsufficientBytesException {
+        checkAvailable(size);
+        buffer.position(buffer.position() + size);
+    }
+
+    public int position() {
+        return buffer.position();
+    }
+
+    @Override
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    private void checkAvailable(int num) throws EosType.InsufficientBytesException {
+        if (num < 0 || buffer.remaining() < num) {
+            throw new EosType.InsufficientBytesException();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package io.yosemiteblockchain.data.types;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.Collection;
+
+/**
+ * The {@link EosType.Writer} backed by the heap or direct {@link ByteBuffer}.
+ * <p>
+ * Unlike {@link EosByteWriter}, the writer can be reset and reused, can write into the buffer supplied by the caller
+ * and can hash the written bytes in place without copying them to an array.
+ * {@link #acquire()} returns the writer cached per thread, so packing a transaction allocates nothing but the result:
+ * <pre>
+ * try (EosByteBufferWriter writer = EosByteBufferWriter.acquire()) {
+ *     transaction.pack(writer);
+ *     return writer.sha256();
+ * }
+ * </pre>
+ * The writer is not thread-safe.
+ */
+public class EosByteBufferWriter implements EosType.Writer, AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 512;
+
+    // the larger buffer is not kept by the thread after it's released
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<EosByteBufferWriter> POOL =
+            ThreadLocal.withInitial(() -> new EosByteBufferWriter(ByteBuffer.allocate(DEFAULT_CAPACITY), true, true));
+
+    private ByteBuffer buffer;
+    private final int start;
+    private final boolean growable;
+    private final boolean pooled;
+    private boolean inUse;
+
+    public EosByteBufferWriter(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param capacity the initial capacity; the buffer grows as needed
+     * @param direct true to allocate the direct buffer e.g. to write the bytes to the channel
+     */
+    public EosByteBufferWriter(int capacity, boolean direct) {
+        this(direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity), true, false);
+    }
+
+    private EosByteBufferWriter(ByteBuffer buffer, boolean growable, boolean pooled) {
+        this.buffer = buffer;
+        this.start = buffer.position();
+        this.growable = growable;
+        this.pooled = pooled;
+    }
+
+    /**
+     * Write into the buffer of the caller from its position; the position of the buffer is advanced as it's written.
+     * The buffer doesn't grow; {@link BufferOverflowException} is thrown if it's not large enough.
+     * @param target the buffer to write into
+     */
+    public static EosByteBufferWriter wrap(ByteBuffer target) {
+        if (target == null) throw new IllegalArgumentException("target cannot be null.");
+        return new EosByteBufferWriter(target, false, false);
+    }
+
+    /**
+     * Get the empty writer cached for the current thread. It must be closed to be reused.
+     * The new writer is returned if the cached one is in use e.g. while packing the nested data.
+     */
+    public static EosByteBufferWriter acquire() {
+        EosByteBufferWriter writer = POOL.get();
+        if (writer.inUse) {
+            return new EosByteBufferWriter(DEFAULT_CAPACITY);
+        }
+        writer.inUse = true;
+        writer.reset();
+        return writer;
+    }
+
+    /**
+     * Release the writer to the pool if it's acquired by {@link #acquire()}.
+     * The bytes written must not be used after it's closed.
+     */
+    @Override
+    public void close() {
+        if (!pooled) {
+            return;
+        }
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            buffer = ByteBuffer.allocate(DEFAULT_CAPACITY);
+        }
+        reset();
+        inUse = false;
+    }
+
+    /**
+     * Discard the bytes written so far.
+     */
+    public void reset() {
+        buffer.position(start);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.remaining() >= capacity) {
+            return;
+        }
+        if (!growable) {
+            throw new BufferOverflowException();
+        }
+        ByteBuffer written = writtenBytes();
+        ByteBuffer temp = buffer.isDirect()
+                ? ByteBuffer.allocateDirect(buffer.capacity() * 2 + capacity)
+                : ByteBuffer.allocate(buffer.capacity() * 2 + capacity);
+        temp.put(written);
+        buffer = temp;
+    }
+
+    private boolean isBigEndian() {
+        return buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public void put(byte b) {
+        ensureCapacity(1);
+        buffer.put(b);
+    }
+
+    @Override
+    public void putShortLE(short value) {
+        ensureCapacity(2);
+        buffer.putShort(isBigEndian() ? Short.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void putIntLE(int value) {
+        ensureCapacity(4);
+        buffer.putInt(isBigEndian() ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void putLongLE(long value) {
+        ensureCapacity(8);
+        buffer.putLong(isBigEndian() ? Long.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void putBytes(byte[] value) {
+        putBytes(value, 0, value.length);
+    }
+
+    public void putBytes(byte[] value, int offset, int length) {
+        ensureCapacity(length);
+        buffer.put(value, offset, length);
+    }
+
+    /**
+     * Write the remaining bytes of the source; the position of the source is advanced to its limit.
+     */
+    public void putBytes(ByteBuffer value) {
+        ensureCapacity(value.remaining());
+        buffer.put(value);
+    }
+
+    /**
+     * Decode the hex string into the buffer without the intermediate array.
+     * @param hex the hex string; the number of the characters must be even
+     */
+    public void putHex(CharSequence hex) {
+        ensureCapacity(hex.length() / 2);
+        HexUtils.toBytes(hex, buffer);
+    }
+
+    /**
+     * Write the length of the UTF-8 bytes as variable uint and the UTF-8 bytes, encoding the string in place.
+     */
+    @Override
+    public void putString(String value) {
+        if (null == value || value.isEmpty()) {
+            putVariableUInt(0);
+            return;
+        }
+
+        int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // the malformed surrogate is replaced with '?'
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+
+        putVariableUInt(utf8Length);
+        ensureCapacity(utf8Length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    @Override
+    public void putCollection(Collection<? extends EosType.Packer> collection) {
+        if (null == collection || collection.isEmpty()) {
+            putVariableUInt(0);
+            return;
+        }
+
+        putVariableUInt(collection.size());
+
+        for (EosType.Packer type : collection) {
+            type.pack(this);
+        }
+    }
+
+    @Override
+    public void putVariableUInt(long val) {
+        do {
+            byte b = (byte) ((val) & 0x7f);
+            val >>= 7;
+            b |= (((val > 0) ? 1 : 0) << 7);
+            put(b);
+        } while (val != 0);
+    }
+
+    @Override
+    public byte[] toBytes() {
+        byte[] bytes = new byte[length()];
+        writtenBytes().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public int length() {
+        return buffer.position() - start;
+    }
+
+    /**
+     * @return the read-only view of the bytes written so far; it's valid until the writer is written, reset or closed
+     */
+    public ByteBuffer view() {
+        return writtenBytes().asReadOnlyBuffer();
+    }
+
+    // the heap buffer is passed to MessageDigest as it is, not read-only, so it's hashed from its array
+    private ByteBuffer writtenBytes() {
+        ByteBuffer written = buffer.duplicate();
+        written.limit(buffer.position()).position(start);
+        return written.slice();
+    }
+
+    /**
+     * Copy the bytes written so far into the buffer of the caller.
+     * @param target the buffer to copy into; its position is advanced
+     */
+    public void writeTo(ByteBuffer target) {
+        target.put(writtenBytes());
+    }
+
+    /**
+     * Update the digest with the bytes written so far without copying them.
+     */
+    public void updateDigest(MessageDigest digest) {
+        digest.update(writtenBytes());
+    }
+
+    /**
+     * @return SHA-256 of the bytes written so far
+     */
+    public Sha256 sha256() {
+        return Sha256.from(writtenBytes());
+    }
+}
@@ -99,6 +99,11 @@ public class EosByteReader implements EosType.Reader{
    }
 
 
+   @Override
+   public int remaining() {
+      return _buf.length - _index;
+   }
+
    private void checkAvailable(int num) throws EosType.InsufficientBytesException {
       if (_buf.length - _index < num) {
          throw new EosType.InsufficientBytesException();
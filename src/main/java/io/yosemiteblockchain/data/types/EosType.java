@@ -53,6 +53,19 @@ public interface EosType {
         String getString() throws EosType.InsufficientBytesException;
 
         long getVariableUint() throws EosType.InsufficientBytesException;
+
+        int remaining();
+
+        /**
+         * @return the variable uint of a count or a length, which can't exceed the remaining bytes
+         */
+        default int getVariableSize() throws EosType.InsufficientBytesException {
+            long size = getVariableUint();
+            if (size < 0 || size > remaining()) {
+                throw new EosType.InsufficientBytesException();
+            }
+            return (int) size;
+        }
     }
 
     interface Writer {
@@ -28,6 +28,10 @@ import io.yosemiteblockchain.util.StringUtils;
 public class TypeAccountName extends TypeName {
     private static final int MAX_ACCOUNT_NAME_LEN = 12;
 
+    public TypeAccountName(long nameAsLong) {
+        super(nameAsLong);
+    }
+
     public TypeAccountName(String name) {
         super(name);
 
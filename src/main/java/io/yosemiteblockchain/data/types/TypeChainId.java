@@ -25,6 +25,7 @@ package io.yosemiteblockchain.data.types;
 
 
 import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.HexUtils;
 
 
 public class TypeChainId {
@@ -35,14 +36,8 @@ public class TypeChainId {
     }
 
     byte[] getSha256FromHexStr(String str) {
-        int len = str.length();
         byte[] bytes = new byte[32];
-        for (int i = 0; i < len; i += 2) {
-            String strIte = str.substring(i, i + 2);
-            Integer n = Integer.parseInt(strIte, 16) & 0xFF;
-            ;
-            bytes[i / 2] = n.byteValue();
-        }
+        HexUtils.toBytes(str, 0, str.length(), bytes, 0);
         return bytes;
     }
 
@@ -29,7 +29,7 @@ import io.yosemiteblockchain.Consts;
 import java.util.Objects;
 
 
-public class TypePermission implements EosType.Packer {
+public class TypePermission implements EosType.Packer, EosType.Unpacker {
 
     private final static TypePermissionName ACTIVE_PERMISSION = new TypePermissionName(Consts.ACTIVE_PERMISSION_NAME);
 
@@ -39,6 +39,12 @@ public class TypePermission implements EosType.Packer {
     @Expose
     private TypePermissionName permission;
 
+    /**
+     * Create the empty permission to be unpacked.
+     */
+    public TypePermission() {
+    }
+
     public TypePermission(String accountName) {
         actor = new TypeAccountName(accountName);
         permission = ACTIVE_PERMISSION;
@@ -71,6 +77,12 @@ public class TypePermission implements EosType.Packer {
         permission.pack(writer);
     }
 
+    @Override
+    public void unpack(EosType.Reader reader) throws EosType.InsufficientBytesException {
+        actor = new TypeAccountName(reader.getLongLE());
+        permission = new TypePermissionName(reader.getLongLE());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -25,6 +25,10 @@ package io.yosemiteblockchain.data.types;
 
 
 public class TypePermissionName extends TypeName {
+    public TypePermissionName(long nameAsLong) {
+        super(nameAsLong);
+    }
+
     public TypePermissionName(String name) {
         super(name);
     }
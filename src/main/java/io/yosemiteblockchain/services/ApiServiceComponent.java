@@ -3,21 +3,29 @@ package io.yosemiteblockchain.services;
 import dagger.BindsInstance;
 import dagger.Component;
 import io.yosemiteblockchain.LibraryModule;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 
-import javax.inject.Named;
 import javax.inject.Singleton;
 
+/**
+ * The HTTP engine shared by all services of the clients which have the same {@link HttpClientOptions}.
+ */
 @Component(modules = LibraryModule.class)
 @Singleton
 public interface ApiServiceComponent {
 
-    Retrofit retrofit();
+    OkHttpClient okHttpClient();
+
+    /**
+     * @return new Retrofit builder with the shared OkHttpClient; the base URL should be set
+     */
+    Retrofit.Builder retrofitBuilder();
 
     @Component.Builder
     interface Builder {
         @BindsInstance
-        Builder baseUrl(@Named("baseUrl") String baseUrl);
+        Builder httpClientOptions(HttpClientOptions httpClientOptions);
 
         ApiServiceComponent build();
     }
@@ -1,35 +1,175 @@
 package io.yosemiteblockchain.services;
 
+import io.yosemiteblockchain.data.remote.chain.PackedTransaction;
+import io.yosemiteblockchain.data.remote.chain.PushedTransaction;
 import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+import io.yosemiteblockchain.data.remote.chain.TableRow;
+import io.yosemiteblockchain.data.remote.chain.TableRowPage;
 import io.yosemiteblockchain.exception.YosemiteApiError;
+import io.yosemiteblockchain.exception.YosemiteApiErrorCode;
 import io.yosemiteblockchain.exception.YosemiteApiException;
-import io.yosemiteblockchain.util.Async;
+import io.yosemiteblockchain.util.AsyncExecutor;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Invocation;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class ApiServiceExecutor<Service> {
 
     private final static Logger logger = LoggerFactory.getLogger(ApiServiceExecutor.class);
 
+    private static final String PUSH_TRANSACTION_PATH = "/push_transaction";
+
+    private static final CompletableFuture<Void> PERMITTED = CompletableFuture.completedFuture(null);
+
+    // the HTTP engines shared by the executors of the equal options; guarded by itself
+    private static final Map<HttpClientOptions, SharedComponent> apiServiceComponents = new HashMap<>();
+
     private Service service;
 
     private Retrofit retrofit;
 
-    private ApiServiceExecutor(Class<Service> serviceClass, Retrofit retrofit) {
+    private final MetricsRecorder metricsRecorder;
+
+    private final RetryPolicy retryPolicy;
+
+    private final AsyncExecutor asyncExecutor;
+
+    private final HttpClientOptions httpClientOptions;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final RetryBudget retryBudget;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    // null if the API is not limited
+    private final RequestLimiter apiLimiter;
+
+    private final Map<String, RequestLimiter> endpointLimiters = new HashMap<>();
+
+    // the identical requests of the single-flight endpoints in flight
+    private final ConcurrentMap<String, CompletableFuture<?>> singleFlights = new ConcurrentHashMap<>();
+
+    private ApiServiceExecutor(Class<Service> serviceClass, Retrofit retrofit, HttpClientOptions httpClientOptions) {
         this.retrofit = retrofit;
         this.service = this.retrofit.create(serviceClass);
+        this.metricsRecorder = httpClientOptions.getMetricsRecorder();
+        this.retryPolicy = httpClientOptions.getRetryPolicy();
+        this.asyncExecutor = httpClientOptions.getAsyncExecutor();
+        this.httpClientOptions = httpClientOptions;
+        this.retryBudget = new RetryBudget(retryPolicy.getMaxRetryTokens(), retryPolicy.getRetryTokenRatio());
+
+        RequestLimits requestLimits = httpClientOptions.getRequestLimits();
+        RequestLimits.ApiType apiType = getApiType(serviceClass);
+        RequestLimits.Limit apiLimit = requestLimits.getApiLimit(apiType);
+        this.apiLimiter = apiLimit == null ? null
+                : new RequestLimiter(apiType.name().toLowerCase(), apiLimit, requestLimits.getMaxWaitMillis());
+        for (Map.Entry<String, RequestLimits.Limit> entry : requestLimits.getEndpointLimits().entrySet()) {
+            endpointLimiters.put(entry.getKey(),
+                    new RequestLimiter(entry.getKey(), entry.getValue(), requestLimits.getMaxWaitMillis()));
+        }
+    }
+
+    private static RequestLimits.ApiType getApiType(Class<?> serviceClass) {
+        if (serviceClass == YosemiteWalletApiService.class) {
+            return RequestLimits.ApiType.WALLET;
+        } else if (serviceClass == YosemiteHistoryApiService.class) {
+            return RequestLimits.ApiType.HISTORY;
+        }
+        return RequestLimits.ApiType.CHAIN;
     }
 
     public static <S> ApiServiceExecutor<S> create(Class<S> serviceClass, String baseUrl) {
-        ApiServiceComponent apiServiceComponent = DaggerApiServiceComponent.builder().baseUrl(baseUrl).build();
-        return new ApiServiceExecutor<>(serviceClass, apiServiceComponent.retrofit());
+        return create(serviceClass, baseUrl, HttpClientOptions.DEFAULT);
+    }
+
+    /**
+     * Create the executor of the service. The services created with the equal options share the same HTTP engine.
+     */
+    public static <S> ApiServiceExecutor<S> create(Class<S> serviceClass, String baseUrl, HttpClientOptions httpClientOptions) {
+        ApiServiceComponent apiServiceComponent = acquireApiServiceComponent(httpClientOptions);
+        return new ApiServiceExecutor<>(serviceClass, apiServiceComponent.retrofitBuilder().baseUrl(baseUrl).build(),
+                httpClientOptions);
+    }
+
+    /**
+     * Create the executor of the service whose requests are routed to the nodes of the pool.
+     * The OkHttpClient of the executor shares the connection pool and the dispatcher of the HTTP engine.
+     */
+    static <S> ApiServiceExecutor<S> create(Class<S> serviceClass, NodePool nodePool, HttpClientOptions httpClientOptions) {
+        ApiServiceComponent apiServiceComponent = acquireApiServiceComponent(httpClientOptions);
+        OkHttpClient okHttpClient = apiServiceComponent.okHttpClient().newBuilder()
+                .addInterceptor(nodePool.getInterceptor())
+                .build();
+        return new ApiServiceExecutor<>(serviceClass,
+                apiServiceComponent.retrofitBuilder().client(okHttpClient).baseUrl(nodePool.getBaseUrl()).build(),
+                httpClientOptions);
+    }
+
+    /**
+     * Get the HTTP engine of the options, creating it if no one uses it.
+     * It must be released by {@link #releaseApiServiceComponent(HttpClientOptions)} when it's no longer used.
+     */
+    static ApiServiceComponent acquireApiServiceComponent(HttpClientOptions httpClientOptions) {
+        synchronized (apiServiceComponents) {
+            SharedComponent shared = apiServiceComponents.computeIfAbsent(httpClientOptions, options ->
+                    new SharedComponent(DaggerApiServiceComponent.builder().httpClientOptions(options).build()));
+            shared.references++;
+            return shared.component;
+        }
+    }
+
+    /**
+     * Release the HTTP engine of the options. When no one uses it, it's removed and its dispatcher threads and
+     * idle connections are released.
+     */
+    static void releaseApiServiceComponent(HttpClientOptions httpClientOptions) {
+        ApiServiceComponent released;
+        synchronized (apiServiceComponents) {
+            SharedComponent shared = apiServiceComponents.get(httpClientOptions);
+            if (shared == null || --shared.references > 0) {
+                return;
+            }
+            apiServiceComponents.remove(httpClientOptions);
+            released = shared.component;
+        }
+        OkHttpClient okHttpClient = released.okHttpClient();
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * Release the HTTP engine of this executor; the executor must not be used after it's closed.
+     * The client closes its executors when it's closed.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            releaseApiServiceComponent(httpClientOptions);
+        }
     }
 
     Service getService() {
@@ -47,30 +187,75 @@ public final class ApiServiceExecutor<Service> {
         return executeSync(call, null, isChainApi);
     }
 
+    /**
+     * The failed call is retried by the {@link RetryPolicy} of the HTTP client options, blocking the thread during the backoff.
+     */
     <T> T executeSync(Call<T> call, Object attachment, boolean isChainApi) {
-        try {
-            Response<T> response = call.execute();
-            if (response.isSuccessful()) {
-                return response.body();
-            } else {
-                logger.debug(call.request().toString());
-                logger.debug(response.toString());
-                if (isChainApi) {
-                    YosemiteApiException yosemiteApiException = new YosemiteApiException(getEosApiError(response));
-                    if (attachment instanceof SignedTransaction) {
-                        SignedTransaction signedTransaction = (SignedTransaction) attachment;
-                        yosemiteApiException.setTransactionId(signedTransaction.getId());
-                    }
-                    throw yosemiteApiException;
-                } else {
-                    YosemiteApiError error = new YosemiteApiError();
-                    error.setCode(response.code());
-                    error.setMessage(response.message());
-                    throw new YosemiteApiException(error);
+        for (int attempt = 1; ; attempt++) {
+            Call<T> attemptCall = attempt == 1 ? call : call.clone();
+            awaitPermits(attemptCall);
+            CircuitBreaker circuitBreaker;
+            try {
+                circuitBreaker = acquireCircuitBreaker(attemptCall);
+            } catch (YosemiteApiException e) {
+                releasePermits(attemptCall);
+                throw e;
+            }
+            int statusCode = RetryPolicy.NO_RESPONSE;
+            RuntimeException failure;
+            try {
+                Response<T> response = attemptCall.execute();
+                statusCode = response.code();
+                T body = handleResponse(attemptCall, response, attachment, isChainApi);
+                onSuccess(circuitBreaker);
+                return body;
+            } catch (IOException e) {
+                failure = new YosemiteApiException(e);
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                releasePermits(attemptCall);
+            }
+
+            T pushed = getDuplicatePushResult(attemptCall, attempt, attachment, failure);
+            if (pushed != null) {
+                onSuccess(circuitBreaker);
+                return pushed;
+            }
+            long backoffMillis = onFailure(attemptCall, circuitBreaker, attempt, statusCode, failure);
+            if (backoffMillis < 0) {
+                throw withTransactionId(attemptCall, attachment, failure);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw withTransactionId(attemptCall, attachment, failure);
+            }
+        }
+    }
+
+    private <T> T handleResponse(Call<T> call, Response<T> response, Object attachment, boolean isChainApi) throws IOException {
+        if (response.isSuccessful()) {
+            return response.body();
+        } else {
+            logger.debug(call.request().toString());
+            logger.debug(response.toString());
+            if (isChainApi) {
+                YosemiteApiException yosemiteApiException = new YosemiteApiException(getEosApiError(response));
+                if (attachment instanceof SignedTransaction) {
+                    SignedTransaction signedTransaction = (SignedTransaction) attachment;
+                    yosemiteApiException.setTransactionId(signedTransaction.getId());
+                } else if (attachment instanceof PackedTransaction) {
+                    yosemiteApiException.setTransactionId(((PackedTransaction) attachment).getId());
                 }
+                throw yosemiteApiException;
+            } else {
+                YosemiteApiError error = new YosemiteApiError();
+                error.setCode(response.code());
+                error.setMessage(response.message());
+                throw new YosemiteApiException(error);
             }
-        } catch (IOException e) {
-            throw new YosemiteApiException(e);
         }
     }
 
@@ -78,12 +263,501 @@ public final class ApiServiceExecutor<Service> {
         return executeAsync(call, attachment, true);
     }
 
+    /**
+     * Execute a REST call asynchronously by the callback of OkHttp.
+     * No thread is occupied while waiting for the response; the returned future is completed on the OkHttp dispatcher thread.
+     * Cancelling the returned future cancels the call.
+     * <p>
+     * If the endpoint is marked with {@link SingleFlight} and the identical request is in flight, the call is not sent
+     * and the returned future is completed with the response of the request in flight.
+     * Cancelling the future of a coalesced request doesn't cancel the shared call.
+     * <p>
+     * The returned future is completed on the {@link AsyncExecutor} of the HTTP client options
+     * unless it's {@link AsyncExecutor#direct()}.
+     */
     <T> CompletableFuture<T> executeAsync(Call<T> call, Object attachment, boolean isChainApi) {
-        return Async.run(() -> executeSync(call, attachment, isChainApi));
+        return completeOnAsyncExecutor(executeOnDispatcher(call, attachment, isChainApi));
+    }
+
+    private <T> CompletableFuture<T> executeOnDispatcher(Call<T> call, Object attachment, boolean isChainApi) {
+        if (!isSingleFlight(call)) {
+            return enqueue(call, attachment, isChainApi);
+        }
+
+        String key = getSingleFlightKey(call.request());
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> inFlight = (CompletableFuture<T>) singleFlights.putIfAbsent(key, shared);
+        if (inFlight != null) {
+            metricsRecorder.recordCoalesced(call.request().url().encodedPath());
+            return inFlight.thenApply(ApiServiceExecutor::copyForCoalesced);
+        }
+
+        enqueue(call, attachment, isChainApi).whenComplete((response, throwable) -> {
+            // removed before completion, so the requests after the response is received send their own calls
+            singleFlights.remove(key, shared);
+            if (throwable != null) {
+                shared.completeExceptionally(throwable);
+            } else {
+                shared.complete(response);
+            }
+        });
+        return shared.thenApply(response -> response);
+    }
+
+    // the coalesced request gets its own list of rows, so modifying it doesn't affect the other requests
+    @SuppressWarnings("unchecked")
+    private static <T> T copyForCoalesced(T response) {
+        if (response instanceof TableRow) {
+            return (T) new TableRow((TableRow) response);
+        }
+        if (response instanceof TableRowPage) {
+            TableRowPage<?> page = (TableRowPage<?>) response;
+            return (T) new TableRowPage<>(page.getRows() == null ? null : new ArrayList<>(page.getRows()), page.getMore());
+        }
+        return response;
+    }
+
+    private <T> CompletableFuture<T> completeOnAsyncExecutor(CompletableFuture<T> future) {
+        if (asyncExecutor.isDirect()) {
+            return future;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((response, throwable) -> {
+            Runnable completion = () -> {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(response);
+                }
+            };
+            try {
+                asyncExecutor.execute(completion);
+            } catch (RejectedExecutionException e) {
+                // shut down
+                completion.run();
+            }
+        });
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> enqueue(Call<T> call, Object attachment, boolean isChainApi) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Call<T>> currentCall = new AtomicReference<>(call);
+        enqueueAttempt(call, 1, attachment, isChainApi, currentCall, result);
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                currentCall.get().cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The failed call is retried by the {@link RetryPolicy} of the HTTP client options; no thread is occupied during the backoff.
+     */
+    private <T> void enqueueAttempt(Call<T> call, int attempt, Object attachment, boolean isChainApi,
+                                    AtomicReference<Call<T>> currentCall, CompletableFuture<T> result) {
+        acquirePermits(call).whenComplete((permitted, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(unwrap(throwable));
+            } else {
+                enqueuePermitted(call, attempt, attachment, isChainApi, currentCall, result);
+            }
+        });
+    }
+
+    private <T> void enqueuePermitted(Call<T> call, int attempt, Object attachment, boolean isChainApi,
+                                      AtomicReference<Call<T>> currentCall, CompletableFuture<T> result) {
+        CircuitBreaker circuitBreaker;
+        try {
+            circuitBreaker = acquireCircuitBreaker(call);
+        } catch (YosemiteApiException e) {
+            releasePermits(call);
+            result.completeExceptionally(e);
+            return;
+        }
+        currentCall.set(call);
+        if (result.isCancelled()) {
+            release(circuitBreaker);
+            releasePermits(call);
+            return;
+        }
+
+        try {
+            enqueueCall(call, attempt, attachment, isChainApi, currentCall, result, circuitBreaker);
+        } catch (Throwable t) {
+            // e.g. IllegalStateException if the call is already executed
+            release(circuitBreaker);
+            releasePermits(call);
+            result.completeExceptionally(t);
+        }
+    }
+
+    private <T> void enqueueCall(Call<T> call, int attempt, Object attachment, boolean isChainApi,
+                                 AtomicReference<Call<T>> currentCall, CompletableFuture<T> result,
+                                 CircuitBreaker circuitBreaker) {
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                releasePermits(call);
+                try {
+                    T body = handleResponse(call, response, attachment, isChainApi);
+                    onSuccess(circuitBreaker);
+                    result.complete(body);
+                } catch (IOException e) {
+                    retryOrFail(response.code(), new YosemiteApiException(e));
+                } catch (RuntimeException e) {
+                    retryOrFail(response.code(), e);
+                } catch (Throwable t) {
+                    release(circuitBreaker);
+                    result.completeExceptionally(t);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                releasePermits(call);
+                if (result.isCancelled()) {
+                    release(circuitBreaker);
+                } else if (t instanceof IOException) {
+                    retryOrFail(RetryPolicy.NO_RESPONSE, new YosemiteApiException(t));
+                } else {
+                    release(circuitBreaker);
+                    result.completeExceptionally(t);
+                }
+            }
+
+            private void retryOrFail(int statusCode, RuntimeException failure) {
+                T pushed = getDuplicatePushResult(call, attempt, attachment, failure);
+                if (pushed != null) {
+                    onSuccess(circuitBreaker);
+                    result.complete(pushed);
+                    return;
+                }
+                long backoffMillis = ApiServiceExecutor.this.onFailure(call, circuitBreaker, attempt, statusCode, failure);
+                if (backoffMillis < 0 || result.isDone()) {
+                    result.completeExceptionally(withTransactionId(call, attachment, failure));
+                    return;
+                }
+                RetryScheduler.INSTANCE.schedule(
+                        () -> enqueueAttempt(call.clone(), attempt + 1, attachment, isChainApi, currentCall, result),
+                        backoffMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * @return the future completed when the request is permitted by the limits of the endpoint and the API
+     */
+    private CompletableFuture<Void> acquirePermits(Call<?> call) {
+        RequestLimiter endpointLimiter = endpointLimiters.get(call.request().url().encodedPath());
+        if (endpointLimiter == null) {
+            return apiLimiter == null ? PERMITTED : apiLimiter.acquire();
+        }
+        CompletableFuture<Void> permits = endpointLimiter.acquire();
+        if (apiLimiter == null) {
+            return permits;
+        }
+        return permits.thenCompose(permitted -> apiLimiter.acquire().whenComplete((apiPermitted, throwable) -> {
+            if (throwable != null) {
+                endpointLimiter.release();
+            }
+        }));
+    }
+
+    private void awaitPermits(Call<?> call) {
+        CompletableFuture<Void> permits = acquirePermits(call);
+        try {
+            permits.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permits.thenRun(() -> releasePermits(call));
+            throw new YosemiteApiException(e);
+        }
+    }
+
+    private void releasePermits(Call<?> call) {
+        RequestLimiter endpointLimiter = endpointLimiters.get(call.request().url().encodedPath());
+        if (endpointLimiter != null) {
+            endpointLimiter.release();
+        }
+        if (apiLimiter != null) {
+            apiLimiter.release();
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable instanceof RuntimeException ? (RuntimeException) throwable : new YosemiteApiException(throwable);
+    }
+
+    /**
+     * @return the circuit breaker of the endpoint; null if the circuit breaker is disabled
+     * @throws YosemiteApiException if the circuit breaker is open
+     */
+    private CircuitBreaker acquireCircuitBreaker(Call<?> call) {
+        if (retryPolicy.getCircuitBreakerThreshold() == 0) {
+            return null;
+        }
+        String endpoint = call.request().url().encodedPath();
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(endpoint,
+                e -> new CircuitBreaker(retryPolicy.getCircuitBreakerThreshold(), retryPolicy.getCircuitBreakerOpenMillis()));
+        if (!circuitBreaker.tryAcquire()) {
+            throw new YosemiteApiException("circuit breaker is open : " + endpoint);
+        }
+        return circuitBreaker;
+    }
+
+    private void onSuccess(CircuitBreaker circuitBreaker) {
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+        }
+        retryBudget.onSuccess();
+    }
+
+    private static void release(CircuitBreaker circuitBreaker) {
+        if (circuitBreaker != null) {
+            circuitBreaker.release();
+        }
+    }
+
+    /**
+     * @param statusCode HTTP status code or {@link RetryPolicy#NO_RESPONSE}
+     * @return the delay before retrying the call; -1 if the call is not retried
+     */
+    private long onFailure(Call<?> call, CircuitBreaker circuitBreaker, int attempt, int statusCode, Throwable failure) {
+        String endpoint = call.request().url().encodedPath();
+        YosemiteApiErrorCode errorCode = getChainErrorCode(failure);
+        if (!retryPolicy.isTransient(statusCode, errorCode)) {
+            // the node is working; the request itself is wrong
+            onSuccess(circuitBreaker);
+            return -1;
+        }
+
+        if (circuitBreaker != null && circuitBreaker.onTransientFailure()) {
+            logger.warn("circuit breaker is opened : " + endpoint);
+        }
+        boolean retryAllowed = retryBudget.onFailure();
+        if (attempt >= retryPolicy.getMaxAttempts() || !retryAllowed
+                || !retryPolicy.isRetryable(isReadOnly(call), isPush(call), statusCode, errorCode)) {
+            return -1;
+        }
+        metricsRecorder.recordRetry(endpoint);
+        return retryPolicy.getBackoffMillis(attempt);
+    }
+
+    /**
+     * The retried push is rejected as {@link YosemiteApiErrorCode#DUPLICATE_TRANSACTION} if the earlier attempt was
+     * accepted while its outcome was unknown to the client; the transaction is pushed, so the push succeeds.
+     * @return the pushed transaction without its trace; null if the failure is not the duplicate of the retried push
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T getDuplicatePushResult(Call<T> call, int attempt, Object attachment, Throwable failure) {
+        if (attempt <= 1 || !isPush(call) || getChainErrorCode(failure) != YosemiteApiErrorCode.DUPLICATE_TRANSACTION) {
+            return null;
+        }
+        String transactionId = getPushedTransactionId(call, attachment);
+        if (transactionId == null) {
+            return null;
+        }
+        logger.info("the retried push is the duplicate of the earlier attempt : " + transactionId);
+        return (T) new PushedTransaction(transactionId);
+    }
+
+    /**
+     * Give the id of the pushed transaction to the failure without the response, e.g. the timeout,
+     * so the caller can look up the transaction of which outcome is unknown.
+     */
+    private static RuntimeException withTransactionId(Call<?> call, Object attachment, RuntimeException failure) {
+        if (failure instanceof YosemiteApiException && isPush(call)) {
+            YosemiteApiException yosemiteApiException = (YosemiteApiException) failure;
+            if (yosemiteApiException.getTransactionId() == null) {
+                yosemiteApiException.setTransactionId(getPushedTransactionId(call, attachment));
+            }
+        }
+        return failure;
+    }
+
+    // the transaction is the attachment or the body argument of push_transaction
+    private static String getPushedTransactionId(Call<?> call, Object attachment) {
+        if (attachment instanceof PackedTransaction) {
+            return ((PackedTransaction) attachment).getId();
+        }
+        if (attachment instanceof SignedTransaction) {
+            return ((SignedTransaction) attachment).getId();
+        }
+        Invocation invocation = call.request().tag(Invocation.class);
+        if (invocation != null) {
+            for (Object argument : invocation.arguments()) {
+                if (argument instanceof PackedTransaction) {
+                    return ((PackedTransaction) argument).getId();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param failure the failure of push_transaction; it may be wrapped by {@link CompletionException}
+     * @return true if the node answered that the transaction was rejected, so it's known not to be included;
+     *         false if the outcome is unknown e.g. on the timeout, 502, 504 or the duplicate
+     */
+    static boolean isPushRejected(Throwable failure) {
+        YosemiteApiErrorCode errorCode = getChainErrorCode(unwrap(failure));
+        if (errorCode == null) {
+            // no chain error response
+            return false;
+        }
+        return errorCode != YosemiteApiErrorCode.DUPLICATE_TRANSACTION;
+    }
+
+    private static YosemiteApiErrorCode getChainErrorCode(Throwable failure) {
+        if (!(failure instanceof YosemiteApiException)) {
+            return null;
+        }
+        YosemiteApiError error = ((YosemiteApiException) failure).getError();
+        if (error == null || error.getEosErrorCode() == null) {
+            return null;
+        }
+        return YosemiteApiErrorCode.get(error.getEosErrorCode());
+    }
+
+    private static boolean isReadOnly(Call<?> call) {
+        Invocation invocation = call.request().tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(ReadOnly.class);
+    }
+
+    private static boolean isPush(Call<?> call) {
+        return call.request().url().encodedPath().endsWith(PUSH_TRANSACTION_PATH);
+    }
+
+    private static boolean isSingleFlight(Call<?> call) {
+        Invocation invocation = call.request().tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(SingleFlight.class);
+    }
+
+    private static String getSingleFlightKey(okhttp3.Request request) {
+        StringBuilder key = new StringBuilder(request.method()).append(' ').append(request.url());
+        RequestBody body = request.body();
+        if (body != null) {
+            try {
+                Buffer buffer = new Buffer();
+                body.writeTo(buffer);
+                key.append(' ').append(buffer.readUtf8());
+            } catch (IOException e) {
+                // never thrown by the buffer
+                throw new YosemiteApiException(e);
+            }
+        }
+        return key.toString();
     }
 
     private YosemiteApiError getEosApiError(Response<?> response) throws IOException {
         return (YosemiteApiError) retrofit.responseBodyConverter(YosemiteApiError.class, new Annotation[0])
                 .convert(response.errorBody());
     }
+
+    // the HTTP engine shared by the clients of the same options; reference-counted to release it with the last client
+    private static final class SharedComponent {
+        private final ApiServiceComponent component;
+        private int references;
+
+        SharedComponent(ApiServiceComponent component) {
+            this.component = component;
+        }
+    }
+
+    /**
+     * The retry throttling of gRPC; the tokens are taken by the transient failures and given back by the successes.
+     */
+    private static final class RetryBudget {
+        private final double maxTokens;
+        private final double tokenRatio;
+        private double tokens;
+
+        RetryBudget(double maxTokens, double tokenRatio) {
+            this.maxTokens = maxTokens;
+            this.tokenRatio = tokenRatio;
+            this.tokens = maxTokens;
+        }
+
+        synchronized void onSuccess() {
+            tokens = Math.min(maxTokens, tokens + tokenRatio);
+        }
+
+        /**
+         * @return true if the retry is allowed
+         */
+        synchronized boolean onFailure() {
+            tokens = Math.max(0, tokens - 1);
+            return tokens > maxTokens / 2;
+        }
+    }
+
+    private static final class CircuitBreaker {
+        private final int threshold;
+        private final long openMillis;
+        private int consecutiveFailures;
+        private long openUntilMillis;
+        private boolean probing;
+
+        CircuitBreaker(int threshold, long openMillis) {
+            this.threshold = threshold;
+            this.openMillis = openMillis;
+        }
+
+        /**
+         * @return false if the breaker is open; true if it's closed or the caller may probe the node
+         */
+        synchronized boolean tryAcquire() {
+            if (consecutiveFailures < threshold) {
+                return true;
+            }
+            if (probing || System.currentTimeMillis() < openUntilMillis) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            probing = false;
+        }
+
+        /**
+         * @return true if the breaker is opened by this failure
+         */
+        synchronized boolean onTransientFailure() {
+            boolean probeFailed = probing;
+            probing = false;
+            if (++consecutiveFailures < threshold) {
+                return false;
+            }
+            openUntilMillis = System.currentTimeMillis() + openMillis;
+            return probeFailed || consecutiveFailures == threshold;
+        }
+
+        synchronized void release() {
+            probing = false;
+        }
+    }
+
+    private static final class RetryScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "yosemitej-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
@@ -0,0 +1,433 @@
+package io.yosemiteblockchain.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.yosemiteblockchain.data.remote.api.*;
+import io.yosemiteblockchain.data.remote.chain.*;
+import io.yosemiteblockchain.data.remote.chain.account.Account;
+import io.yosemiteblockchain.data.remote.history.action.Actions;
+import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
+import io.yosemiteblockchain.data.types.TypeAsset;
+import io.yosemiteblockchain.data.types.TypePermission;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+import io.yosemiteblockchain.util.AsyncExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The decorator of {@link YosemiteApiRestClient} which caches the responses of getAccount, getTokenInfo and getTokenBalance.
+ * <p>
+ * Each method has its own TTL and the number of the entries of each method is bounded. The future of the response is
+ * cached at the first request, so the concurrent identical requests share a single chain request; the failed response
+ * is not cached.
+ * <p>
+ * The transactions pushed through this client invalidate the entries of the accounts they touched: the receivers
+ * and the contracts of all the action traces, the actors of the authorizations and the transaction fee payer.
+ * The entries are invalidated before the future of the push is completed. If the node rejects the transaction,
+ * nothing is invalidated; if the outcome of the push is unknown, e.g. on the timeout, all the entries are invalidated.
+ * Pass this client to {@link YosemiteJ} to have its pushAction invalidate the cache.
+ * The other methods are delegated as they are.
+ */
+public class CachingYosemiteApiRestClient implements YosemiteApiRestClient {
+
+    private final static Logger logger = LoggerFactory.getLogger(CachingYosemiteApiRestClient.class);
+
+    public static final long DEFAULT_ACCOUNT_TTL_MILLIS = 3000;
+    public static final long DEFAULT_TOKEN_INFO_TTL_MILLIS = 60 * 1000;
+    public static final long DEFAULT_TOKEN_BALANCE_TTL_MILLIS = 1000;
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final YosemiteApiRestClient delegate;
+    private final Cache<String, CompletableFuture<Account>> accounts;
+    private final Cache<String, CompletableFuture<TokenInfo>> tokenInfos;
+    private final Cache<BalanceKey, CompletableFuture<TypeAsset>> tokenBalances;
+
+    private CachingYosemiteApiRestClient(CachingYosemiteApiRestClientBuilder builder) {
+        delegate = builder.delegate;
+        accounts = buildCache(builder.accountTtlMillis, builder.maximumSize);
+        tokenInfos = buildCache(builder.tokenInfoTtlMillis, builder.maximumSize);
+        tokenBalances = buildCache(builder.tokenBalanceTtlMillis, builder.maximumSize);
+    }
+
+    public static CachingYosemiteApiRestClientBuilder Builder(YosemiteApiRestClient delegate) {
+        return new CachingYosemiteApiRestClientBuilder(delegate);
+    }
+
+    /**
+     * Builder for the caching client. The TTL of zero disables the cache of the method.
+     */
+    public static class CachingYosemiteApiRestClientBuilder {
+
+        private final YosemiteApiRestClient delegate;
+        private long accountTtlMillis = DEFAULT_ACCOUNT_TTL_MILLIS;
+        private long tokenInfoTtlMillis = DEFAULT_TOKEN_INFO_TTL_MILLIS;
+        private long tokenBalanceTtlMillis = DEFAULT_TOKEN_BALANCE_TTL_MILLIS;
+        private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+        private CachingYosemiteApiRestClientBuilder(YosemiteApiRestClient delegate) {
+            if (delegate == null) throw new IllegalArgumentException("delegate cannot be null.");
+            this.delegate = delegate;
+        }
+
+        public CachingYosemiteApiRestClient build() {
+            return new CachingYosemiteApiRestClient(this);
+        }
+
+        public CachingYosemiteApiRestClientBuilder setAccountTtlMillis(long accountTtlMillis) {
+            if (accountTtlMillis < 0) throw new IllegalArgumentException("accountTtlMillis cannot be negative.");
+            this.accountTtlMillis = accountTtlMillis;
+            return this;
+        }
+
+        public CachingYosemiteApiRestClientBuilder setTokenInfoTtlMillis(long tokenInfoTtlMillis) {
+            if (tokenInfoTtlMillis < 0) throw new IllegalArgumentException("tokenInfoTtlMillis cannot be negative.");
+            this.tokenInfoTtlMillis = tokenInfoTtlMillis;
+            return this;
+        }
+
+        public CachingYosemiteApiRestClientBuilder setTokenBalanceTtlMillis(long tokenBalanceTtlMillis) {
+            if (tokenBalanceTtlMillis < 0) throw new IllegalArgumentException("tokenBalanceTtlMillis cannot be negative.");
+            this.tokenBalanceTtlMillis = tokenBalanceTtlMillis;
+            return this;
+        }
+
+        /**
+         * @param maximumSize the maximum number of the entries of each method; the least recently used ones are evicted
+         */
+        public CachingYosemiteApiRestClientBuilder setMaximumSize(long maximumSize) {
+            if (maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be positive.");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+    }
+
+    private static <K, V> Cache<K, CompletableFuture<V>> buildCache(long ttlMillis, long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(ttlMillis > 0 ? maximumSize : 0)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public YosemiteApiRestClient getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * The concurrent identical requests which share a single chain request are counted as hits.
+     */
+    public CacheStats getAccountStats() {
+        return accounts.stats();
+    }
+
+    public CacheStats getTokenInfoStats() {
+        return tokenInfos.stats();
+    }
+
+    public CacheStats getTokenBalanceStats() {
+        return tokenBalances.stats();
+    }
+
+    /**
+     * Invalidate the account, its token balances and the token info of the account as a token.
+     */
+    public void invalidate(String accountName) {
+        accounts.invalidate(accountName);
+        tokenInfos.invalidate(accountName);
+        tokenBalances.asMap().keySet().removeIf(key -> key.account.equals(accountName));
+    }
+
+    public void invalidateAll() {
+        accounts.invalidateAll();
+        tokenInfos.invalidateAll();
+        tokenBalances.invalidateAll();
+    }
+
+    private static <K, V> Request<V> cachedRequest(Cache<K, CompletableFuture<V>> cache, K key,
+                                                   Supplier<Request<V>> request) {
+        return new DeferredRequest<>((attachment, isChainApi) -> {
+            CompletableFuture<V> future;
+            try {
+                future = cache.get(key, () -> {
+                    CompletableFuture<V> loaded = request.get().executeAsync(attachment, isChainApi);
+                    loaded.whenComplete((response, throwable) -> {
+                        if (throwable != null) {
+                            cache.asMap().remove(key, loaded);
+                        }
+                    });
+                    return loaded;
+                });
+            } catch (ExecutionException e) {
+                throw new YosemiteApiException(e.getCause());
+            }
+            if (future.isCompletedExceptionally()) {
+                // failed before it was put in the cache
+                cache.asMap().remove(key, future);
+            }
+            // the callers must not be able to cancel or complete the shared future
+            return future.thenApply(response -> response);
+        });
+    }
+
+    private void invalidateTouchedAccounts(PushedTransaction pushedTransaction, Throwable throwable) {
+        if (throwable != null && ApiServiceExecutor.isPushRejected(throwable)) {
+            // the transaction is not included; nothing has changed
+            return;
+        }
+        if (pushedTransaction == null || pushedTransaction.getTransactionTrace() == null) {
+            // the transaction may be included, but the accounts touched by its inline actions are unknown
+            logger.debug("invalidating the whole cache for the push of which outcome is unknown");
+            invalidateAll();
+            return;
+        }
+
+        Set<String> accountNames = new HashSet<>();
+        TransactionTrace trace = pushedTransaction.getTransactionTrace();
+        if (trace.getFeePayer() != null) {
+            accountNames.add(trace.getFeePayer().toString());
+        }
+        addTouchedAccounts(trace.getActionTraces(), accountNames);
+
+        logger.debug("invalidating the cache of {}", accountNames);
+        for (String accountName : accountNames) {
+            invalidate(accountName);
+        }
+    }
+
+    private static void addTouchedAccounts(List<ActionTrace> actionTraces, Set<String> accountNames) {
+        if (actionTraces == null) {
+            return;
+        }
+        for (ActionTrace actionTrace : actionTraces) {
+            if (actionTrace.getReceipt() != null) {
+                accountNames.add(actionTrace.getReceipt().getReceiver());
+            }
+            if (actionTrace.getAct() != null) {
+                addTouchedAccounts(actionTrace.getAct(), accountNames);
+            }
+            addTouchedAccounts(actionTrace.getInlineTraces(), accountNames);
+        }
+    }
+
+    private static void addTouchedAccounts(Action action, Set<String> accountNames) {
+        accountNames.add(action.getAccount());
+        if (action.getAuthorization() != null) {
+            for (TypePermission permission : action.getAuthorization()) {
+                accountNames.add(permission.getAccount());
+            }
+        }
+    }
+
+    private static final class BalanceKey {
+        final String token;
+        final String account;
+
+        BalanceKey(String token, String account) {
+            this.token = token;
+            this.account = account;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BalanceKey that = (BalanceKey) o;
+            return Objects.equals(token, that.token) && Objects.equals(account, that.account);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(token, account);
+        }
+    }
+
+    @Override
+    public Request<Account> getAccount(String accountName) {
+        return cachedRequest(accounts, accountName, () -> delegate.getAccount(accountName));
+    }
+
+    @Override
+    public Request<TokenInfo> getTokenInfo(String token) {
+        return cachedRequest(tokenInfos, token, () -> delegate.getTokenInfo(token));
+    }
+
+    @Override
+    public Request<TypeAsset> getTokenBalance(String token, String account) {
+        return cachedRequest(tokenBalances, new BalanceKey(token, account), () -> delegate.getTokenBalance(token, account));
+    }
+
+    @Override
+    public Request<PushedTransaction> pushTransaction(PackedTransaction req) {
+        Request<PushedTransaction> request = delegate.pushTransaction(req);
+        return new DeferredRequest<>((attachment, isChainApi) -> {
+            // the callers see the result after the cache is invalidated
+            return request.executeAsync(attachment, isChainApi).whenComplete((pushedTransaction, throwable) ->
+                    invalidateTouchedAccounts(pushedTransaction, throwable));
+        });
+    }
+
+    @Override
+    public Request<Info> getInfo() {
+        return delegate.getInfo();
+    }
+
+    @Override
+    public Request<Block> getBlock(String blockNumberOrId) {
+        return delegate.getBlock(blockNumberOrId);
+    }
+
+    @Override
+    public Request<TableRow> getTableRows(String code, String scope, String table, GetTableOptions options) {
+        return delegate.getTableRows(code, scope, table, options);
+    }
+
+    @Override
+    public <T> Request<TableRowPage<T>> getTableRows(String code, String scope, String table, GetTableOptions options,
+                                                    Class<T> rowType) {
+        return delegate.getTableRows(code, scope, table, options, rowType);
+    }
+
+    @Override
+    public Request<GetAbiResponse> getAbi(String accountName) {
+        return delegate.getAbi(accountName);
+    }
+
+    @Override
+    public Request<GetCodeResponse> getCode(String accountName) {
+        return delegate.getCode(accountName);
+    }
+
+    @Override
+    public Request<AbiJsonToBinResponse> abiJsonToBin(AbiJsonToBinRequest req) {
+        return delegate.abiJsonToBin(req);
+    }
+
+    @Override
+    public Request<AbiBinToJsonResponse> abiBinToJson(AbiBinToJsonRequest req) {
+        return delegate.abiBinToJson(req);
+    }
+
+    @Override
+    public Request<GetRequiredKeysResponse> getRequiredKeys(GetRequiredKeysRequest getRequiredKeysRequest) {
+        return delegate.getRequiredKeys(getRequiredKeysRequest);
+    }
+
+    @Override
+    public Request<String> createKey() {
+        return delegate.createKey();
+    }
+
+    @Override
+    public Request<String> createKey(String walletName) {
+        return delegate.createKey(walletName);
+    }
+
+    @Override
+    public Request<String> createKey(String walletName, String keyType) {
+        return delegate.createKey(walletName, keyType);
+    }
+
+    @Override
+    public Request<List<String>> getPublicKeys() {
+        return delegate.getPublicKeys();
+    }
+
+    @Override
+    public Request<SignedTransaction> signTransaction(SignedTransaction transactionToSign, List<String> pubKeys, String chainId) {
+        return delegate.signTransaction(transactionToSign, pubKeys, chainId);
+    }
+
+    @Override
+    public Request<String> signDigest(String hexData, String pubKey) {
+        return delegate.signDigest(hexData, pubKey);
+    }
+
+    @Override
+    public Request<io.yosemiteblockchain.data.remote.history.transaction.Transaction> getTransaction(String id) {
+        return delegate.getTransaction(id);
+    }
+
+    @Override
+    public Request<Actions> getActions(String accountName, long startPosition, int offset) {
+        return delegate.getActions(accountName, startPosition, offset);
+    }
+
+    @Override
+    public int getTxExpirationInMillis() {
+        return delegate.getTxExpirationInMillis();
+    }
+
+    @Override
+    public void setTxExpirationInMillis(int txExpirationInMillis) {
+        delegate.setTxExpirationInMillis(txExpirationInMillis);
+    }
+
+    @Override
+    public String getTransactionVoteTarget() {
+        return delegate.getTransactionVoteTarget();
+    }
+
+    @Override
+    public void setTransactionVoteTarget(String transactionVoteTarget) {
+        delegate.setTransactionVoteTarget(transactionVoteTarget);
+    }
+
+    @Override
+    public String getTransactionFeePayer() {
+        return delegate.getTransactionFeePayer();
+    }
+
+    @Override
+    public void setTransactionFeePayer(String transactionFeePayer) {
+        delegate.setTransactionFeePayer(transactionFeePayer);
+    }
+
+    @Override
+    public TransactionSigner getTransactionSigner() {
+        return delegate.getTransactionSigner();
+    }
+
+    @Override
+    public void setTransactionSigner(TransactionSigner transactionSigner) {
+        delegate.setTransactionSigner(transactionSigner);
+    }
+
+    @Override
+    public ContractAbiCache getContractAbiCache() {
+        return delegate.getContractAbiCache();
+    }
+
+    @Override
+    public ChainStateProvider getChainStateProvider() {
+        return delegate.getChainStateProvider();
+    }
+
+    @Override
+    public NodePool getNodePool() {
+        return delegate.getNodePool();
+    }
+
+    @Override
+    public AsyncExecutor getAsyncExecutor() {
+        return delegate.getAsyncExecutor();
+    }
+
+    /**
+     * Close the delegate.
+     */
+    @Override
+    public void close() {
+        invalidateAll();
+        delegate.close();
+    }
+}
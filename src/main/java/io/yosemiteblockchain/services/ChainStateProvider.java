@@ -0,0 +1,303 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.Info;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provides the chain id, the TAPoS reference block and the expiration time of the transaction from memory,
+ * so {@link YosemiteJ} doesn't need to request get_info for every transaction.
+ * By default, get_info is requested only when the cached state is older than the max staleness.
+ * The background refresh is opt-in by {@link #setRefreshIntervalMillis(long)}; it's started at the next call of
+ * {@link #getChainState()} and stopped by {@link YosemiteApiRestClient#close()}.
+ */
+public class ChainStateProvider {
+
+    private final static Logger logger = LoggerFactory.getLogger(ChainStateProvider.class);
+
+    /** no background refresh */
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 0;
+    public static final long DEFAULT_MAX_STALENESS_MILLIS = 3000;
+    public static final long DEFAULT_MAX_STALE_ON_ERROR_MILLIS = 60 * 1000;
+
+    private final YosemiteApiRestClient mYosemiteApiRestClient;
+    private final AtomicReference<ChainState> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<ChainState>> inFlight = new AtomicReference<>();
+
+    private volatile boolean enabled = true;
+    private volatile long refreshIntervalMillis = DEFAULT_REFRESH_INTERVAL_MILLIS;
+    private volatile long maxStalenessMillis = DEFAULT_MAX_STALENESS_MILLIS;
+    private volatile boolean staleOnError = true;
+    private volatile long maxStaleOnErrorMillis = DEFAULT_MAX_STALE_ON_ERROR_MILLIS;
+    private volatile boolean useLastIrreversibleBlock = false;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledRefresh;
+    private boolean closed;
+
+    ChainStateProvider(YosemiteApiRestClient yosemiteApiRestClient) {
+        mYosemiteApiRestClient = yosemiteApiRestClient;
+    }
+
+    /**
+     * Get the current chain state.
+     * The cached state is returned if it's not older than the max staleness; otherwise get_info is requested.
+     * If get_info fails and stale-on-error is enabled, the cached state is returned while it's not older than
+     * the max stale-on-error time.
+     * @return CompletableFuture instance to get ChainState instance
+     */
+    public CompletableFuture<ChainState> getChainState() {
+        if (!enabled) {
+            return mYosemiteApiRestClient.getInfo().executeAsync().thenApply(this::newChainState);
+        }
+
+        startBackgroundRefresh();
+
+        final ChainState cached = current.get();
+        if (cached != null && cached.getAgeInMillis() <= maxStalenessMillis) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<ChainState> refreshed = refresh();
+        if (cached == null || !staleOnError) {
+            return refreshed;
+        }
+
+        CompletableFuture<ChainState> result = new CompletableFuture<>();
+        refreshed.whenComplete((chainState, throwable) -> {
+            if (throwable == null) {
+                result.complete(chainState);
+            } else if (cached.getAgeInMillis() <= maxStaleOnErrorMillis) {
+                logger.debug("get_info failed; the cached chain state is used", throwable);
+                result.complete(cached);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Request get_info and update the cached state. Concurrent calls share the same request.
+     * @return CompletableFuture instance to get the refreshed ChainState instance
+     */
+    public CompletableFuture<ChainState> refresh() {
+        CompletableFuture<ChainState> future = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, future)) {
+            CompletableFuture<ChainState> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        mYosemiteApiRestClient.getInfo().executeAsync().whenComplete((info, throwable) -> {
+            inFlight.set(null);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+            ChainState chainState = newChainState(info);
+            current.set(chainState);
+            future.complete(chainState);
+        });
+        return future;
+    }
+
+    private ChainState newChainState(Info info) {
+        String referenceBlockId = info.getHeadBlockId();
+        if (useLastIrreversibleBlock && info.getLastIrreversibleBlockId() != null) {
+            ChainState previous = current.get();
+            // the reference block is changed only when the last irreversible block advances
+            if (previous != null && previous.getInfo().getLastIrreversibleBlockNum() != null
+                    && previous.getInfo().getLastIrreversibleBlockNum().equals(info.getLastIrreversibleBlockNum())) {
+                referenceBlockId = previous.getReferenceBlockId();
+            } else {
+                referenceBlockId = info.getLastIrreversibleBlockId();
+            }
+        }
+        return new ChainState(info, referenceBlockId, System.nanoTime());
+    }
+
+    private void refreshQuietly() {
+        refresh().exceptionally(throwable -> {
+            logger.debug("background get_info failed", throwable);
+            return null;
+        });
+    }
+
+    private synchronized void startBackgroundRefresh() {
+        if (closed || scheduledRefresh != null || refreshIntervalMillis <= 0) {
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "yosemitej-chain-state");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduledRefresh = scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopBackgroundRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+
+    /**
+     * Stop the background refresh and release its thread.
+     * The background refresh is started again by the next call of {@link #getChainState()}.
+     */
+    public synchronized void shutdown() {
+        stopBackgroundRefresh();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Stop the background refresh for good; it's not started again. Called when the client is closed.
+     */
+    synchronized void close() {
+        closed = true;
+        shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the cached chain state.
+     * If it's disabled, get_info is requested for every transaction.
+     * @param enabled true to use the cached chain state
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            shutdown();
+        }
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    /**
+     * Set the interval of the background refresh, which keeps a thread polling get_info until the client is closed.
+     * @param refreshIntervalMillis interval in milliseconds; 0 or less (default) to refresh only when the cached state
+     *                              is stale
+     */
+    public synchronized void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        stopBackgroundRefresh();
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    /**
+     * Set the max age of the cached state which is returned without requesting get_info.
+     * @param maxStalenessMillis max age in milliseconds
+     */
+    public void setMaxStalenessMillis(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    public boolean isStaleOnError() {
+        return staleOnError;
+    }
+
+    /**
+     * Set whether the stale cached state is returned when get_info fails.
+     * @param staleOnError true to return the stale cached state
+     */
+    public void setStaleOnError(boolean staleOnError) {
+        this.staleOnError = staleOnError;
+    }
+
+    public long getMaxStaleOnErrorMillis() {
+        return maxStaleOnErrorMillis;
+    }
+
+    /**
+     * Set the max age of the cached state which is returned when get_info fails.
+     * It must be far shorter than the TAPoS window (65536 blocks) so that the reference block stays valid.
+     * @param maxStaleOnErrorMillis max age in milliseconds
+     */
+    public void setMaxStaleOnErrorMillis(long maxStaleOnErrorMillis) {
+        this.maxStaleOnErrorMillis = maxStaleOnErrorMillis;
+    }
+
+    public boolean isUseLastIrreversibleBlock() {
+        return useLastIrreversibleBlock;
+    }
+
+    /**
+     * Set whether the last irreversible block is used as the reference block instead of the head block.
+     * The reference block is changed only when the last irreversible block advances.
+     * @param useLastIrreversibleBlock true to use the last irreversible block
+     */
+    public void setUseLastIrreversibleBlock(boolean useLastIrreversibleBlock) {
+        this.useLastIrreversibleBlock = useLastIrreversibleBlock;
+    }
+
+    /**
+     * The chain information at the time of get_info.
+     */
+    public static final class ChainState {
+        private final Info info;
+        private final String referenceBlockId;
+        private final long fetchedAtNanos;
+
+        ChainState(Info info, String referenceBlockId, long fetchedAtNanos) {
+            this.info = info;
+            this.referenceBlockId = referenceBlockId;
+            this.fetchedAtNanos = fetchedAtNanos;
+        }
+
+        public Info getInfo() {
+            return info;
+        }
+
+        public String getChainId() {
+            return info.getChainId();
+        }
+
+        /**
+         * @return the block id for TAPoS
+         */
+        public String getReferenceBlockId() {
+            return referenceBlockId;
+        }
+
+        /**
+         * @return the elapsed time since get_info in milliseconds
+         */
+        public long getAgeInMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fetchedAtNanos);
+        }
+
+        /**
+         * Get the expiration time of the transaction.
+         * The elapsed time since get_info is added to the head block time, so the cached state gives the same expiration.
+         * @param txExpirationInMillis expiration time in milliseconds from now
+         * @return the expiration time string
+         */
+        public String getExpiration(int txExpirationInMillis) {
+            return info.getTimeAfterHeadBlockTime((int) (txExpirationInMillis + getAgeInMillis()));
+        }
+    }
+}
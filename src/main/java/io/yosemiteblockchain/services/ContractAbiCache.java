@@ -0,0 +1,89 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.abi.EosAbiMain;
+import io.yosemiteblockchain.data.remote.abi.EosAbiSerializer;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the ABI of each contract which is fetched only once by get_abi.
+ * {@link YosemiteJ} converts the json-formatted action data to binary format by the cached ABI
+ * instead of requesting abi_json_to_bin for every action.
+ * If the local conversion is not possible, abi_json_to_bin is used as before.
+ */
+public class ContractAbiCache {
+
+    private final YosemiteApiRestClient mYosemiteApiRestClient;
+    private final ConcurrentMap<String, CompletableFuture<EosAbiSerializer>> serializers = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    ContractAbiCache(YosemiteApiRestClient yosemiteApiRestClient) {
+        mYosemiteApiRestClient = yosemiteApiRestClient;
+    }
+
+    /**
+     * Get the serializer of the contract ABI. The ABI is fetched from the chain only at the first call.
+     * @param contract the name of the smart contract
+     * @return CompletableFuture instance to get EosAbiSerializer instance
+     */
+    public CompletableFuture<EosAbiSerializer> getSerializer(String contract) {
+        CompletableFuture<EosAbiSerializer> future = serializers.computeIfAbsent(contract, this::fetch);
+        if (future.isCompletedExceptionally()) {
+            // don't keep the failure; the next call fetches again
+            serializers.remove(contract, future);
+        }
+        return future;
+    }
+
+    private CompletableFuture<EosAbiSerializer> fetch(String contract) {
+        CompletableFuture<EosAbiSerializer> future = mYosemiteApiRestClient.getAbi(contract).executeAsync().thenApply(response -> {
+            if (response.getAbi() == null) {
+                throw new YosemiteApiException("no abi for " + contract);
+            }
+            return new EosAbiSerializer(response.getAbi());
+        });
+        future.whenComplete((serializer, throwable) -> {
+            if (throwable != null) {
+                serializers.remove(contract, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Put the ABI of the contract without fetching it from the chain.
+     * @param contract the name of the smart contract
+     * @param abi the ABI of the smart contract
+     */
+    public void put(String contract, EosAbiMain abi) {
+        serializers.put(contract, CompletableFuture.completedFuture(new EosAbiSerializer(abi)));
+    }
+
+    /**
+     * Remove the cached ABI of the contract, e.g. when the contract is updated.
+     * @param contract the name of the smart contract
+     */
+    public void invalidate(String contract) {
+        serializers.remove(contract);
+    }
+
+    public void invalidateAll() {
+        serializers.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the local conversion of the action data.
+     * If it's disabled, abi_json_to_bin is requested for every action.
+     * @param enabled true to convert locally
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
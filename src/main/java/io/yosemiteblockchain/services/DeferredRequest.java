@@ -0,0 +1,63 @@
+package io.yosemiteblockchain.services;
+
+import io.reactivex.Single;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * The request whose execution is provided by a function instead of a Retrofit call,
+ * so a decorator of {@link YosemiteApiRestClient} can return the requests of its own.
+ */
+final class DeferredRequest<ResponseType> extends Request<ResponseType> {
+
+    private final BiFunction<Object, Boolean, CompletableFuture<ResponseType>> execution;
+
+    /**
+     * @param execution the function from the attachment and whether it's the chain API to the future of the response
+     */
+    DeferredRequest(BiFunction<Object, Boolean, CompletableFuture<ResponseType>> execution) {
+        super(null, null);
+        this.execution = execution;
+    }
+
+    @Override
+    public ResponseType execute() {
+        try {
+            return executeAsync().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new YosemiteApiException(cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseType> executeAsync() {
+        return execution.apply(null, true);
+    }
+
+    @Override
+    public CompletableFuture<ResponseType> executeAsync(boolean isChainApi) {
+        return execution.apply(null, isChainApi);
+    }
+
+    @Override
+    public CompletableFuture<ResponseType> executeAsync(Object attachment) {
+        return execution.apply(attachment, true);
+    }
+
+    @Override
+    public CompletableFuture<ResponseType> executeAsync(Object attachment, boolean isChainApi) {
+        return execution.apply(attachment, isChainApi);
+    }
+
+    @Override
+    public Single<ResponseType> toSingle() {
+        return RxYosemiteJ.fromFuture(() -> execution.apply(null, true));
+    }
+}
@@ -0,0 +1,153 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.util.AsyncExecutor;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contains the options of the HTTP engine(OkHttpClient, its connection pool and dispatcher).
+ * All clients created with the equal options share the same HTTP engine; it's released when all of them are closed.
+ * Use {@link YosemiteApiClientFactory#Builder()} to set the options.
+ */
+public final class HttpClientOptions {
+
+    public static final HttpClientOptions DEFAULT = new HttpClientOptions(
+            5, TimeUnit.MINUTES.toMillis(5), 256, 64, true,
+            TimeUnit.SECONDS.toMillis(5), TimeUnit.SECONDS.toMillis(10), TimeUnit.SECONDS.toMillis(10),
+            MetricsRecorder.NONE, 0, RetryPolicy.NONE, RequestLimits.NONE, AsyncExecutor.direct());
+
+    private final int maxIdleConnections;
+    private final long keepAliveDurationMillis;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final boolean http2Enabled;
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long writeTimeoutMillis;
+    private final MetricsRecorder metricsRecorder;
+    private final double bodyLogSampleRate;
+    private final RetryPolicy retryPolicy;
+    private final RequestLimits requestLimits;
+    private final AsyncExecutor asyncExecutor;
+
+    HttpClientOptions(int maxIdleConnections, long keepAliveDurationMillis, int maxRequests, int maxRequestsPerHost,
+                      boolean http2Enabled, long connectTimeoutMillis, long readTimeoutMillis, long writeTimeoutMillis,
+                      MetricsRecorder metricsRecorder, double bodyLogSampleRate, RetryPolicy retryPolicy,
+                      RequestLimits requestLimits, AsyncExecutor asyncExecutor) {
+        if (maxIdleConnections < 0) throw new IllegalArgumentException("wrong maxIdleConnections");
+        if (keepAliveDurationMillis <= 0) throw new IllegalArgumentException("wrong keepAliveDurationMillis");
+        if (maxRequests < 1) throw new IllegalArgumentException("wrong maxRequests");
+        if (maxRequestsPerHost < 1) throw new IllegalArgumentException("wrong maxRequestsPerHost");
+        if (connectTimeoutMillis < 0 || readTimeoutMillis < 0 || writeTimeoutMillis < 0) {
+            throw new IllegalArgumentException("wrong timeout");
+        }
+        if (metricsRecorder == null) throw new IllegalArgumentException("null metricsRecorder");
+        if (bodyLogSampleRate < 0 || bodyLogSampleRate > 1) throw new IllegalArgumentException("wrong bodyLogSampleRate");
+        if (retryPolicy == null) throw new IllegalArgumentException("null retryPolicy");
+        if (requestLimits == null) throw new IllegalArgumentException("null requestLimits");
+        if (asyncExecutor == null) throw new IllegalArgumentException("null asyncExecutor");
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveDurationMillis = keepAliveDurationMillis;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.http2Enabled = http2Enabled;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.metricsRecorder = metricsRecorder;
+        this.bodyLogSampleRate = bodyLogSampleRate;
+        this.retryPolicy = retryPolicy;
+        this.requestLimits = requestLimits;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveDurationMillis() {
+        return keepAliveDurationMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long getWriteTimeoutMillis() {
+        return writeTimeoutMillis;
+    }
+
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * @return the ratio of the requests of which bodies are logged at the debug level; 0 if body logging is off
+     */
+    public double getBodyLogSampleRate() {
+        return bodyLogSampleRate;
+    }
+
+    /**
+     * The retry policy, the request limits and the async executor are applied by the services, not by the HTTP engine,
+     * so the options which differ only in them share the same HTTP engine.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @see #getRetryPolicy()
+     */
+    public RequestLimits getRequestLimits() {
+        return requestLimits;
+    }
+
+    /**
+     * @see #getRetryPolicy()
+     */
+    public AsyncExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HttpClientOptions that = (HttpClientOptions) o;
+        return maxIdleConnections == that.maxIdleConnections &&
+                keepAliveDurationMillis == that.keepAliveDurationMillis &&
+                maxRequests == that.maxRequests &&
+                maxRequestsPerHost == that.maxRequestsPerHost &&
+                http2Enabled == that.http2Enabled &&
+                connectTimeoutMillis == that.connectTimeoutMillis &&
+                readTimeoutMillis == that.readTimeoutMillis &&
+                writeTimeoutMillis == that.writeTimeoutMillis &&
+                metricsRecorder == that.metricsRecorder &&
+                Double.compare(bodyLogSampleRate, that.bodyLogSampleRate) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxIdleConnections, keepAliveDurationMillis, maxRequests, maxRequestsPerHost,
+                http2Enabled, connectTimeoutMillis, readTimeoutMillis, writeTimeoutMillis,
+                System.identityHashCode(metricsRecorder), bodyLogSampleRate);
+    }
+}
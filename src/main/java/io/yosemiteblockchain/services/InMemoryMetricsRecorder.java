@@ -0,0 +1,204 @@
+package io.yosemiteblockchain.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the count, the status codes, the bytes in/out, the retries, the coalesced and hedged requests
+ * and the latency histogram of each endpoint in memory.
+ * The latency histogram has the buckets of which upper bounds are doubled from 1ms to about 65 seconds.
+ */
+public class InMemoryMetricsRecorder implements MetricsRecorder {
+
+    private static final int BUCKET_COUNT = 18;
+
+    private final ConcurrentMap<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordResponse(String endpoint, int statusCode, long latencyNanos, long bytesSent, long bytesReceived) {
+        EndpointMetrics endpointMetrics = getOrCreate(endpoint);
+        endpointMetrics.count.increment();
+        endpointMetrics.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        endpointMetrics.bytesSent.add(Math.max(0, bytesSent));
+        endpointMetrics.bytesReceived.add(Math.max(0, bytesReceived));
+        endpointMetrics.recordLatency(latencyNanos);
+    }
+
+    @Override
+    public void recordFailure(String endpoint, long latencyNanos, Throwable cause) {
+        EndpointMetrics endpointMetrics = getOrCreate(endpoint);
+        endpointMetrics.count.increment();
+        endpointMetrics.failures.increment();
+        endpointMetrics.recordLatency(latencyNanos);
+    }
+
+    @Override
+    public void recordRetry(String endpoint) {
+        getOrCreate(endpoint).retries.increment();
+    }
+
+    @Override
+    public void recordCoalesced(String endpoint) {
+        getOrCreate(endpoint).coalesced.increment();
+    }
+
+    @Override
+    public void recordHedge(String endpoint) {
+        getOrCreate(endpoint).hedges.increment();
+    }
+
+    @Override
+    public void recordHedgeWon(String endpoint) {
+        getOrCreate(endpoint).hedgeWins.increment();
+    }
+
+    private EndpointMetrics getOrCreate(String endpoint) {
+        return metrics.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+    }
+
+    /**
+     * @return the metrics of each endpoint
+     */
+    public Map<String, EndpointMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    public EndpointMetrics getMetrics(String endpoint) {
+        return metrics.get(endpoint);
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+
+    /**
+     * The upper bound of the latency histogram bucket.
+     * @param bucket bucket index
+     * @return upper bound in milliseconds; Long.MAX_VALUE for the last bucket
+     */
+    public static long getBucketUpperBoundMillis(int bucket) {
+        return bucket >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public static class EndpointMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final AtomicLongArray latencyHistogram = new AtomicLongArray(BUCKET_COUNT);
+
+        private void recordLatency(long latencyNanos) {
+            totalLatencyNanos.add(latencyNanos);
+            long millis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_COUNT - 1 && millis > getBucketUpperBoundMillis(bucket)) {
+                bucket++;
+            }
+            latencyHistogram.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return the number of the requests including failures
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        public long getRetryCount() {
+            return retries.sum();
+        }
+
+        /**
+         * @return the number of the requests which shared the response of the identical request in flight;
+         * they are not counted in {@link #getCount()}
+         */
+        public long getCoalescedCount() {
+            return coalesced.sum();
+        }
+
+        /**
+         * @return the number of the duplicate requests sent by hedging
+         */
+        public long getHedgeCount() {
+            return hedges.sum();
+        }
+
+        /**
+         * @return the number of the duplicate requests whose response was taken
+         */
+        public long getHedgeWinCount() {
+            return hedgeWins.sum();
+        }
+
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+
+        public double getMeanLatencyMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / n;
+        }
+
+        /**
+         * @return the number of the responses for each HTTP status code
+         */
+        public Map<Integer, Long> getStatusCodeCounts() {
+            Map<Integer, Long> counts = new HashMap<>();
+            statusCodes.forEach((code, adder) -> counts.put(code, adder.sum()));
+            return counts;
+        }
+
+        /**
+         * @return the count of each bucket; see {@link #getBucketUpperBoundMillis(int)}
+         */
+        public long[] getLatencyHistogram() {
+            long[] histogram = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                histogram[i] = latencyHistogram.get(i);
+            }
+            return histogram;
+        }
+
+        /**
+         * Get the approximate latency percentile from the histogram.
+         * @param percentile between 0 and 100
+         * @return the upper bound of the bucket which contains the percentile in milliseconds
+         */
+        public long getLatencyPercentileMillis(double percentile) {
+            long[] histogram = getLatencyHistogram();
+            long total = 0;
+            for (long c : histogram) total += c;
+            if (total == 0) return 0;
+
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long accumulated = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                accumulated += histogram[i];
+                if (accumulated >= rank) {
+                    return getBucketUpperBoundMillis(i);
+                }
+            }
+            return getBucketUpperBoundMillis(BUCKET_COUNT - 1);
+        }
+    }
+}
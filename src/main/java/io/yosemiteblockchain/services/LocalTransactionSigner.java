@@ -0,0 +1,94 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.crypto.ec.EosPrivateKey;
+import io.yosemiteblockchain.crypto.ec.EosPublicKey;
+import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the private keys in memory and signs the transaction in-process.
+ * No request is sent to the wallet daemon(keyos).
+ */
+public class LocalTransactionSigner implements TransactionSigner {
+
+    private final Map<EosPublicKey, EosPrivateKey> privateKeys = new ConcurrentHashMap<>();
+
+    public LocalTransactionSigner() {
+    }
+
+    /**
+     * Add the private key to sign with.
+     * @param privateKey private key string e.g. YPV_5HwSdWSAxu5QSVPN6dB9gtTKXFLKSnQTYGa7eLRN91aiw98kCwL
+     * @return the public key string of the private key
+     */
+    public String addPrivateKey(String privateKey) {
+        if (privateKey == null) throw new IllegalArgumentException("privateKey cannot be null.");
+        return addPrivateKey(new EosPrivateKey(privateKey));
+    }
+
+    /**
+     * Add the private key to sign with.
+     * @param privateKey private key
+     * @return the public key string of the private key
+     */
+    public String addPrivateKey(EosPrivateKey privateKey) {
+        if (privateKey == null) throw new IllegalArgumentException("privateKey cannot be null.");
+        privateKeys.put(privateKey.getPublicKey(), privateKey);
+        return privateKey.getPublicKey().toString();
+    }
+
+    /**
+     * Remove the private key of the public key.
+     * @param publicKey public key string
+     */
+    public void removePrivateKey(String publicKey) {
+        privateKeys.remove(new EosPublicKey(publicKey));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getAvailablePublicKeys() {
+        List<String> publicKeys = new ArrayList<>(privateKeys.size());
+        for (EosPublicKey publicKey : privateKeys.keySet()) {
+            publicKeys.add(publicKey.toString());
+        }
+        return CompletableFuture.completedFuture(publicKeys);
+    }
+
+    @Override
+    public CompletableFuture<SignedTransaction> signTransaction(SignedTransaction txnBeforeSign, List<String> publicKeys,
+                                                                String chainId) {
+        CompletableFuture<SignedTransaction> result = new CompletableFuture<>();
+        try {
+            result.complete(sign(txnBeforeSign, publicKeys, chainId));
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+        return result;
+    }
+
+    /**
+     * Sign the transaction synchronously.
+     * @param txnBeforeSign transaction to sign; it's not modified
+     * @param publicKeys the public keys of which private keys are going to be used to sign
+     * @param chainId blockchain ID to send this transaction
+     * @return the copy of the original transaction with its signatures added
+     */
+    public SignedTransaction sign(SignedTransaction txnBeforeSign, List<String> publicKeys, String chainId) {
+        if (publicKeys == null || publicKeys.isEmpty()) throw new IllegalArgumentException("publicKeys cannot be empty.");
+
+        SignedTransaction signedTransaction = new SignedTransaction(txnBeforeSign);
+        for (String publicKey : publicKeys) {
+            EosPrivateKey privateKey = privateKeys.get(new EosPublicKey(publicKey));
+            if (privateKey == null) {
+                throw new IllegalStateException("no private key for " + publicKey);
+            }
+            signedTransaction.sign(privateKey, chainId);
+        }
+        return signedTransaction;
+    }
+}
@@ -0,0 +1,71 @@
+package io.yosemiteblockchain.services;
+
+/**
+ * Records the wire-level metrics of HTTP requests.
+ * The endpoint is the path of the request URL e.g. /v1/chain/get_info.
+ * The methods are called on the OkHttp threads, so the implementation must be thread-safe and must not block.
+ * {@link InMemoryMetricsRecorder} keeps the metrics of each endpoint in memory.
+ */
+public interface MetricsRecorder {
+
+    MetricsRecorder NONE = new MetricsRecorder() {
+        @Override
+        public void recordResponse(String endpoint, int statusCode, long latencyNanos, long bytesSent, long bytesReceived) {
+        }
+
+        @Override
+        public void recordFailure(String endpoint, long latencyNanos, Throwable cause) {
+        }
+
+        @Override
+        public void recordRetry(String endpoint) {
+        }
+    };
+
+    /**
+     * Called when the response body is read completely or closed.
+     * @param endpoint the path of the request URL
+     * @param statusCode HTTP status code
+     * @param latencyNanos the time from sending the request to receiving the response headers
+     * @param bytesSent the size of the request body
+     * @param bytesReceived the size of the response body which is read
+     */
+    void recordResponse(String endpoint, int statusCode, long latencyNanos, long bytesSent, long bytesReceived);
+
+    /**
+     * Called when no response is received because of I/O failure, timeout or cancellation.
+     * @param endpoint the path of the request URL
+     * @param latencyNanos the time until the failure
+     * @param cause the failure
+     */
+    void recordFailure(String endpoint, long latencyNanos, Throwable cause);
+
+    /**
+     * Called when the request is retried.
+     * @param endpoint the path of the request URL
+     */
+    void recordRetry(String endpoint);
+
+    /**
+     * Called when the request shares the response of the identical request in flight instead of sending its own.
+     * @param endpoint the path of the request URL
+     * @see SingleFlight
+     */
+    default void recordCoalesced(String endpoint) {
+    }
+
+    /**
+     * Called when the duplicate of the slow read-only request is sent to another node.
+     * @param endpoint the path of the request URL
+     * @see NodePool#setHedgingEnabled(boolean)
+     */
+    default void recordHedge(String endpoint) {
+    }
+
+    /**
+     * Called when the response of the duplicate request is taken instead of the original one.
+     * @param endpoint the path of the request URL
+     */
+    default void recordHedgeWon(String endpoint) {
+    }
+}
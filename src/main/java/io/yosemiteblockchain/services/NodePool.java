@@ -0,0 +1,798 @@
+package io.yosemiteblockchain.services;
+
+import com.google.gson.Gson;
+import io.yosemiteblockchain.data.remote.chain.Info;
+import io.yosemiteblockchain.util.Utils;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes the chain API requests of a client to several Yosemite nodes.
+ * <p>
+ * The health of each node is checked by get_info in the background. The node is unhealthy if get_info fails or
+ * its head block is behind the highest head block of the nodes by more than the max head block lag.
+ * The latency of each node is the exponentially weighted moving average of the latencies of get_info and the requests.
+ * <p>
+ * The {@link ReadOnly} requests are sent to the healthy node of the lowest latency. If the node fails to respond,
+ * it's marked as unhealthy until the next health check and the request is sent to the next node.
+ * The other requests like push_transaction are never sent again; they're sent to the pinned node, which is the node
+ * set by {@link #setPushNodeUrl(String)} or the node chosen at the first push until it becomes unhealthy,
+ * or broadcast to all the healthy nodes in the {@link PushMode#BROADCAST} mode.
+ * <p>
+ * If hedging is enabled and the read-only request is not responded within the hedge delay, the duplicate request is
+ * sent to the second best node and the first response is taken; the other request is cancelled.
+ * The hedge delay is the percentile of the recent latencies of the endpoint, so about (100 - percentile)% of the requests
+ * are hedged. Hedging is recorded by {@link MetricsRecorder#recordHedge(String)} and {@link MetricsRecorder#recordHedgeWon(String)}.
+ * Both requests are cancelled when the call of the client is cancelled, and the wait for the hedged request is bounded
+ * by the timeouts of the client.
+ * <p>
+ * The nodes differ only in the scheme, the host and the port; the path of the request is not changed.
+ * The health check is started at the first request and stopped by {@link YosemiteApiRestClient#close()}.
+ */
+public class NodePool {
+
+    private final static Logger logger = LoggerFactory.getLogger(NodePool.class);
+
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = 5000;
+    public static final long DEFAULT_MAX_HEAD_BLOCK_LAG = 10;
+    public static final double DEFAULT_HEDGE_DELAY_PERCENTILE = 95;
+    public static final long DEFAULT_MIN_HEDGE_DELAY_MILLIS = 10;
+
+    // the number of the recent latencies of each endpoint to get the hedge delay from
+    private static final int LATENCY_WINDOW_SIZE = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private static final double EWMA_ALPHA = 0.3;
+    private static final String GET_INFO_PATH = "/v1/chain/get_info";
+    private static final long CANCELLATION_CHECK_INTERVAL_MILLIS = 20;
+
+    public enum PushMode {
+        /** push to the pinned node only */
+        PINNED,
+        /** push to all the healthy nodes and take the response of the pinned node */
+        BROADCAST
+    }
+
+    private final List<Node> nodes;
+    private final OkHttpClient okHttpClient;
+    // shares the connection pool and the dispatcher without the interceptors, for the hedged requests
+    private final OkHttpClient directClient;
+    private final MetricsRecorder metricsRecorder;
+    private final HttpClientOptions httpClientOptions;
+    private final ConcurrentMap<String, LatencyWindow> readLatencies = new ConcurrentHashMap<>();
+    private final Gson gson = Utils.createYosemiteJGson();
+
+    private volatile long healthCheckIntervalMillis = DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS;
+    private volatile long maxHeadBlockLag = DEFAULT_MAX_HEAD_BLOCK_LAG;
+    private volatile PushMode pushMode = PushMode.PINNED;
+    private volatile Node fixedPushNode;
+    private volatile Node pinnedPushNode;
+    private volatile boolean hedgingEnabled = false;
+    private volatile double hedgeDelayPercentile = DEFAULT_HEDGE_DELAY_PERCENTILE;
+    private volatile long minHedgeDelayMillis = DEFAULT_MIN_HEDGE_DELAY_MILLIS;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledHealthCheck;
+    // incremented whenever the health check is (re)started or stopped, so a stale check doesn't schedule the next one
+    private int healthCheckGeneration;
+    private volatile boolean closed;
+
+    NodePool(List<String> nodeUrls, HttpClientOptions httpClientOptions) {
+        if (nodeUrls == null || nodeUrls.isEmpty()) throw new IllegalArgumentException("empty nodeUrls");
+        List<Node> nodeList = new ArrayList<>();
+        for (String nodeUrl : nodeUrls) {
+            HttpUrl url = HttpUrl.parse(nodeUrl);
+            if (url == null) throw new IllegalArgumentException("invalid node URL : " + nodeUrl);
+            nodeList.add(new Node(url));
+        }
+        nodes = Collections.unmodifiableList(nodeList);
+        okHttpClient = ApiServiceExecutor.acquireApiServiceComponent(httpClientOptions).okHttpClient();
+        OkHttpClient.Builder directClientBuilder = okHttpClient.newBuilder();
+        directClientBuilder.interceptors().clear();
+        directClient = directClientBuilder.build();
+        metricsRecorder = httpClientOptions.getMetricsRecorder();
+        this.httpClientOptions = httpClientOptions;
+    }
+
+    public List<String> getNodeUrls() {
+        List<String> urls = new ArrayList<>();
+        for (Node node : nodes) {
+            urls.add(node.url.toString());
+        }
+        return urls;
+    }
+
+    /**
+     * @return the current status of each node in the order of the node URLs
+     */
+    public List<NodeStatus> getNodeStatuses() {
+        List<NodeStatus> statuses = new ArrayList<>();
+        for (Node node : nodes) {
+            statuses.add(new NodeStatus(node));
+        }
+        return statuses;
+    }
+
+    public long getHealthCheckIntervalMillis() {
+        return healthCheckIntervalMillis;
+    }
+
+    public synchronized void setHealthCheckIntervalMillis(long healthCheckIntervalMillis) {
+        if (healthCheckIntervalMillis <= 0) {
+            throw new IllegalArgumentException("healthCheckIntervalMillis must be positive");
+        }
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        if (scheduledHealthCheck != null) {
+            scheduledHealthCheck.cancel(false);
+            scheduledHealthCheck = null;
+            startHealthCheck();
+        }
+    }
+
+    public long getMaxHeadBlockLag() {
+        return maxHeadBlockLag;
+    }
+
+    /**
+     * @param maxHeadBlockLag the maximum number of blocks the head block of the healthy node can be behind
+     */
+    public void setMaxHeadBlockLag(long maxHeadBlockLag) {
+        this.maxHeadBlockLag = maxHeadBlockLag;
+    }
+
+    public PushMode getPushMode() {
+        return pushMode;
+    }
+
+    public void setPushMode(PushMode pushMode) {
+        this.pushMode = pushMode;
+    }
+
+    /**
+     * Pin the pushes to the node.
+     * @param nodeUrl one of the node URLs; null to pin the pushes to the node chosen at the first push
+     */
+    public void setPushNodeUrl(String nodeUrl) {
+        if (nodeUrl == null) {
+            fixedPushNode = null;
+            return;
+        }
+        HttpUrl url = HttpUrl.parse(nodeUrl);
+        for (Node node : nodes) {
+            if (node.url.equals(url)) {
+                fixedPushNode = node;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("unknown node URL : " + nodeUrl);
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    /**
+     * @param hedgingEnabled true to send the duplicate of the slow read-only request to the second best node
+     */
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    public double getHedgeDelayPercentile() {
+        return hedgeDelayPercentile;
+    }
+
+    /**
+     * @param hedgeDelayPercentile the percentile of the recent latencies of the endpoint to wait before hedging, between 0 and 100
+     */
+    public void setHedgeDelayPercentile(double hedgeDelayPercentile) {
+        if (hedgeDelayPercentile <= 0 || hedgeDelayPercentile > 100) {
+            throw new IllegalArgumentException("hedgeDelayPercentile must be in (0, 100]");
+        }
+        this.hedgeDelayPercentile = hedgeDelayPercentile;
+    }
+
+    public long getMinHedgeDelayMillis() {
+        return minHedgeDelayMillis;
+    }
+
+    /**
+     * @param minHedgeDelayMillis the minimum time to wait before hedging
+     */
+    public void setMinHedgeDelayMillis(long minHedgeDelayMillis) {
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+    }
+
+    /**
+     * Check the health of all the nodes now.
+     * @return CompletableFuture instance which is completed when all the nodes are checked
+     */
+    public CompletableFuture<Void> checkHealth() {
+        List<CompletableFuture<Long>> headBlockNums = new ArrayList<>();
+        for (Node node : nodes) {
+            headBlockNums.add(checkHealth(node));
+        }
+
+        return CompletableFuture.allOf(headBlockNums.toArray(new CompletableFuture<?>[0])).handle((result, throwable) -> {
+            long highest = -1;
+            for (CompletableFuture<Long> headBlockNum : headBlockNums) {
+                if (!headBlockNum.isCompletedExceptionally()) {
+                    highest = Math.max(highest, headBlockNum.join());
+                }
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                Node node = nodes.get(i);
+                if (!headBlockNums.get(i).isCompletedExceptionally()) {
+                    node.headBlockLag = highest - node.headBlockNum;
+                    node.healthy = node.headBlockLag <= maxHeadBlockLag;
+                }
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<Long> checkHealth(Node node) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        Request request = new Request.Builder().url(node.url.resolve(GET_INFO_PATH)).build();
+        long start = System.nanoTime();
+        okHttpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        throw new IOException("get_info failed : " + response.code());
+                    }
+                    Info info = gson.fromJson(body.charStream(), Info.class);
+                    node.recordLatency(System.nanoTime() - start);
+                    node.headBlockNum = info.getHeadBlockNum();
+                    result.complete(node.headBlockNum);
+                } catch (Exception e) {
+                    onFailure(call, e instanceof IOException ? (IOException) e : new IOException(e));
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                logger.debug("health check of {} failed", node.url, e);
+                node.healthy = false;
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "yosemitej-node-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private synchronized void startHealthCheck() {
+        if (closed || scheduledHealthCheck != null) {
+            return;
+        }
+        scheduleHealthCheck(++healthCheckGeneration, 0);
+    }
+
+    /**
+     * The next check is scheduled when the previous one completes instead of waiting for it,
+     * since the scheduler thread also fires the hedges.
+     */
+    private synchronized void scheduleHealthCheck(int generation, long delayMillis) {
+        if (closed || generation != healthCheckGeneration) {
+            return;
+        }
+        scheduledHealthCheck = getScheduler().schedule(() -> {
+            CompletableFuture<Void> healthCheck;
+            try {
+                healthCheck = checkHealth();
+            } catch (RuntimeException e) {
+                healthCheck = new CompletableFuture<>();
+                healthCheck.completeExceptionally(e);
+            }
+            healthCheck.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    logger.debug("health check failed", throwable);
+                }
+                scheduleHealthCheck(generation, healthCheckIntervalMillis);
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the background health check.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            scheduledHealthCheck = null;
+            healthCheckGeneration++;
+        }
+    }
+
+    /**
+     * Stop the background health check for good; it's not started again. Called when the client is closed.
+     * The HTTP engine is released as well.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        shutdown();
+        ApiServiceExecutor.releaseApiServiceComponent(httpClientOptions);
+    }
+
+    HttpUrl getBaseUrl() {
+        return nodes.get(0).url;
+    }
+
+    Interceptor getInterceptor() {
+        return new RoutingInterceptor();
+    }
+
+    /**
+     * @return the healthy nodes and then the unhealthy nodes, each in the order of the latency;
+     * the nodes of which latency is unknown come last in the order of the node URLs
+     */
+    private List<Node> getNodesByPreference() {
+        List<Node> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparing((Node node) -> !node.healthy)
+                .thenComparingDouble(node -> Double.isNaN(node.latencyNanos) ? Double.MAX_VALUE : node.latencyNanos));
+        return sorted;
+    }
+
+    private Node getPushNode() {
+        Node fixed = fixedPushNode;
+        if (fixed != null) {
+            return fixed;
+        }
+        Node pinned = pinnedPushNode;
+        if (pinned == null || !pinned.healthy) {
+            pinned = getNodesByPreference().get(0);
+            pinnedPushNode = pinned;
+        }
+        return pinned;
+    }
+
+    /**
+     * @return the time to wait before hedging the request of the endpoint; -1 if there are not enough latencies yet
+     */
+    private long getHedgeDelayMillis(String endpoint) {
+        LatencyWindow window = readLatencies.get(endpoint);
+        if (window == null) {
+            return -1;
+        }
+        long percentileNanos = window.getPercentileNanos(hedgeDelayPercentile);
+        return percentileNanos < 0 ? -1 : Math.max(minHedgeDelayMillis, TimeUnit.NANOSECONDS.toMillis(percentileNanos));
+    }
+
+    private void recordReadLatency(String endpoint, long nanos) {
+        readLatencies.computeIfAbsent(endpoint, e -> new LatencyWindow()).add(nanos);
+    }
+
+    private static final class LatencyWindow {
+        private final long[] latencies = new long[LATENCY_WINDOW_SIZE];
+        private int count;
+        private int next;
+
+        synchronized void add(long nanos) {
+            latencies[next] = nanos;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+        }
+
+        synchronized long getPercentileNanos(double percentile) {
+            if (count < MIN_LATENCY_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(count * percentile / 100.0);
+            return sorted[Math.max(0, Math.min(count, rank) - 1)];
+        }
+    }
+
+    private static final class Node {
+        final HttpUrl url;
+        volatile boolean healthy = true;
+        volatile double latencyNanos = Double.NaN;
+        volatile long headBlockNum = -1;
+        volatile long headBlockLag;
+
+        Node(HttpUrl url) {
+            this.url = url;
+        }
+
+        synchronized void recordLatency(long nanos) {
+            latencyNanos = Double.isNaN(latencyNanos) ? nanos : EWMA_ALPHA * nanos + (1 - EWMA_ALPHA) * latencyNanos;
+        }
+    }
+
+    /**
+     * The snapshot of the status of a node.
+     */
+    public static final class NodeStatus {
+        private final String url;
+        private final boolean healthy;
+        private final double latencyMillis;
+        private final long headBlockNum;
+        private final long headBlockLag;
+
+        private NodeStatus(Node node) {
+            url = node.url.toString();
+            healthy = node.healthy;
+            latencyMillis = node.latencyNanos / 1e6;
+            headBlockNum = node.headBlockNum;
+            headBlockLag = node.headBlockLag;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * @return the moving average of the latency; NaN if unknown
+         */
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * @return the head block number at the last health check; -1 if unknown
+         */
+        public long getHeadBlockNum() {
+            return headBlockNum;
+        }
+
+        /**
+         * @return the number of blocks the head block was behind the highest head block at the last health check
+         */
+        public long getHeadBlockLag() {
+            return headBlockLag;
+        }
+
+        @Override
+        public String toString() {
+            return url + (healthy ? " healthy" : " unhealthy") + ", latency " + latencyMillis + "ms, head block "
+                    + headBlockNum + " (lag " + headBlockLag + ")";
+        }
+    }
+
+    private final class RoutingInterceptor implements Interceptor {
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            startHealthCheck();
+
+            Request request = chain.request();
+            if (isReadOnly(request)) {
+                return hedgingEnabled ? proceedWithHedging(chain, request) : proceedWithFailover(chain, request);
+            }
+            if (pushMode == PushMode.BROADCAST) {
+                return broadcast(chain, request);
+            }
+            return proceed(chain, request, getPushNode());
+        }
+
+        private Response proceed(Chain chain, Request request, Node node) throws IOException {
+            long start = System.nanoTime();
+            try {
+                Response response = chain.proceed(rewrite(request, node));
+                node.recordLatency(System.nanoTime() - start);
+                return response;
+            } catch (IOException e) {
+                if (!chain.call().isCanceled()) {
+                    logger.debug("request to {} failed", node.url, e);
+                    node.healthy = false;
+                }
+                throw e;
+            }
+        }
+
+        private Response proceedWithFailover(Chain chain, Request request) throws IOException {
+            List<Node> candidates = getNodesByPreference();
+            IOException failure = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                Node node = candidates.get(i);
+                if (i > 0) {
+                    metricsRecorder.recordRetry(request.url().encodedPath());
+                }
+                try {
+                    long start = System.nanoTime();
+                    Response response = proceed(chain, request, node);
+                    recordReadLatency(request.url().encodedPath(), System.nanoTime() - start);
+                    if (isUnavailable(response.code()) && i < candidates.size() - 1) {
+                        node.healthy = false;
+                        response.close();
+                        continue;
+                    }
+                    return response;
+                } catch (IOException e) {
+                    if (chain.call().isCanceled()) {
+                        throw e;
+                    }
+                    failure = e;
+                }
+            }
+            throw failure;
+        }
+
+        private Response proceedWithHedging(Chain chain, Request request) throws IOException {
+            String endpoint = request.url().encodedPath();
+            List<Node> candidates = getNodesByPreference();
+            long delayMillis = getHedgeDelayMillis(endpoint);
+            // the scheduler is not started again once the pool is closed
+            if (closed || delayMillis < 0 || candidates.size() < 2 || !candidates.get(1).healthy) {
+                return proceedWithFailover(chain, request);
+            }
+
+            Node primaryNode = candidates.get(0);
+            Node hedgeNode = candidates.get(1);
+            Call primaryCall = directClient.newCall(rewrite(request, primaryNode));
+            CompletableFuture<Response> hedgeResponse = new CompletableFuture<>();
+            AtomicReference<Call> hedgeCall = new AtomicReference<>();
+            // set by the first successful response, or when the request is given up
+            AtomicBoolean decided = new AtomicBoolean();
+
+            ScheduledFuture<?> hedgeTimer = getScheduler().schedule(() -> {
+                if (decided.get() || chain.call().isCanceled()) {
+                    hedgeResponse.completeExceptionally(new IOException("Canceled"));
+                    return;
+                }
+                metricsRecorder.recordHedge(endpoint);
+                Call call = directClient.newCall(rewrite(request, hedgeNode));
+                hedgeCall.set(call);
+                long start = System.nanoTime();
+                call.enqueue(new Callback() {
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        hedgeNode.recordLatency(System.nanoTime() - start);
+                        if (!isUnavailable(response.code()) && decided.compareAndSet(false, true)) {
+                            hedgeResponse.complete(response);
+                            primaryCall.cancel();
+                        } else {
+                            response.close();
+                            hedgeResponse.completeExceptionally(new IOException("hedged request lost : " + response.code()));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        if (!call.isCanceled()) {
+                            hedgeNode.healthy = false;
+                        }
+                        hedgeResponse.completeExceptionally(e);
+                    }
+                });
+                // decided or cancelled while the hedged request was being sent
+                if (decided.get() || chain.call().isCanceled()) {
+                    call.cancel();
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+
+            // the calls are not part of the chain, so they're cancelled with the call of the chain by watching it
+            ScheduledFuture<?> cancellationWatcher = getScheduler().scheduleWithFixedDelay(() -> {
+                if (chain.call().isCanceled()) {
+                    primaryCall.cancel();
+                    cancelHedge(hedgeTimer, hedgeCall);
+                }
+            }, CANCELLATION_CHECK_INTERVAL_MILLIS, CANCELLATION_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            try {
+                IOException failure = null;
+                long start = System.nanoTime();
+                try {
+                    Response response = primaryCall.execute();
+                    primaryNode.recordLatency(System.nanoTime() - start);
+                    recordReadLatency(endpoint, System.nanoTime() - start);
+                    if (!isUnavailable(response.code()) && decided.compareAndSet(false, true)) {
+                        cancelHedge(hedgeTimer, hedgeCall);
+                        return response;
+                    }
+                    if (isUnavailable(response.code())) {
+                        primaryNode.healthy = false;
+                    }
+                    response.close();
+                } catch (IOException e) {
+                    if (chain.call().isCanceled()) {
+                        cancelHedge(hedgeTimer, hedgeCall);
+                        throw e;
+                    }
+                    if (!decided.get()) {
+                        // failed by itself, not cancelled by the hedged request
+                        primaryNode.healthy = false;
+                        failure = e;
+                    }
+                }
+
+                if (!decided.get() && hedgeTimer.cancel(false)) {
+                    // the hedged request was not sent
+                    return proceedWithFailover(chain, request);
+                }
+                return awaitHedge(chain, endpoint, hedgeResponse, hedgeCall, decided, failure);
+            } finally {
+                cancellationWatcher.cancel(false);
+            }
+        }
+
+        /**
+         * Wait for the hedged request on the thread of the chain. The wait is bounded by the timeouts of the chain,
+         * since the hedged request may be queued behind the calls waiting for it in the same dispatcher.
+         */
+        private Response awaitHedge(Chain chain, String endpoint, CompletableFuture<Response> hedgeResponse,
+                                    AtomicReference<Call> hedgeCall, AtomicBoolean decided, IOException failure)
+                throws IOException {
+            long timeoutMillis = chain.connectTimeoutMillis() + chain.readTimeoutMillis() + chain.writeTimeoutMillis();
+            try {
+                Response response = timeoutMillis > 0
+                        ? hedgeResponse.get(timeoutMillis, TimeUnit.MILLISECONDS) : hedgeResponse.get();
+                metricsRecorder.recordHedgeWon(endpoint);
+                return response;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                giveUpHedge(hedgeResponse, hedgeCall, decided);
+                throw new InterruptedIOException();
+            } catch (TimeoutException e) {
+                Response response = giveUpHedge(hedgeResponse, hedgeCall, decided);
+                if (response != null) {
+                    metricsRecorder.recordHedgeWon(endpoint);
+                    return response;
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                throw new InterruptedIOException("hedged request timeout");
+            } catch (ExecutionException e) {
+                if (failure != null) {
+                    throw failure;
+                }
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * @return the response of the hedged request if it has won just before it's given up
+         */
+        private Response giveUpHedge(CompletableFuture<Response> hedgeResponse, AtomicReference<Call> hedgeCall,
+                                     AtomicBoolean decided) {
+            if (!decided.compareAndSet(false, true)) {
+                // completed right after it won
+                return hedgeResponse.join();
+            }
+            Call call = hedgeCall.get();
+            if (call != null) {
+                call.cancel();
+            }
+            return null;
+        }
+
+        private void cancelHedge(ScheduledFuture<?> hedgeTimer, AtomicReference<Call> hedgeCall) {
+            hedgeTimer.cancel(false);
+            // the timer task cancels the call by itself if it's set after this
+            Call call = hedgeCall.get();
+            if (call != null) {
+                call.cancel();
+            }
+        }
+
+        private Response broadcast(Chain chain, Request request) throws IOException {
+            Node primary = getPushNode();
+            List<CompletableFuture<Response>> others = new ArrayList<>();
+            for (Node node : nodes) {
+                if (node != primary && node.healthy) {
+                    others.add(send(rewrite(request, node)));
+                }
+            }
+
+            try {
+                Response response = proceed(chain, request, primary);
+                closeAll(others, null);
+                return response;
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    closeAll(others, null);
+                    throw e;
+                }
+                // the transaction may have been accepted by the other nodes
+                for (CompletableFuture<Response> other : others) {
+                    try {
+                        Response response = other.get();
+                        if (response.isSuccessful()) {
+                            closeAll(others, response);
+                            return response;
+                        }
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (ExecutionException ee) {
+                        logger.debug("broadcast failed", ee.getCause());
+                    }
+                }
+                closeAll(others, null);
+                throw e;
+            }
+        }
+
+        private CompletableFuture<Response> send(Request request) {
+            CompletableFuture<Response> result = new CompletableFuture<>();
+            okHttpClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    result.complete(response);
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        }
+
+        private void closeAll(List<CompletableFuture<Response>> responses, Response except) {
+            for (CompletableFuture<Response> response : responses) {
+                response.thenAccept(r -> {
+                    if (r != except) {
+                        r.close();
+                    }
+                });
+            }
+        }
+    }
+
+    private static Request rewrite(Request request, Node node) {
+        HttpUrl url = request.url().newBuilder()
+                .scheme(node.url.scheme())
+                .host(node.url.host())
+                .port(node.url.port())
+                .build();
+        return request.newBuilder().url(url).build();
+    }
+
+    private static boolean isReadOnly(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(ReadOnly.class);
+    }
+
+    private static boolean isUnavailable(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+}
@@ -0,0 +1,444 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.TableRowPage;
+import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
+import io.yosemiteblockchain.data.types.TypeName;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans the table by splitting the uint64 key range into partitions which are paged concurrently.
+ * <p>
+ * The key range between the lower bound and the upper bound is split evenly into the initial partitions, and at most
+ * the parallelism number of pages are requested at a time. Since the keys are rarely distributed evenly (e.g. the names
+ * converted by {@link TypeName#stringToName(String)}), the split points adapt to the received rows: whenever a request
+ * slot is free and no partition is waiting, the partition expected to have the most pages left is split two pages ahead
+ * of its cursor, measured by the key range of its last full page, and its upper part is scanned concurrently.
+ * <p>
+ * The rows are merged in the key order by default. In the ordered mode the rows of the later partitions are buffered
+ * until all the preceding partitions are finished; the unordered mode emits the rows as soon as they are received.
+ * New pages are not requested while the received rows which are not consumed exceed the max buffered rows,
+ * except for the first partition in the ordered mode.
+ * <p>
+ * The key extractor must return the unique uint64 key of the row in the scanned index.
+ * @param <T> the type of the row
+ */
+public class ParallelTableScanner<T> implements Iterable<T> {
+
+    public static final int DEFAULT_PARTITIONS = 8;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final BigInteger KEY_SPACE_END = BigInteger.ONE.shiftLeft(64);
+    private static final int SPLIT_AHEAD_PAGES = 2;
+
+    private final YosemiteApiRestClient mYosemiteApiRestClient;
+    private final String contract;
+    private final String scope;
+    private final String table;
+    private final Class<T> rowType;
+    private final ToLongFunction<? super T> keyExtractor;
+
+    private int pageSize = TableScanner.DEFAULT_PAGE_SIZE;
+    private int partitions = DEFAULT_PARTITIONS;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int maxBufferedRows;
+    private boolean ordered = true;
+    private BigInteger lowerKey = BigInteger.ZERO;
+    private BigInteger upperKey = KEY_SPACE_END;
+    private String indexPosition;
+    private String keyType;
+
+    /**
+     * @param contract the name of the smart contract
+     * @param scope the scope within the contract in which the table is found
+     * @param table the name of the table as specified by the contract abi
+     * @param rowType the class of the row
+     * @param keyExtractor the function to get the unique uint64 key of the row in the scanned index
+     */
+    public ParallelTableScanner(YosemiteApiRestClient yosemiteApiRestClient, String contract, String scope, String table,
+                                Class<T> rowType, ToLongFunction<? super T> keyExtractor) {
+        mYosemiteApiRestClient = yosemiteApiRestClient;
+        this.contract = contract;
+        this.scope = scope;
+        this.table = table;
+        this.rowType = rowType;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.pageSize = pageSize;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @param partitions the number of the partitions the key range is initially split into
+     */
+    public void setPartitions(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        this.partitions = partitions;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism the maximum number of the concurrent page requests
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the maximum number of the received rows not consumed yet; defaults to twice the rows of all the concurrent pages
+     */
+    public int getMaxBufferedRows() {
+        return maxBufferedRows > 0 ? maxBufferedRows : 2 * parallelism * pageSize;
+    }
+
+    public void setMaxBufferedRows(int maxBufferedRows) {
+        this.maxBufferedRows = maxBufferedRows;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @param ordered true to merge the rows in the key order, false to emit the rows as soon as they are received
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * @param lowerBound the lower bound of the key, inclusive; the number or the name
+     */
+    public void setLowerBound(String lowerBound) {
+        this.lowerKey = lowerBound == null ? BigInteger.ZERO : parseKey(lowerBound);
+    }
+
+    /**
+     * @param upperBound the upper bound of the key, exclusive; the number or the name
+     */
+    public void setUpperBound(String upperBound) {
+        this.upperKey = upperBound == null ? KEY_SPACE_END : parseKey(upperBound);
+    }
+
+    public void setIndexPosition(String indexPosition) {
+        this.indexPosition = indexPosition;
+    }
+
+    public void setKeyType(String keyType) {
+        this.keyType = keyType;
+    }
+
+    /**
+     * Start a new scan. The iterator blocks only if no received row is left.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Scan();
+    }
+
+    /**
+     * Start a new scan as a sequential stream. Closing the stream cancels the pages in flight.
+     */
+    public Stream<T> stream() {
+        Scan scan = new Scan();
+        int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scan, characteristics), false)
+                .onClose(scan::cancel);
+    }
+
+    private static BigInteger parseKey(String key) {
+        if (!key.isEmpty() && key.chars().allMatch(Character::isDigit)) {
+            return new BigInteger(key);
+        }
+        return toUnsigned(TypeName.stringToName(key));
+    }
+
+    private static BigInteger toUnsigned(long key) {
+        BigInteger value = BigInteger.valueOf(key);
+        return key >= 0 ? value : value.add(KEY_SPACE_END);
+    }
+
+    private final class Partition {
+        BigInteger cursor;
+        BigInteger upper;
+        boolean inFlight;
+        boolean done;
+        // the key range covered by the last full page; null until a full page is received
+        BigInteger pageSpan;
+        CompletableFuture<TableRowPage<T>> request;
+        final ArrayDeque<T> rows = new ArrayDeque<>();
+
+        Partition(BigInteger cursor, BigInteger upper) {
+            this.cursor = cursor;
+            this.upper = upper;
+        }
+
+        BigInteger remaining() {
+            return upper.subtract(cursor);
+        }
+    }
+
+    /**
+     * The state of a scan. All the fields are guarded by the scan itself.
+     */
+    private final class Scan implements Iterator<T> {
+
+        // ordered by the key range; the finished partitions stay until their rows are merged in the ordered mode
+        private final List<Partition> partitionList = new ArrayList<>();
+        private final ArrayDeque<T> output = new ArrayDeque<>();
+        private final int maxBuffered = getMaxBufferedRows();
+        private int inFlight;
+        private int buffered;
+        private Throwable failure;
+        private boolean cancelled;
+
+        Scan() {
+            BigInteger span = upperKey.subtract(lowerKey);
+            if (span.signum() > 0) {
+                BigInteger count = BigInteger.valueOf(partitions).min(span);
+                BigInteger start = lowerKey;
+                for (int i = 1; i <= count.intValue(); i++) {
+                    BigInteger end = lowerKey.add(span.multiply(BigInteger.valueOf(i)).divide(count));
+                    partitionList.add(new Partition(start, end));
+                    start = end;
+                }
+            }
+            startRequests(dispatch());
+        }
+
+        @Override
+        public boolean hasNext() {
+            synchronized (this) {
+                while (output.isEmpty()) {
+                    if (failure != null) {
+                        throw failure instanceof RuntimeException
+                                ? (RuntimeException) failure : new YosemiteApiException(failure);
+                    }
+                    if (cancelled || (partitionList.isEmpty() && inFlight == 0)) {
+                        return false;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancel();
+                        throw new YosemiteApiException(e);
+                    }
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row;
+            List<Partition> toStart;
+            synchronized (this) {
+                row = output.poll();
+                buffered--;
+                toStart = dispatch();
+            }
+            startRequests(toStart);
+            return row;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            cancelRequests();
+            output.clear();
+            notifyAll();
+        }
+
+        /**
+         * Select the partitions to request the next page of, splitting a partition if a request slot is left.
+         */
+        private synchronized List<Partition> dispatch() {
+            List<Partition> toStart = new ArrayList<>();
+            while (inFlight < parallelism && !cancelled && failure == null) {
+                boolean full = buffered >= maxBuffered;
+                Partition partition = findIdle(full);
+                if (partition == null && !full) {
+                    partition = split();
+                }
+                if (partition == null) {
+                    break;
+                }
+                partition.inFlight = true;
+                inFlight++;
+                toStart.add(partition);
+            }
+            return toStart;
+        }
+
+        private Partition findIdle(boolean full) {
+            for (Partition partition : partitionList) {
+                if (!partition.done && !partition.inFlight) {
+                    return partition;
+                }
+                if (full) {
+                    // only the first partition may proceed, otherwise the ordered merge could never drain the buffer
+                    break;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Split the partition expected to have the most pages left, a few pages ahead of its cursor measured by the key
+         * range of its last full page. Only the partitions which have received a full page are split, since the keys
+         * are usually clustered and a blind split would mostly produce empty partitions.
+         */
+        private Partition split() {
+            Partition target = null;
+            BigInteger targetPages = BigInteger.ONE;
+            for (Partition partition : partitionList) {
+                if (partition.done || partition.pageSpan == null) {
+                    continue;
+                }
+                BigInteger pages = partition.remaining().divide(partition.pageSpan);
+                if (pages.compareTo(targetPages) > 0) {
+                    target = partition;
+                    targetPages = pages;
+                }
+            }
+            if (target == null) {
+                return null;
+            }
+
+            BigInteger offset = target.remaining().shiftRight(1)
+                    .min(target.pageSpan.multiply(BigInteger.valueOf(SPLIT_AHEAD_PAGES)));
+            BigInteger splitKey = target.cursor.add(offset);
+            Partition upperPart = new Partition(splitKey, target.upper);
+            target.upper = splitKey;
+            partitionList.add(partitionList.indexOf(target) + 1, upperPart);
+            return upperPart;
+        }
+
+        private void startRequests(List<Partition> toStart) {
+            for (Partition partition : toStart) {
+                GetTableOptions options = new GetTableOptions();
+                options.setLimit(pageSize);
+                options.setIndexPosition(indexPosition);
+                options.setKeyType(keyType);
+                synchronized (this) {
+                    options.setLowerBound(partition.cursor.toString());
+                    if (partition.upper.compareTo(KEY_SPACE_END) < 0) {
+                        options.setUpperBound(partition.upper.toString());
+                    }
+                }
+
+                CompletableFuture<TableRowPage<T>> request =
+                        mYosemiteApiRestClient.getTableRows(contract, scope, table, options, rowType).executeAsync();
+                synchronized (this) {
+                    partition.request = request;
+                }
+                request.whenComplete((page, throwable) -> startRequests(onPage(partition, page, throwable)));
+            }
+        }
+
+        private synchronized List<Partition> onPage(Partition partition, TableRowPage<T> page, Throwable throwable) {
+            partition.inFlight = false;
+            partition.request = null;
+            inFlight--;
+            if (cancelled || failure != null) {
+                notifyAll();
+                return new ArrayList<>();
+            }
+            if (throwable != null) {
+                failure = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                cancelRequests();
+                notifyAll();
+                return new ArrayList<>();
+            }
+
+            List<T> rows = page.getRows();
+            // the upper bound may have been lowered by a split while the page was requested
+            boolean reachedUpper = false;
+            BigInteger lastKey = null;
+            for (T row : rows) {
+                BigInteger key = toUnsigned(keyExtractor.applyAsLong(row));
+                if (key.compareTo(partition.upper) >= 0) {
+                    reachedUpper = true;
+                    break;
+                }
+                if (ordered) {
+                    partition.rows.add(row);
+                } else {
+                    output.add(row);
+                }
+                buffered++;
+                lastKey = key;
+            }
+
+            if (reachedUpper || !page.getMore() || lastKey == null) {
+                partition.done = true;
+            } else {
+                partition.pageSpan = lastKey.add(BigInteger.ONE).subtract(partition.cursor);
+                partition.cursor = lastKey.add(BigInteger.ONE);
+                partition.done = partition.cursor.compareTo(partition.upper) >= 0;
+            }
+
+            if (ordered) {
+                while (!partitionList.isEmpty()) {
+                    Partition first = partitionList.get(0);
+                    output.addAll(first.rows);
+                    first.rows.clear();
+                    if (!first.done) {
+                        break;
+                    }
+                    partitionList.remove(0);
+                }
+            } else if (partition.done) {
+                partitionList.remove(partition);
+            }
+
+            notifyAll();
+            return dispatch();
+        }
+
+        private void cancelRequests() {
+            for (Partition partition : partitionList) {
+                if (partition.request != null) {
+                    partition.request.cancel(true);
+                }
+            }
+        }
+    }
+}
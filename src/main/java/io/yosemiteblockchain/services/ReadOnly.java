@@ -0,0 +1,17 @@
+package io.yosemiteblockchain.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the endpoint of the API service which doesn't change the state of the chain, so its request is idempotent
+ * and can be sent again to another node, e.g. by the failover of {@link NodePool}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+}
@@ -1,5 +1,6 @@
 package io.yosemiteblockchain.services;
 
+import io.reactivex.Single;
 import retrofit2.Call;
 
 import java.util.concurrent.CompletableFuture;
@@ -42,4 +43,12 @@ public class Request<ResponseType> {
     public CompletableFuture<ResponseType> executeAsync(Object attachment, boolean isChainApi) {
         return apiServiceExecutor.executeAsync(call, attachment, isChainApi);
     }
+
+    /**
+     * @return the cold Single which executes the clone of this request asynchronously whenever it's subscribed;
+     *         disposing it cancels the request
+     */
+    public Single<ResponseType> toSingle() {
+        return RxYosemiteJ.fromFuture(() -> apiServiceExecutor.executeAsync(call.clone(), null, isChainApi));
+    }
 }
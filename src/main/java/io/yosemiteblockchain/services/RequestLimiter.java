@@ -0,0 +1,165 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.exception.YosemiteApiException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token bucket and the counter of the requests in flight for one {@link RequestLimits.Limit}.
+ * The waiters are granted in FIFO order; the ones waiting longer than the max wait time fail.
+ */
+final class RequestLimiter {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final String name;
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxInFlight;
+    private final long maxWaitNanos;
+
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private int inFlight;
+    private boolean drainScheduled;
+    private long scheduledDrainNanos;
+
+    RequestLimiter(String name, RequestLimits.Limit limit, long maxWaitMillis) {
+        this.name = name;
+        this.permitsPerNano = limit.getPermitsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = limit.getBurst();
+        this.maxInFlight = limit.getMaxInFlight();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.tokens = burst;
+    }
+
+    /**
+     * @return the future completed when the permit is granted, or completed exceptionally with
+     *         {@link YosemiteApiException} if the permit is not granted within the max wait time
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (waiters.isEmpty() && tryAcquire(now)) {
+                return GRANTED;
+            }
+            if (maxWaitNanos == 0) {
+                future.completeExceptionally(new YosemiteApiException("request limit exceeded : " + name));
+                return future;
+            }
+            waiters.add(new Waiter(future, now + maxWaitNanos));
+        }
+        drain();
+        return future;
+    }
+
+    void release() {
+        synchronized (this) {
+            inFlight--;
+            if (waiters.isEmpty()) {
+                return;
+            }
+        }
+        drain();
+    }
+
+    private boolean tryAcquire(long now) {
+        if (maxInFlight > 0 && inFlight >= maxInFlight) {
+            return false;
+        }
+        if (permitsPerNano > 0) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        inFlight++;
+        return true;
+    }
+
+    private void drain() {
+        List<Runnable> completions = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            Waiter waiter;
+            while ((waiter = waiters.peek()) != null) {
+                if (waiter.future.isDone()) {
+                    // cancelled by the caller
+                    waiters.poll();
+                } else if (tryAcquire(now)) {
+                    waiters.poll();
+                    CompletableFuture<Void> granted = waiter.future;
+                    completions.add(() -> {
+                        if (!granted.complete(null)) {
+                            release();
+                        }
+                    });
+                } else {
+                    break;
+                }
+            }
+
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+                Waiter expired = it.next();
+                if (expired.deadlineNanos - now > 0) {
+                    // the later waiters have the later deadlines
+                    break;
+                }
+                it.remove();
+                completions.add(() -> expired.future.completeExceptionally(
+                        new YosemiteApiException("request limit wait timed out : " + name)));
+            }
+
+            if (!waiters.isEmpty()) {
+                // drain again at the next deadline or when the next token is filled, whichever comes first
+                long delayNanos = waiters.peek().deadlineNanos - now;
+                if (permitsPerNano > 0 && (maxInFlight == 0 || inFlight < maxInFlight)) {
+                    delayNanos = Math.min(delayNanos, (long) Math.ceil((1 - tokens) / permitsPerNano));
+                }
+                long drainNanos = now + Math.max(0, delayNanos);
+                if (!drainScheduled || drainNanos - scheduledDrainNanos < 0) {
+                    drainScheduled = true;
+                    scheduledDrainNanos = drainNanos;
+                    Scheduler.INSTANCE.schedule(() -> {
+                        synchronized (this) {
+                            if (scheduledDrainNanos == drainNanos) {
+                                drainScheduled = false;
+                            }
+                        }
+                        drain();
+                    }, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    private static final class Waiter {
+        final CompletableFuture<Void> future;
+        final long deadlineNanos;
+
+        Waiter(CompletableFuture<Void> future, long deadlineNanos) {
+            this.future = future;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final class Scheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "yosemitej-request-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
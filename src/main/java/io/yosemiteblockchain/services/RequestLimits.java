@@ -0,0 +1,159 @@
+package io.yosemiteblockchain.services;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the client-side limits of the request rate and the requests in flight of each API(chain, wallet, history)
+ * and each endpoint e.g. /v1/chain/push_transaction.
+ * <p>
+ * The rate is limited by the token bucket; the bucket is filled at the permits per second up to the burst.
+ * The request takes the permits of its endpoint and then its API, and holds them until its response is handled.
+ * If the permit is not available, the request waits in the queue for the max wait time at most,
+ * or fails without waiting in the fail-fast mode(the max wait time is 0).
+ * The request failed by the limit throws {@link io.yosemiteblockchain.exception.YosemiteApiException}; it's not retried.
+ * The asynchronous requests wait without occupying any thread.
+ */
+public final class RequestLimits {
+
+    public enum ApiType {
+        CHAIN,
+        WALLET,
+        HISTORY
+    }
+
+    public static final RequestLimits NONE = RequestLimits.Builder().build();
+
+    private final Map<ApiType, Limit> apiLimits;
+    private final Map<String, Limit> endpointLimits;
+    private final long maxWaitMillis;
+
+    private RequestLimits(RequestLimitsBuilder builder) {
+        this.apiLimits = Collections.unmodifiableMap(new EnumMap<>(builder.apiLimits));
+        this.endpointLimits = Collections.unmodifiableMap(new HashMap<>(builder.endpointLimits));
+        this.maxWaitMillis = builder.maxWaitMillis;
+    }
+
+    public static RequestLimitsBuilder Builder() {
+        return new RequestLimitsBuilder();
+    }
+
+    /**
+     * @return the limit of the API; null if it's not limited
+     */
+    public Limit getApiLimit(ApiType apiType) {
+        return apiLimits.get(apiType);
+    }
+
+    /**
+     * @return the limits of the endpoints by the path
+     */
+    public Map<String, Limit> getEndpointLimits() {
+        return endpointLimits;
+    }
+
+    /**
+     * @return the maximum time to wait for the permit; 0 in the fail-fast mode
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * The limit of the request rate and the requests in flight. 0 means no limit.
+     */
+    public static final class Limit {
+        private final double permitsPerSecond;
+        private final int burst;
+        private final int maxInFlight;
+
+        Limit(double permitsPerSecond, int burst, int maxInFlight) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.maxInFlight = maxInFlight;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        @Override
+        public String toString() {
+            return "Limit{permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + ", maxInFlight=" + maxInFlight + '}';
+        }
+    }
+
+    /**
+     * Builder for the request limits.
+     */
+    public static class RequestLimitsBuilder {
+        private final Map<ApiType, Limit> apiLimits = new EnumMap<>(ApiType.class);
+        private final Map<String, Limit> endpointLimits = new HashMap<>();
+        private long maxWaitMillis = 5000;
+
+        private RequestLimitsBuilder() { }
+
+        public RequestLimits build() {
+            return new RequestLimits(this);
+        }
+
+        /**
+         * @param apiType chain, wallet or history
+         * @param permitsPerSecond the rate of the requests; 0 not to limit the rate
+         * @param burst the maximum number of the requests sent at once under the rate
+         * @param maxInFlight the maximum number of the requests in flight; 0 not to limit
+         */
+        public RequestLimitsBuilder setApiLimit(ApiType apiType, double permitsPerSecond, int burst, int maxInFlight) {
+            if (apiType == null) throw new IllegalArgumentException("apiType cannot be null.");
+            apiLimits.put(apiType, createLimit(permitsPerSecond, burst, maxInFlight));
+            return this;
+        }
+
+        /**
+         * @param endpoint the path of the request URL e.g. /v1/chain/push_transaction
+         * @param permitsPerSecond the rate of the requests; 0 not to limit the rate
+         * @param burst the maximum number of the requests sent at once under the rate
+         * @param maxInFlight the maximum number of the requests in flight; 0 not to limit
+         */
+        public RequestLimitsBuilder setEndpointLimit(String endpoint, double permitsPerSecond, int burst, int maxInFlight) {
+            if (endpoint == null) throw new IllegalArgumentException("endpoint cannot be null.");
+            endpointLimits.put(endpoint, createLimit(permitsPerSecond, burst, maxInFlight));
+            return this;
+        }
+
+        /**
+         * Wait for the permit in the queue for the max wait time at most.
+         * @param maxWaitMillis the maximum time to wait for the permit
+         */
+        public RequestLimitsBuilder setQueueing(long maxWaitMillis) {
+            if (maxWaitMillis <= 0) throw new IllegalArgumentException("maxWaitMillis must be positive.");
+            this.maxWaitMillis = maxWaitMillis;
+            return this;
+        }
+
+        /**
+         * Fail the request immediately if the permit is not available.
+         */
+        public RequestLimitsBuilder setFailFast() {
+            this.maxWaitMillis = 0;
+            return this;
+        }
+
+        private static Limit createLimit(double permitsPerSecond, int burst, int maxInFlight) {
+            if (permitsPerSecond < 0) throw new IllegalArgumentException("permitsPerSecond must not be negative.");
+            if (permitsPerSecond > 0 && burst < 1) throw new IllegalArgumentException("burst must be positive.");
+            if (maxInFlight < 0) throw new IllegalArgumentException("maxInFlight must not be negative.");
+            return new Limit(permitsPerSecond, burst, maxInFlight);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.exception.YosemiteApiErrorCode;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether the failed request is sent again and how long to wait before it.
+ * <p>
+ * The failure is transient if no response is received (connection reset, timeout), the HTTP status is
+ * 408, 429, 502, 503 or 504, or the node rejects the request with one of the retryable {@link YosemiteApiErrorCode}s
+ * such as the exhausted resources of the current block. The other failures are permanent and never retried.
+ * <ul>
+ * <li>The {@link ReadOnly} requests are retried on any transient failure.</li>
+ * <li>push_transaction is retried if the node rejected the transaction with the retryable error code or refused it
+ * by 429/503, so the transaction is known not to be included. If the outcome is unknown(no response, 502, 504),
+ * it's retried only if the ambiguous pushes are retried, which is off by default. The same signed transaction is
+ * sent again, and if the node rejects it as {@link YosemiteApiErrorCode#DUPLICATE_TRANSACTION} because the earlier
+ * attempt was accepted, the push succeeds with the {@link io.yosemiteblockchain.data.remote.chain.PushedTransaction}
+ * of the known transaction id and no trace.</li>
+ * <li>The other requests like the keyos requests are retried only if the server refused them by 429/503.</li>
+ * </ul>
+ * The delay before the n-th retry is between half and all of min(maxBackoff, initialBackoff * multiplier^(n-1)) at random.
+ * <p>
+ * The retries are limited by the retry budget of each service, which works like the retry throttling of gRPC:
+ * each failure takes a token and each success gives back the token ratio of a token, and the request is not retried
+ * while the tokens are not more than half of the max tokens.
+ * <p>
+ * Each endpoint has the circuit breaker; it's opened by the consecutive transient failures of the threshold,
+ * and the requests fail fast without being sent while it's open. After the open duration, one request is sent
+ * to probe the node; the breaker is closed if it succeeds or opened again if it fails.
+ */
+public final class RetryPolicy {
+
+    private static final Set<YosemiteApiErrorCode> DEFAULT_RETRYABLE_ERROR_CODES = Collections.unmodifiableSet(EnumSet.of(
+            YosemiteApiErrorCode.TIMEOUT_EXCEPTION,
+            YosemiteApiErrorCode.BLOCK_EXHAUSTED_ALLOWED_RESOURCES,
+            YosemiteApiErrorCode.TRANSACTION_NETWORK_USAGE_IS_TOO_MUCH_FOR_THE_REMAINING_ALLOWABLE_USAGE_OF_THE_CURRENT_BLOCK,
+            YosemiteApiErrorCode.TRANSACTION_CPU_USAGE_IS_TOO_MUCH_FOR_THE_REMAINING_ALLOWABLE_USAGE_OF_THE_CURRENT_BLOCK,
+            YosemiteApiErrorCode.TRANSACTION_REACHED_THE_DEADLINE_SET_DUE_TO_LEEWAY_ON_ACCOUNT_CPU_LIMITS));
+
+    /** the request is sent only once and the circuit breaker is disabled */
+    public static final RetryPolicy NONE = RetryPolicy.Builder().setMaxAttempts(1).setCircuitBreaker(0, 0).build();
+
+    /** the policy built by the builder without any setting; {@link HttpClientOptions#DEFAULT} doesn't retry */
+    public static final RetryPolicy DEFAULT = RetryPolicy.Builder().build();
+
+    /** no response is received */
+    static final int NO_RESPONSE = -1;
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double backoffMultiplier;
+    private final Set<YosemiteApiErrorCode> retryableErrorCodes;
+    private final boolean ambiguousPushRetried;
+    private final double maxRetryTokens;
+    private final double retryTokenRatio;
+    private final int circuitBreakerThreshold;
+    private final long circuitBreakerOpenMillis;
+
+    private RetryPolicy(RetryPolicyBuilder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.retryableErrorCodes = Collections.unmodifiableSet(EnumSet.copyOf(builder.retryableErrorCodes));
+        this.ambiguousPushRetried = builder.ambiguousPushRetried;
+        this.maxRetryTokens = builder.maxRetryTokens;
+        this.retryTokenRatio = builder.retryTokenRatio;
+        this.circuitBreakerThreshold = builder.circuitBreakerThreshold;
+        this.circuitBreakerOpenMillis = builder.circuitBreakerOpenMillis;
+    }
+
+    public static RetryPolicyBuilder Builder() {
+        return new RetryPolicyBuilder();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public Set<YosemiteApiErrorCode> getRetryableErrorCodes() {
+        return retryableErrorCodes;
+    }
+
+    public boolean isAmbiguousPushRetried() {
+        return ambiguousPushRetried;
+    }
+
+    public double getMaxRetryTokens() {
+        return maxRetryTokens;
+    }
+
+    public double getRetryTokenRatio() {
+        return retryTokenRatio;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public long getCircuitBreakerOpenMillis() {
+        return circuitBreakerOpenMillis;
+    }
+
+    /**
+     * @param statusCode HTTP status code or {@link #NO_RESPONSE}
+     * @param errorCode the error code of the chain API error response; null if the response is not the chain API error
+     * @return true if the failure is caused by the node or the network, not by the request
+     */
+    boolean isTransient(int statusCode, YosemiteApiErrorCode errorCode) {
+        switch (statusCode) {
+            case NO_RESPONSE:
+            case 408:
+            case 429:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return errorCode != null && retryableErrorCodes.contains(errorCode);
+        }
+    }
+
+    /**
+     * @return true if the request is known not to be processed by the node
+     */
+    private boolean isRejected(int statusCode, YosemiteApiErrorCode errorCode) {
+        return statusCode == 429 || statusCode == 503 || (errorCode != null && retryableErrorCodes.contains(errorCode));
+    }
+
+    /**
+     * @param readOnly true if the request is {@link ReadOnly}
+     * @param push true if the request is push_transaction
+     * @param statusCode HTTP status code or {@link #NO_RESPONSE}
+     * @param errorCode the error code of the chain API error response; null if the response is not the chain API error
+     */
+    boolean isRetryable(boolean readOnly, boolean push, int statusCode, YosemiteApiErrorCode errorCode) {
+        if (!isTransient(statusCode, errorCode)) {
+            return false;
+        }
+        if (readOnly) {
+            return true;
+        }
+        if (isRejected(statusCode, errorCode)) {
+            return true;
+        }
+        return push && ambiguousPushRetried;
+    }
+
+    /**
+     * @param retry 1 for the first retry
+     * @return the delay before the retry with the jitter
+     */
+    long getBackoffMillis(int retry) {
+        double backoff = initialBackoffMillis * Math.pow(backoffMultiplier, retry - 1);
+        long cap = (long) Math.min(maxBackoffMillis, backoff);
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap - cap / 2 + 1);
+    }
+
+    /**
+     * Builder for the retry policy.
+     */
+    public static class RetryPolicyBuilder {
+        private int maxAttempts = 3;
+        private long initialBackoffMillis = 100;
+        private long maxBackoffMillis = 2000;
+        private double backoffMultiplier = 2;
+        private final Set<YosemiteApiErrorCode> retryableErrorCodes = EnumSet.copyOf(DEFAULT_RETRYABLE_ERROR_CODES);
+        private boolean ambiguousPushRetried = false;
+        private double maxRetryTokens = 10;
+        private double retryTokenRatio = 0.1;
+        private int circuitBreakerThreshold = 5;
+        private long circuitBreakerOpenMillis = 10000;
+
+        private RetryPolicyBuilder() { }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+
+        /**
+         * @param maxAttempts the maximum number of the attempts including the first one; 1 not to retry
+         */
+        public RetryPolicyBuilder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be positive.");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoffMillis the maximum delay before the first retry
+         * @param maxBackoffMillis the maximum delay before any retry
+         * @param backoffMultiplier the multiplier of the maximum delay for each retry
+         */
+        public RetryPolicyBuilder setBackoff(long initialBackoffMillis, long maxBackoffMillis, double backoffMultiplier) {
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException("wrong backoff.");
+            }
+            if (backoffMultiplier < 1) throw new IllegalArgumentException("backoffMultiplier must not be less than 1.");
+            this.initialBackoffMillis = initialBackoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Retry the requests rejected with the error code besides the default ones.
+         * @param errorCode the error code of the chain API error response
+         */
+        public RetryPolicyBuilder addRetryableErrorCode(YosemiteApiErrorCode errorCode) {
+            if (errorCode == null) throw new IllegalArgumentException("errorCode cannot be null.");
+            retryableErrorCodes.add(errorCode);
+            return this;
+        }
+
+        /**
+         * @param ambiguousPushRetried true to retry push_transaction of which outcome is unknown e.g. on connection reset;
+         *        the retry rejected as the duplicate succeeds with the transaction id only. false by default
+         */
+        public RetryPolicyBuilder setAmbiguousPushRetried(boolean ambiguousPushRetried) {
+            this.ambiguousPushRetried = ambiguousPushRetried;
+            return this;
+        }
+
+        /**
+         * @param maxRetryTokens the maximum tokens of the retry budget
+         * @param retryTokenRatio the tokens given back by each success
+         */
+        public RetryPolicyBuilder setRetryBudget(double maxRetryTokens, double retryTokenRatio) {
+            if (maxRetryTokens <= 0 || retryTokenRatio <= 0) throw new IllegalArgumentException("wrong retry budget.");
+            this.maxRetryTokens = maxRetryTokens;
+            this.retryTokenRatio = retryTokenRatio;
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerThreshold the number of the consecutive transient failures to open the breaker; 0 to disable it
+         * @param circuitBreakerOpenMillis the time the breaker is open before probing the node
+         */
+        public RetryPolicyBuilder setCircuitBreaker(int circuitBreakerThreshold, long circuitBreakerOpenMillis) {
+            if (circuitBreakerThreshold < 0 || circuitBreakerOpenMillis < 0) {
+                throw new IllegalArgumentException("wrong circuit breaker.");
+            }
+            this.circuitBreakerThreshold = circuitBreakerThreshold;
+            this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+            return this;
+        }
+    }
+}
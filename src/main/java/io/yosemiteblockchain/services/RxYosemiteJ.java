@@ -0,0 +1,178 @@
+package io.yosemiteblockchain.services;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.yosemiteblockchain.data.remote.chain.Block;
+import io.yosemiteblockchain.data.remote.chain.Info;
+import io.yosemiteblockchain.data.remote.chain.PushedTransaction;
+import io.yosemiteblockchain.data.remote.chain.TableRow;
+import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
+import io.yosemiteblockchain.data.types.TypeAsset;
+import org.reactivestreams.Publisher;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The reactive facade of {@link YosemiteJ} and its subclasses such as
+ * {@link io.yosemiteblockchain.services.yxcontracts.StandardToken}.
+ * <p>
+ * Every {@link Single} is cold; the request is sent when it's subscribed and cancelled when it's disposed.
+ * Any API of the wrapped instance which returns CompletableFuture can be used by {@link #single(Function)}, e.g.
+ * <pre>
+ * RxYosemiteJ&lt;StandardToken&gt; rxToken = RxYosemiteJ.of(new StandardToken(apiClient));
+ * rxToken.single(token -&gt; token.transferToken(...)).subscribe(...);
+ * </pre>
+ * The bulk operations request the upstream items or the next pages and blocks only as the downstream requests,
+ * so a slow consumer doesn't make them buffer without limit.
+ */
+public final class RxYosemiteJ<J extends YosemiteJ> {
+
+    public static final long DEFAULT_BLOCK_POLL_INTERVAL_MILLIS = 500;
+
+    private final J yosemiteJ;
+
+    private RxYosemiteJ(J yosemiteJ) {
+        this.yosemiteJ = yosemiteJ;
+    }
+
+    public static <J extends YosemiteJ> RxYosemiteJ<J> of(J yosemiteJ) {
+        if (yosemiteJ == null) throw new IllegalArgumentException("yosemiteJ cannot be null.");
+        return new RxYosemiteJ<>(yosemiteJ);
+    }
+
+    public J getYosemiteJ() {
+        return yosemiteJ;
+    }
+
+    /**
+     * @param call the call of the API of the wrapped instance
+     * @return the Single which calls the API when it's subscribed
+     */
+    public <T> Single<T> single(Function<? super J, CompletableFuture<T>> call) {
+        return fromFuture(() -> call.apply(yosemiteJ));
+    }
+
+    public Single<PushedTransaction> pushAction(String contract, String action, String data, TransactionParameters params) {
+        return single(j -> j.pushAction(contract, action, data, params));
+    }
+
+    public Single<TableRow> getTableRows(String contract, String scope, String table, GetTableOptions options) {
+        return single(j -> j.getTableRows(contract, scope, table, options));
+    }
+
+    public Single<TypeAsset> getAccountBalance(String token, String account) {
+        return single(j -> j.getAccountBalance(token, account));
+    }
+
+    /**
+     * Submit the call for each item, e.g. push the transfer transaction for each transfer request.
+     * At most maxConcurrency calls are in flight; the next item is requested from the upstream when one of them completes.
+     * The results are emitted in the order of the completion. The first failure fails the Flowable.
+     * @param items the upstream of the items
+     * @param call the call of the API of the wrapped instance for the item
+     * @param maxConcurrency the maximum number of the calls in flight
+     */
+    public <T, R> Flowable<R> submitAll(Publisher<T> items, BiFunction<? super J, ? super T, CompletableFuture<R>> call,
+                                        int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive.");
+        return Flowable.fromPublisher(items)
+                .flatMapSingle(item -> fromFuture(() -> call.apply(yosemiteJ, item)), false, maxConcurrency);
+    }
+
+    /**
+     * Same as {@link #submitAll(Publisher, BiFunction, int)} but the results are emitted in the order of the items.
+     * The results completed earlier than the preceding ones are buffered up to maxConcurrency.
+     */
+    public <T, R> Flowable<R> submitAllInOrder(Publisher<T> items, BiFunction<? super J, ? super T, CompletableFuture<R>> call,
+                                               int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive.");
+        return Flowable.fromPublisher(items)
+                .concatMapEager(item -> fromFuture(() -> call.apply(yosemiteJ, item)).toFlowable(), maxConcurrency, 1);
+    }
+
+    /**
+     * Stream all the rows of the table; the next page is fetched when the rows of the previous page are requested.
+     * @see YosemiteJ#scanTable(String, String, String, Class, ToLongFunction)
+     */
+    public <T> Flowable<T> scanTable(String contract, String scope, String table, Class<T> rowType,
+                                     ToLongFunction<? super T> keyExtractor) {
+        return Flowable.defer(() -> yosemiteJ.scanTable(contract, scope, table, rowType, keyExtractor).flowable());
+    }
+
+    /**
+     * @see #followBlocks(long, boolean, long)
+     */
+    public Flowable<Block> followBlocks(long startBlockNum) {
+        return followBlocks(startBlockNum, false, DEFAULT_BLOCK_POLL_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Emit the blocks from the start block number endlessly.
+     * The next block is fetched only when it's requested, and get_info is polled while it's not produced yet.
+     * @param startBlockNum the number of the first block
+     * @param irreversibleOnly true to emit only the irreversible blocks
+     * @param pollIntervalMillis the interval of polling get_info while waiting for the next block
+     */
+    public Flowable<Block> followBlocks(long startBlockNum, boolean irreversibleOnly, long pollIntervalMillis) {
+        if (startBlockNum < 1) throw new IllegalArgumentException("startBlockNum must be positive.");
+        if (pollIntervalMillis <= 0) throw new IllegalArgumentException("pollIntervalMillis must be positive.");
+        YosemiteApiRestClient client = yosemiteJ.getApiRestClient();
+        return Flowable.defer(() -> {
+            AtomicLong lastAvailableBlockNum = new AtomicLong(startBlockNum - 1);
+            return Flowable.rangeLong(startBlockNum, Long.MAX_VALUE - startBlockNum)
+                    .concatMapSingle(blockNum ->
+                            awaitBlock(client, blockNum, lastAvailableBlockNum, irreversibleOnly, pollIntervalMillis)
+                                    .andThen(client.getBlock(Long.toString(blockNum)).toSingle()), 1);
+        });
+    }
+
+    private static Completable awaitBlock(YosemiteApiRestClient client, long blockNum, AtomicLong lastAvailableBlockNum,
+                                          boolean irreversibleOnly, long pollIntervalMillis) {
+        if (blockNum <= lastAvailableBlockNum.get()) {
+            return Completable.complete();
+        }
+        return client.getInfo().toSingle().flatMapCompletable(info -> {
+            lastAvailableBlockNum.set(getAvailableBlockNum(info, irreversibleOnly));
+            if (blockNum <= lastAvailableBlockNum.get()) {
+                return Completable.complete();
+            }
+            return Completable.timer(pollIntervalMillis, TimeUnit.MILLISECONDS).andThen(Completable.defer(() ->
+                    awaitBlock(client, blockNum, lastAvailableBlockNum, irreversibleOnly, pollIntervalMillis)));
+        });
+    }
+
+    private static long getAvailableBlockNum(Info info, boolean irreversibleOnly) {
+        Integer blockNum = irreversibleOnly ? info.getLastIrreversibleBlockNum() : info.getHeadBlockNum();
+        return blockNum == null ? 0 : blockNum;
+    }
+
+    /**
+     * @return the cold Single which calls the supplier when it's subscribed and cancels the future when it's disposed
+     */
+    static <T> Single<T> fromFuture(Supplier<CompletableFuture<T>> supplier) {
+        return Single.create(emitter -> {
+            CompletableFuture<T> future = supplier.get();
+            emitter.setCancellable(() -> future.cancel(false));
+            future.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    emitter.tryOnError(cause);
+                } else if (result == null) {
+                    emitter.tryOnError(new NoSuchElementException("null result"));
+                } else {
+                    emitter.onSuccess(result);
+                }
+            });
+        });
+    }
+}
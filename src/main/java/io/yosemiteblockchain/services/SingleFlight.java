@@ -0,0 +1,21 @@
+package io.yosemiteblockchain.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the read-only endpoint of the API service whose identical requests can share a single HTTP call.
+ * While a request of the endpoint is in flight, the asynchronous requests with the same URL and body get the response
+ * of the request in flight instead of sending their own, and {@link MetricsRecorder#recordCoalesced(String)} is called.
+ * The rows of {@link io.yosemiteblockchain.data.remote.chain.TableRow} are copied for each coalesced request.
+ * The endpoints which change the state like push_transaction must never be marked, and neither are the streamed
+ * endpoints of which response is decoded by each caller, since the key doesn't include how it's decoded.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SingleFlight {
+}
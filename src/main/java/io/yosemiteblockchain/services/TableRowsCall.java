@@ -0,0 +1,120 @@
+package io.yosemiteblockchain.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.yosemiteblockchain.data.remote.chain.TableRowPage;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapts the streamed get_table_rows response into {@link TableRowPage}.
+ * The rows are decoded one by one from the response stream, so the whole response is never held as a string or a tree.
+ */
+final class TableRowsCall<T> implements Call<TableRowPage<T>> {
+
+    private final Call<ResponseBody> delegate;
+    private final Gson gson;
+    private final TypeAdapter<T> rowAdapter;
+
+    TableRowsCall(Call<ResponseBody> delegate, Gson gson, TypeAdapter<T> rowAdapter) {
+        this.delegate = delegate;
+        this.gson = gson;
+        this.rowAdapter = rowAdapter;
+    }
+
+    @Override
+    public Response<TableRowPage<T>> execute() throws IOException {
+        return convert(delegate.execute());
+    }
+
+    @Override
+    public void enqueue(Callback<TableRowPage<T>> callback) {
+        delegate.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                Response<TableRowPage<T>> converted;
+                try {
+                    converted = convert(response);
+                } catch (IOException | RuntimeException e) {
+                    callback.onFailure(TableRowsCall.this, e);
+                    return;
+                }
+                callback.onResponse(TableRowsCall.this, converted);
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                callback.onFailure(TableRowsCall.this, t);
+            }
+        });
+    }
+
+    private Response<TableRowPage<T>> convert(Response<ResponseBody> response) throws IOException {
+        if (!response.isSuccessful()) {
+            return Response.error(response.errorBody(), response.raw());
+        }
+        try (ResponseBody body = response.body()) {
+            return Response.success(readPage(gson.newJsonReader(body.charStream())), response.raw());
+        } catch (JsonParseException e) {
+            throw new IOException("failed to decode the table rows", e);
+        }
+    }
+
+    private TableRowPage<T> readPage(JsonReader reader) throws IOException {
+        List<T> rows = new ArrayList<>();
+        boolean more = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("rows".equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    rows.add(rowAdapter.read(reader));
+                }
+                reader.endArray();
+            } else if ("more".equals(name) && reader.peek() == JsonToken.BOOLEAN) {
+                more = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new TableRowPage<>(rows, more);
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return delegate.isExecuted();
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return delegate.isCanceled();
+    }
+
+    @Override
+    public Call<TableRowPage<T>> clone() {
+        return new TableRowsCall<>(delegate.clone(), gson, rowAdapter);
+    }
+
+    @Override
+    public okhttp3.Request request() {
+        return delegate.request();
+    }
+}
@@ -0,0 +1,230 @@
+package io.yosemiteblockchain.services;
+
+import io.reactivex.Flowable;
+import io.yosemiteblockchain.data.remote.chain.TableRowPage;
+import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans all the rows of the table page by page as a lazy stream of the typed rows.
+ * <p>
+ * The next page is requested as soon as the current page is received, so the network round trip overlaps with
+ * the consumption of the current page. At most two pages are held at a time: the page being consumed and the next one.
+ * Each row is decoded from the response stream into the row type; the fields to decode must be annotated with
+ * {@link com.google.gson.annotations.Expose}.
+ * <p>
+ * The next page starts from the key of the last row plus one, so the key extractor must return the unique uint64 key
+ * of the row in the scanned index, e.g. the primary key or {@code TypeName.stringToName(row.getOwner())}.
+ * The scanner itself is reusable; every {@link #iterator()}, {@link #stream()} and {@link #flowable()} starts a new scan.
+ * @param <T> the type of the row
+ */
+public class TableScanner<T> implements Iterable<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final YosemiteApiRestClient mYosemiteApiRestClient;
+    private final String contract;
+    private final String scope;
+    private final String table;
+    private final Class<T> rowType;
+    private final ToLongFunction<? super T> keyExtractor;
+
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private String lowerBound;
+    private String upperBound;
+    private String indexPosition;
+    private String keyType;
+
+    /**
+     * @param contract the name of the smart contract
+     * @param scope the scope within the contract in which the table is found
+     * @param table the name of the table as specified by the contract abi
+     * @param rowType the class of the row
+     * @param keyExtractor the function to get the unique uint64 key of the row in the scanned index
+     */
+    public TableScanner(YosemiteApiRestClient yosemiteApiRestClient, String contract, String scope, String table,
+                        Class<T> rowType, ToLongFunction<? super T> keyExtractor) {
+        mYosemiteApiRestClient = yosemiteApiRestClient;
+        this.contract = contract;
+        this.scope = scope;
+        this.table = table;
+        this.rowType = rowType;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param pageSize the maximum number of rows requested at once
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.pageSize = pageSize;
+    }
+
+    public String getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @param lowerBound JSON representation of the lower bound value of the key, inclusive; defaults to first
+     */
+    public void setLowerBound(String lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public String getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * @param upperBound JSON representation of the upper bound value of the key, exclusive; defaults to last
+     */
+    public void setUpperBound(String upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    public String getIndexPosition() {
+        return indexPosition;
+    }
+
+    public void setIndexPosition(String indexPosition) {
+        this.indexPosition = indexPosition;
+    }
+
+    public String getKeyType() {
+        return keyType;
+    }
+
+    public void setKeyType(String keyType) {
+        this.keyType = keyType;
+    }
+
+    /**
+     * Start a new scan. The iterator blocks only if the next page hasn't been received yet.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new PageIterator(lowerBound);
+    }
+
+    /**
+     * Start a new scan as a sequential stream. Closing the stream cancels the page in flight.
+     */
+    public Stream<T> stream() {
+        PageIterator iterator = new PageIterator(lowerBound);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Start a new scan for each subscription. The rows are emitted as requested by the subscriber.
+     * Emitting blocks while the next page is being received, so subscribe on an I/O scheduler if the caller must not block.
+     */
+    public Flowable<T> flowable() {
+        return Flowable.generate(() -> new PageIterator(lowerBound), (iterator, emitter) -> {
+            if (iterator.hasNext()) {
+                emitter.onNext(iterator.next());
+            } else {
+                emitter.onComplete();
+            }
+        }, PageIterator::close);
+    }
+
+    private CompletableFuture<TableRowPage<T>> requestPage(String pageLowerBound) {
+        GetTableOptions options = new GetTableOptions();
+        options.setLimit(pageSize);
+        options.setLowerBound(pageLowerBound);
+        options.setUpperBound(upperBound);
+        options.setIndexPosition(indexPosition);
+        options.setKeyType(keyType);
+        return mYosemiteApiRestClient.getTableRows(contract, scope, table, options, rowType).executeAsync();
+    }
+
+    private String getNextLowerBound(T lastRow) {
+        long key = keyExtractor.applyAsLong(lastRow);
+        if (key == -1L) {
+            // the last row has the maximum uint64 key
+            return null;
+        }
+        return Long.toUnsignedString(key + 1);
+    }
+
+    private class PageIterator implements Iterator<T> {
+
+        private Iterator<T> current = Collections.emptyIterator();
+        private CompletableFuture<TableRowPage<T>> nextPage;
+
+        PageIterator(String firstLowerBound) {
+            nextPage = requestPage(firstLowerBound);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (nextPage == null) {
+                    return false;
+                }
+
+                TableRowPage<T> page = await(nextPage);
+                nextPage = null;
+
+                List<T> rows = page.getRows();
+                if (page.getMore() && !rows.isEmpty()) {
+                    String nextLowerBound = getNextLowerBound(rows.get(rows.size() - 1));
+                    if (nextLowerBound != null) {
+                        // prefetch the next page while the rows of this page are consumed
+                        nextPage = requestPage(nextLowerBound);
+                    }
+                }
+                current = rows.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            if (nextPage != null) {
+                nextPage.cancel(true);
+                nextPage = null;
+            }
+            current = Collections.emptyIterator();
+        }
+
+        private TableRowPage<T> await(CompletableFuture<TableRowPage<T>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new YosemiteApiException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.ActionTrace;
+import io.yosemiteblockchain.data.remote.chain.PushedTransaction;
+import io.yosemiteblockchain.data.types.TypePermission;
+import io.yosemiteblockchain.exception.YosemiteApiErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Coalesces the actions submitted from many threads into multi-action transactions pushed by
+ * {@link YosemiteJ#pushActions(java.util.Collection, TransactionParameters)}.
+ * <p>
+ * A batch is pushed when the number of its actions or its estimated size reaches the limit,
+ * or when the linger time has passed since its first action was submitted.
+ * All actions share the same transaction parameters given to the batcher; add the permissions to each
+ * {@link ActionSpecifier} if the actors are different.
+ * <p>
+ * If the node rejects a batch with the chain error, its actions are pushed again one by one, so an invalid action
+ * doesn't fail the others, and the max number of actions per batch is halved; it grows back by one for each successful
+ * batch. If the outcome of a batch is unknown, e.g. on the timeout, 502, 504 or
+ * {@link YosemiteApiErrorCode#DUPLICATE_TRANSACTION}, the batch may be included in the chain, so its actions are not
+ * pushed again and all of them fail with the exception having the transaction id of the batch.
+ */
+public class TransactionBatcher implements AutoCloseable {
+
+    private final static Logger logger = LoggerFactory.getLogger(TransactionBatcher.class);
+
+    public static final int DEFAULT_MAX_ACTIONS = 50;
+    public static final int DEFAULT_MAX_BYTES = 64 * 1024;
+    public static final long DEFAULT_LINGER_MILLIS = 50;
+
+    // estimated size of the contract, the action name and the length prefixes of each action
+    private static final int ACTION_OVERHEAD_BYTES = 24;
+    private static final int PERMISSION_BYTES = 16;
+
+    private final YosemiteJ mYosemiteJ;
+    private final TransactionParameters params;
+    private final int maxActions;
+    private final int maxBytes;
+    private final long lingerMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private List<PendingAction> pending = new ArrayList<>();
+    private int pendingBytes;
+    private int currentMaxActions;
+    private ScheduledFuture<?> lingerTimer;
+    private boolean closed;
+
+    /**
+     * @param yosemiteJ YosemiteJ instance to push the transactions
+     * @param params common transaction parameters of all batches
+     */
+    public TransactionBatcher(YosemiteJ yosemiteJ, TransactionParameters params) {
+        this(yosemiteJ, params, DEFAULT_MAX_ACTIONS, DEFAULT_MAX_BYTES, DEFAULT_LINGER_MILLIS);
+    }
+
+    /**
+     * @param yosemiteJ YosemiteJ instance to push the transactions
+     * @param params common transaction parameters of all batches
+     * @param maxActions the max number of actions in a transaction
+     * @param maxBytes the max estimated size of the action data in a transaction
+     * @param lingerMillis the max time to wait for more actions after the first action of a batch is submitted
+     */
+    public TransactionBatcher(YosemiteJ yosemiteJ, TransactionParameters params, int maxActions, int maxBytes,
+                              long lingerMillis) {
+        if (yosemiteJ == null) throw new IllegalArgumentException("yosemiteJ cannot be null");
+        if (params == null) throw new IllegalArgumentException("params cannot be null");
+        if (maxActions < 1) throw new IllegalArgumentException("wrong maxActions");
+        if (maxBytes < 1) throw new IllegalArgumentException("wrong maxBytes");
+        if (lingerMillis < 0) throw new IllegalArgumentException("wrong lingerMillis");
+
+        mYosemiteJ = yosemiteJ;
+        this.params = params;
+        this.maxActions = maxActions;
+        this.maxBytes = maxBytes;
+        this.lingerMillis = lingerMillis;
+        this.currentMaxActions = maxActions;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "yosemitej-transaction-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submit an action to be pushed with other actions as the same transaction.
+     * @param actionSpecifier the action
+     * @return CompletableFuture instance to get the result of the action in the pushed transaction
+     */
+    public CompletableFuture<BatchedActionResult> submit(ActionSpecifier actionSpecifier) {
+        if (actionSpecifier == null) throw new IllegalArgumentException("actionSpecifier cannot be null");
+
+        PendingAction pendingAction = new PendingAction(actionSpecifier);
+        List<List<PendingAction>> batches = new ArrayList<>(2);
+
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("batcher is closed");
+
+            if (!pending.isEmpty() && pendingBytes + pendingAction.estimatedBytes > maxBytes) {
+                batches.add(takePending());
+            }
+            pending.add(pendingAction);
+            pendingBytes += pendingAction.estimatedBytes;
+
+            if (pending.size() >= currentMaxActions || pendingBytes >= maxBytes) {
+                batches.add(takePending());
+            } else if (lingerTimer == null) {
+                lingerTimer = scheduler.schedule(this::flush, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        for (List<PendingAction> batch : batches) {
+            push(batch);
+        }
+        return pendingAction.future;
+    }
+
+    /**
+     * Push the pending actions immediately.
+     */
+    public void flush() {
+        List<PendingAction> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            push(batch);
+        }
+    }
+
+    /**
+     * Push the pending actions and stop accepting new actions.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        scheduler.shutdown();
+    }
+
+    private List<PendingAction> takePending() {
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        List<PendingAction> batch = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        return batch;
+    }
+
+    private void push(List<PendingAction> batch) {
+        List<ActionSpecifier> actions = batch.stream().map(a -> a.actionSpecifier).collect(toList());
+
+        pushActions(actions).whenComplete((pushedTransaction, throwable) -> {
+            if (throwable == null) {
+                onBatchSucceeded();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.complete(new BatchedActionResult(pushedTransaction, i));
+                }
+            } else if (batch.size() == 1 || !ApiServiceExecutor.isPushRejected(throwable)) {
+                for (PendingAction pendingAction : batch) {
+                    pendingAction.future.completeExceptionally(throwable);
+                }
+            } else {
+                onBatchFailed();
+                logger.debug("batch of " + batch.size() + " actions failed; pushing them one by one", throwable);
+                for (PendingAction pendingAction : batch) {
+                    pushActions(Collections.singletonList(pendingAction.actionSpecifier)).whenComplete((pushed, t) -> {
+                        if (t == null) {
+                            pendingAction.future.complete(new BatchedActionResult(pushed, 0));
+                        } else {
+                            pendingAction.future.completeExceptionally(t);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private CompletableFuture<PushedTransaction> pushActions(List<ActionSpecifier> actions) {
+        try {
+            return mYosemiteJ.pushActions(actions, params);
+        } catch (RuntimeException e) {
+            CompletableFuture<PushedTransaction> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private synchronized void onBatchSucceeded() {
+        currentMaxActions = Math.min(maxActions, currentMaxActions + 1);
+    }
+
+    private synchronized void onBatchFailed() {
+        currentMaxActions = Math.max(1, currentMaxActions / 2);
+    }
+
+    /**
+     * @return the current max number of actions per batch which is adapted by the failures
+     */
+    public synchronized int getCurrentMaxActions() {
+        return currentMaxActions;
+    }
+
+    private static final class PendingAction {
+        private final ActionSpecifier actionSpecifier;
+        private final int estimatedBytes;
+        private final CompletableFuture<BatchedActionResult> future = new CompletableFuture<>();
+
+        PendingAction(ActionSpecifier actionSpecifier) {
+            this.actionSpecifier = actionSpecifier;
+            Collection<TypePermission> permissions = actionSpecifier.getPermissions();
+            String data = actionSpecifier.getValue2();
+            this.estimatedBytes = ACTION_OVERHEAD_BYTES + PERMISSION_BYTES * permissions.size()
+                    + (data == null ? 0 : data.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    /**
+     * The result of an action in the pushed transaction.
+     */
+    public static final class BatchedActionResult {
+        private final PushedTransaction pushedTransaction;
+        private final int actionIndex;
+
+        BatchedActionResult(PushedTransaction pushedTransaction, int actionIndex) {
+            this.pushedTransaction = pushedTransaction;
+            this.actionIndex = actionIndex;
+        }
+
+        public String getTransactionId() {
+            return pushedTransaction.getTransactionId();
+        }
+
+        /**
+         * @return the whole transaction which contains the action
+         */
+        public PushedTransaction getPushedTransaction() {
+            return pushedTransaction;
+        }
+
+        /**
+         * @return the index of the action in the transaction
+         */
+        public int getActionIndex() {
+            return actionIndex;
+        }
+
+        /**
+         * @return the trace of the action, or null if the trace is not provided
+         */
+        public ActionTrace getActionTrace() {
+            if (pushedTransaction.getTransactionTrace() == null) return null;
+            List<ActionTrace> actionTraces = pushedTransaction.getTransactionTrace().getActionTraces();
+            if (actionTraces == null || actionIndex >= actionTraces.size()) return null;
+            return actionTraces.get(actionIndex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signs the transactions built by {@link YosemiteJ}.
+ * The default implementation is {@link WalletTransactionSigner} which requests the signature to the wallet daemon(keyos).
+ * Use {@link LocalTransactionSigner} to sign in-process without touching the wallet daemon.
+ * @see YosemiteApiRestClient#setTransactionSigner(TransactionSigner)
+ */
+public interface TransactionSigner {
+
+    /**
+     * Get the public keys whose private keys are available for this signer.
+     * They are used to find the required keys when the transaction parameters have no public key.
+     * @return CompletableFuture instance to get the list of public keys
+     */
+    CompletableFuture<List<String>> getAvailablePublicKeys();
+
+    /**
+     * Sign the transaction.
+     * @param txnBeforeSign transaction to sign; it's not modified
+     * @param publicKeys the public keys of which private keys are going to be used to sign
+     * @param chainId blockchain ID to send this transaction
+     * @return CompletableFuture instance that contains the original transaction data and its signatures added
+     */
+    CompletableFuture<SignedTransaction> signTransaction(SignedTransaction txnBeforeSign, List<String> publicKeys, String chainId);
+}
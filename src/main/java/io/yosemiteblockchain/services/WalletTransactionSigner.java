@@ -0,0 +1,29 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Requests the signature to the wallet daemon(keyos).
+ */
+public class WalletTransactionSigner implements TransactionSigner {
+
+    private final YosemiteApiRestClient mYosemiteApiRestClient;
+
+    public WalletTransactionSigner(YosemiteApiRestClient yosemiteApiRestClient) {
+        mYosemiteApiRestClient = yosemiteApiRestClient;
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getAvailablePublicKeys() {
+        return mYosemiteApiRestClient.getPublicKeys().executeAsync();
+    }
+
+    @Override
+    public CompletableFuture<SignedTransaction> signTransaction(SignedTransaction txnBeforeSign, List<String> publicKeys,
+                                                                String chainId) {
+        return mYosemiteApiRestClient.signTransaction(txnBeforeSign, publicKeys, chainId).executeAsync();
+    }
+}
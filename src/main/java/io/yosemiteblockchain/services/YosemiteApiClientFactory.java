@@ -1,8 +1,12 @@
 package io.yosemiteblockchain.services;
 
 import io.yosemiteblockchain.Consts;
+import io.yosemiteblockchain.util.AsyncExecutor;
 import io.yosemiteblockchain.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class YosemiteApiClientFactory {
 
     private YosemiteApiClientFactory() { }
@@ -71,6 +75,259 @@ public class YosemiteApiClientFactory {
                                                                 String transactionVoteTarget) {
         if (StringUtils.isEmpty(nodeUrl)) throw new IllegalArgumentException("empty nodeUrl");
         if (StringUtils.isEmpty(keyosUrl)) throw new IllegalArgumentException("empty keyosUrl");
-        return new YosemiteApiRestClientImpl(nodeUrl, keyosUrl, explorerUrl, txExpirationInMillis, transactionVoteTarget);
+        return new YosemiteApiRestClientImpl(nodeUrl, keyosUrl, explorerUrl, txExpirationInMillis, transactionVoteTarget, null);
+    }
+
+    /**
+     * Create a new YosemiteApiRestClient instance with the base URL and the transaction signer.
+     * The wallet daemon(keyos) is not used, so the wallet APIs of the returned instance are not available.
+     * @param nodeUrl HTTP URL to the Yosemite node
+     * @param transactionSigner the signer for all transactions e.g. {@link LocalTransactionSigner}
+     * @return the new YosemiteApiRestClient instance
+     */
+    public static YosemiteApiRestClient createYosemiteApiClient(String nodeUrl, TransactionSigner transactionSigner) {
+        return createYosemiteApiClient(nodeUrl, null, Consts.TX_EXPIRATION_IN_MILLIS, null, transactionSigner);
+    }
+
+    /**
+     * Create a new YosemiteApiRestClient instance with the base URL, the history server URL,
+     * transaction expiration time and the transaction signer.
+     * The wallet daemon(keyos) is not used, so the wallet APIs of the returned instance are not available.
+     * @param nodeUrl HTTP URL to the Yosemite node
+     * @param explorerUrl HTTP URL to the Yosemite chain explorer server which provides transaction history log
+     * @param txExpirationInMillis transaction expiration time in milliseconds
+     * @param transactionVoteTarget The account name which is the target of transaction vote
+     * @param transactionSigner the signer for all transactions e.g. {@link LocalTransactionSigner}
+     * @return the new YosemiteApiRestClient instance
+     */
+    public static YosemiteApiRestClient createYosemiteApiClient(String nodeUrl, String explorerUrl, int txExpirationInMillis,
+                                                                String transactionVoteTarget,
+                                                                TransactionSigner transactionSigner) {
+        if (StringUtils.isEmpty(nodeUrl)) throw new IllegalArgumentException("empty nodeUrl");
+        if (transactionSigner == null) throw new IllegalArgumentException("null transactionSigner");
+        return new YosemiteApiRestClientImpl(nodeUrl, null, explorerUrl, txExpirationInMillis, transactionVoteTarget, transactionSigner);
+    }
+
+    public static YosemiteApiClientBuilder Builder() {
+        return new YosemiteApiClientBuilder();
+    }
+
+    /**
+     * Builder for YosemiteApiRestClient which can set the options of the HTTP engine.
+     * The clients built with the equal HTTP options share one OkHttpClient, its connection pool and dispatcher.
+     * No background thread polls the chain unless {@link #setChainStateRefreshIntervalMillis(long)} is set.
+     */
+    public static class YosemiteApiClientBuilder {
+        private String nodeUrl;
+        private final List<String> additionalNodeUrls = new ArrayList<>();
+        private String keyosUrl;
+        private String explorerUrl;
+        private int txExpirationInMillis = Consts.TX_EXPIRATION_IN_MILLIS;
+        private String transactionVoteTarget;
+        private TransactionSigner transactionSigner;
+
+        private int maxIdleConnections = HttpClientOptions.DEFAULT.getMaxIdleConnections();
+        private long keepAliveDurationMillis = HttpClientOptions.DEFAULT.getKeepAliveDurationMillis();
+        private int maxRequests = HttpClientOptions.DEFAULT.getMaxRequests();
+        private int maxRequestsPerHost = HttpClientOptions.DEFAULT.getMaxRequestsPerHost();
+        private boolean http2Enabled = HttpClientOptions.DEFAULT.isHttp2Enabled();
+        private long connectTimeoutMillis = HttpClientOptions.DEFAULT.getConnectTimeoutMillis();
+        private long readTimeoutMillis = HttpClientOptions.DEFAULT.getReadTimeoutMillis();
+        private long writeTimeoutMillis = HttpClientOptions.DEFAULT.getWriteTimeoutMillis();
+        private MetricsRecorder metricsRecorder = HttpClientOptions.DEFAULT.getMetricsRecorder();
+        private double bodyLogSampleRate = HttpClientOptions.DEFAULT.getBodyLogSampleRate();
+        private RetryPolicy retryPolicy = HttpClientOptions.DEFAULT.getRetryPolicy();
+        private RequestLimits requestLimits = HttpClientOptions.DEFAULT.getRequestLimits();
+        private AsyncExecutor asyncExecutor = HttpClientOptions.DEFAULT.getAsyncExecutor();
+        private long chainStateRefreshIntervalMillis = ChainStateProvider.DEFAULT_REFRESH_INTERVAL_MILLIS;
+
+        private YosemiteApiClientBuilder() { }
+
+        public YosemiteApiRestClient build() {
+            if (StringUtils.isEmpty(nodeUrl)) throw new IllegalArgumentException("empty nodeUrl");
+            if (StringUtils.isEmpty(keyosUrl) && transactionSigner == null) {
+                throw new IllegalArgumentException("either keyosUrl or transactionSigner must be set");
+            }
+            HttpClientOptions httpClientOptions = new HttpClientOptions(maxIdleConnections, keepAliveDurationMillis,
+                    maxRequests, maxRequestsPerHost, http2Enabled, connectTimeoutMillis, readTimeoutMillis, writeTimeoutMillis,
+                    metricsRecorder, bodyLogSampleRate, retryPolicy, requestLimits, asyncExecutor);
+            List<String> nodeUrls = new ArrayList<>();
+            nodeUrls.add(nodeUrl);
+            nodeUrls.addAll(additionalNodeUrls);
+            YosemiteApiRestClient client = new YosemiteApiRestClientImpl(nodeUrls, StringUtils.isEmpty(keyosUrl) ? null : keyosUrl,
+                    explorerUrl, txExpirationInMillis, transactionVoteTarget, transactionSigner, httpClientOptions);
+            client.getChainStateProvider().setRefreshIntervalMillis(chainStateRefreshIntervalMillis);
+            return client;
+        }
+
+        /**
+         * @param nodeUrl HTTP URL to the Yosemite node
+         */
+        public YosemiteApiClientBuilder setNodeUrl(String nodeUrl) {
+            this.nodeUrl = nodeUrl;
+            return this;
+        }
+
+        /**
+         * Add another Yosemite node. The client of more than one node routes the chain API requests by {@link NodePool}.
+         * @param nodeUrl HTTP URL to the Yosemite node
+         */
+        public YosemiteApiClientBuilder addNodeUrl(String nodeUrl) {
+            if (StringUtils.isEmpty(nodeUrl)) throw new IllegalArgumentException("empty nodeUrl");
+            if (this.nodeUrl == null) {
+                this.nodeUrl = nodeUrl;
+            } else {
+                additionalNodeUrls.add(nodeUrl);
+            }
+            return this;
+        }
+
+        /**
+         * @param keyosUrl HTTP URL to the Yosemite wallet daemon(keyos)
+         */
+        public YosemiteApiClientBuilder setKeyosUrl(String keyosUrl) {
+            this.keyosUrl = keyosUrl;
+            return this;
+        }
+
+        /**
+         * @param explorerUrl HTTP URL to the Yosemite chain explorer server which provides transaction history log
+         */
+        public YosemiteApiClientBuilder setExplorerUrl(String explorerUrl) {
+            this.explorerUrl = explorerUrl;
+            return this;
+        }
+
+        /**
+         * @param txExpirationInMillis transaction expiration time in milliseconds
+         */
+        public YosemiteApiClientBuilder setTxExpirationInMillis(int txExpirationInMillis) {
+            this.txExpirationInMillis = txExpirationInMillis;
+            return this;
+        }
+
+        /**
+         * @param transactionVoteTarget The account name which is the target of transaction vote
+         */
+        public YosemiteApiClientBuilder setTransactionVoteTarget(String transactionVoteTarget) {
+            this.transactionVoteTarget = transactionVoteTarget;
+            return this;
+        }
+
+        /**
+         * @param transactionSigner the signer for all transactions e.g. {@link LocalTransactionSigner}
+         */
+        public YosemiteApiClientBuilder setTransactionSigner(TransactionSigner transactionSigner) {
+            this.transactionSigner = transactionSigner;
+            return this;
+        }
+
+        /**
+         * @param maxIdleConnections the maximum number of idle connections in the connection pool
+         */
+        public YosemiteApiClientBuilder setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * @param keepAliveDurationMillis the time to keep the idle connection alive in milliseconds
+         */
+        public YosemiteApiClientBuilder setKeepAliveDurationMillis(long keepAliveDurationMillis) {
+            this.keepAliveDurationMillis = keepAliveDurationMillis;
+            return this;
+        }
+
+        /**
+         * @param maxRequests the maximum number of requests to execute concurrently
+         */
+        public YosemiteApiClientBuilder setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost the maximum number of requests for each host to execute concurrently
+         */
+        public YosemiteApiClientBuilder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param http2Enabled true to use HTTP/2 if the server supports it; false to use only HTTP/1.1
+         */
+        public YosemiteApiClientBuilder setHttp2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        public YosemiteApiClientBuilder setConnectTimeoutMillis(long connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return this;
+        }
+
+        public YosemiteApiClientBuilder setReadTimeoutMillis(long readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+            return this;
+        }
+
+        public YosemiteApiClientBuilder setWriteTimeoutMillis(long writeTimeoutMillis) {
+            this.writeTimeoutMillis = writeTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param metricsRecorder the recorder of the latency, the status code and the bytes in/out of each request
+         */
+        public YosemiteApiClientBuilder setMetricsRecorder(MetricsRecorder metricsRecorder) {
+            this.metricsRecorder = metricsRecorder;
+            return this;
+        }
+
+        /**
+         * Log the request and response bodies at the debug level for the sampled requests.
+         * Body logging is off by default because it buffers the whole bodies.
+         * @param bodyLogSampleRate the ratio of the requests to log, between 0 and 1
+         */
+        public YosemiteApiClientBuilder setBodyLogSampleRate(double bodyLogSampleRate) {
+            this.bodyLogSampleRate = bodyLogSampleRate;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy the policy to retry the failed requests; {@link RetryPolicy#NONE} not to retry
+         */
+        public YosemiteApiClientBuilder setRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param requestLimits the limits of the request rate and the requests in flight of each API and endpoint
+         */
+        public YosemiteApiClientBuilder setRequestLimits(RequestLimits requestLimits) {
+            this.requestLimits = requestLimits;
+            return this;
+        }
+
+        /**
+         * @param asyncExecutor the executor on which the asynchronous results are completed;
+         *                      {@link AsyncExecutor#direct()} to complete them on the HTTP engine threads
+         */
+        public YosemiteApiClientBuilder setAsyncExecutor(AsyncExecutor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        /**
+         * Opt in to refreshing the cached chain state by get_info in the background; by default it's refreshed only
+         * when a transaction finds it stale. See {@link ChainStateProvider#setRefreshIntervalMillis(long)}.
+         * @param chainStateRefreshIntervalMillis interval in milliseconds; 0 or less not to refresh in the background
+         */
+        public YosemiteApiClientBuilder setChainStateRefreshIntervalMillis(long chainStateRefreshIntervalMillis) {
+            this.chainStateRefreshIntervalMillis = chainStateRefreshIntervalMillis;
+            return this;
+        }
     }
 }
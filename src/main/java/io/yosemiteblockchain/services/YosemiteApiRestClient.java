@@ -6,10 +6,11 @@ import io.yosemiteblockchain.data.remote.chain.account.Account;
 import io.yosemiteblockchain.data.remote.history.action.Actions;
 import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
 import io.yosemiteblockchain.data.types.TypeAsset;
+import io.yosemiteblockchain.util.AsyncExecutor;
 
 import java.util.List;
 
-public interface YosemiteApiRestClient {
+public interface YosemiteApiRestClient extends AutoCloseable {
 
     /* Chain */
     Request<Info> getInfo();
@@ -20,6 +21,27 @@ public interface YosemiteApiRestClient {
 
     Request<TableRow> getTableRows(String code, String scope, String table, GetTableOptions options);
 
+    /**
+     * Requests the rows of the table and decodes each row into the row type while the response is streamed
+     * @param rowType the class of the row; the fields to decode must be annotated with {@link com.google.gson.annotations.Expose}
+     * @return the page of the typed rows
+     */
+    <T> Request<TableRowPage<T>> getTableRows(String code, String scope, String table, GetTableOptions options, Class<T> rowType);
+
+    /**
+     * Requests the ABI of the smart contract
+     * @param accountName the account name of the smart contract
+     * @return the ABI of the smart contract
+     */
+    Request<GetAbiResponse> getAbi(String accountName);
+
+    /**
+     * Requests the code and the ABI of the smart contract
+     * @param accountName the account name of the smart contract
+     * @return the code and the ABI of the smart contract
+     */
+    Request<GetCodeResponse> getCode(String accountName);
+
     /**
      * Requests conversion from json-formatted parameter string to binary format
      * @param req request instance
@@ -92,4 +114,54 @@ public interface YosemiteApiRestClient {
      * @param transactionFeePayer fee payer account name
      */
     void setTransactionFeePayer(String transactionFeePayer);
+
+    /**
+     * Get the signer which signs all transactions pushed by {@link YosemiteJ}
+     *
+     * @return transaction signer
+     */
+    TransactionSigner getTransactionSigner();
+
+    /**
+     * Set the signer which signs all transactions pushed by {@link YosemiteJ}.
+     * The default signer is {@link WalletTransactionSigner} if the wallet daemon URL is set.
+     * Use {@link LocalTransactionSigner} to sign without the wallet daemon.
+     *
+     * @param transactionSigner transaction signer
+     */
+    void setTransactionSigner(TransactionSigner transactionSigner);
+
+    /**
+     * Get the cache of the contract ABIs which are used to convert the action data to binary format locally
+     *
+     * @return contract ABI cache
+     */
+    ContractAbiCache getContractAbiCache();
+
+    /**
+     * Get the provider of the cached chain state which is used to build the transaction by {@link YosemiteJ}
+     *
+     * @return chain state provider
+     */
+    ChainStateProvider getChainStateProvider();
+
+    /**
+     * Get the pool of the nodes which the chain API requests are routed to.
+     * @return NodePool instance; null if the client has only one node
+     */
+    NodePool getNodePool();
+
+    /**
+     * Get the executor on which the asynchronous results of this client are completed.
+     * @return AsyncExecutor instance
+     */
+    AsyncExecutor getAsyncExecutor();
+
+    /**
+     * Stop the background threads of this client: the refresh of the chain state and the health check of the nodes.
+     * The HTTP engine is released as well if no other client of the equal {@link HttpClientOptions} uses it.
+     * The client must not be used after it's closed.
+     */
+    @Override
+    void close();
 }
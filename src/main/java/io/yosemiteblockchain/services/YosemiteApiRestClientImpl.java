@@ -1,12 +1,17 @@
 package io.yosemiteblockchain.services;
 
+import com.google.gson.Gson;
 import io.yosemiteblockchain.data.remote.api.*;
 import io.yosemiteblockchain.data.remote.chain.*;
 import io.yosemiteblockchain.data.remote.chain.account.Account;
 import io.yosemiteblockchain.data.remote.history.action.Actions;
 import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
 import io.yosemiteblockchain.data.types.TypeAsset;
+import io.yosemiteblockchain.util.AsyncExecutor;
 import io.yosemiteblockchain.util.StringUtils;
+import io.yosemiteblockchain.util.Utils;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
 
 import java.util.*;
 
@@ -15,22 +20,61 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
     private final ApiServiceExecutor<YosemiteChainApiService> yxChainApiService;
     private final ApiServiceExecutor<YosemiteHistoryApiService> yxHistoryApiService;
     private final ApiServiceExecutor<YosemiteWalletApiService> yxWalletApiService;
+    private final NodePool nodePool;
+    private final Gson gson = Utils.createYosemiteJGson();
 
+    private final AsyncExecutor asyncExecutor;
     private int txExpirationInMillis;
     private String transactionVoteTarget;
     private String transactionFeePayer;
+    private TransactionSigner transactionSigner;
+    private final ContractAbiCache contractAbiCache = new ContractAbiCache(this);
+    private final ChainStateProvider chainStateProvider = new ChainStateProvider(this);
 
     YosemiteApiRestClientImpl(String chainBaseUrl, String walletBaseUrl, String historyBaseUrl, int txExpirationInMillis,
-                              String transactionVoteTarget) {
-        yxChainApiService = ApiServiceExecutor.create(YosemiteChainApiService.class, chainBaseUrl);
-        yxWalletApiService = ApiServiceExecutor.create(YosemiteWalletApiService.class, walletBaseUrl);
+                              String transactionVoteTarget, TransactionSigner transactionSigner) {
+        this(chainBaseUrl, walletBaseUrl, historyBaseUrl, txExpirationInMillis, transactionVoteTarget, transactionSigner,
+                HttpClientOptions.DEFAULT);
+    }
+
+    YosemiteApiRestClientImpl(String chainBaseUrl, String walletBaseUrl, String historyBaseUrl, int txExpirationInMillis,
+                              String transactionVoteTarget, TransactionSigner transactionSigner,
+                              HttpClientOptions httpClientOptions) {
+        this(Collections.singletonList(chainBaseUrl), walletBaseUrl, historyBaseUrl, txExpirationInMillis,
+                transactionVoteTarget, transactionSigner, httpClientOptions);
+    }
+
+    /**
+     * If more than one chain base URL is given, the chain API requests are routed by {@link NodePool}.
+     */
+    YosemiteApiRestClientImpl(List<String> chainBaseUrls, String walletBaseUrl, String historyBaseUrl, int txExpirationInMillis,
+                              String transactionVoteTarget, TransactionSigner transactionSigner,
+                              HttpClientOptions httpClientOptions) {
+        if (chainBaseUrls.size() > 1) {
+            nodePool = new NodePool(chainBaseUrls, httpClientOptions);
+            yxChainApiService = ApiServiceExecutor.create(YosemiteChainApiService.class, nodePool, httpClientOptions);
+        } else {
+            nodePool = null;
+            yxChainApiService = ApiServiceExecutor.create(YosemiteChainApiService.class, chainBaseUrls.get(0), httpClientOptions);
+        }
+        if (walletBaseUrl != null) {
+            yxWalletApiService = ApiServiceExecutor.create(YosemiteWalletApiService.class, walletBaseUrl, httpClientOptions);
+        } else {
+            yxWalletApiService = null;
+        }
         if (historyBaseUrl != null) {
-            yxHistoryApiService = ApiServiceExecutor.create(YosemiteHistoryApiService.class, historyBaseUrl);
+            yxHistoryApiService = ApiServiceExecutor.create(YosemiteHistoryApiService.class, historyBaseUrl, httpClientOptions);
         } else {
             yxHistoryApiService = null;
         }
+        this.asyncExecutor = httpClientOptions.getAsyncExecutor();
         this.txExpirationInMillis = txExpirationInMillis;
         this.transactionVoteTarget = transactionVoteTarget;
+        if (transactionSigner != null) {
+            this.transactionSigner = transactionSigner;
+        } else if (yxWalletApiService != null) {
+            this.transactionSigner = new WalletTransactionSigner(this);
+        }
     }
 
     @Override
@@ -54,6 +98,19 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
 
     @Override
     public Request<TableRow> getTableRows(String contract, String scope, String table, GetTableOptions options) {
+        return new Request<>(yxChainApiService.getService().getTableRows(
+                getTableRowsParameters(contract, scope, table, options)), yxChainApiService);
+    }
+
+    @Override
+    public <T> Request<TableRowPage<T>> getTableRows(String contract, String scope, String table, GetTableOptions options,
+                                                    Class<T> rowType) {
+        Call<ResponseBody> call = yxChainApiService.getService().getTableRowsStream(
+                getTableRowsParameters(contract, scope, table, options));
+        return new Request<>(new TableRowsCall<>(call, gson, gson.getAdapter(rowType)), yxChainApiService);
+    }
+
+    private static Map<String, String> getTableRowsParameters(String contract, String scope, String table, GetTableOptions options) {
         Map<String, String> requestParameters = new LinkedHashMap<>();
 
         requestParameters.put("code", contract);
@@ -78,7 +135,19 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
                 requestParameters.put("key_type", options.getKeyType());
             }
         }
-        return new Request<>(yxChainApiService.getService().getTableRows(requestParameters), yxChainApiService);
+        return requestParameters;
+    }
+
+    @Override
+    public Request<GetAbiResponse> getAbi(String accountName) {
+        LinkedHashMap<String, String> requestParameters = new LinkedHashMap<>(1);
+        requestParameters.put("account_name", accountName);
+        return new Request<>(yxChainApiService.getService().getAbi(requestParameters), yxChainApiService);
+    }
+
+    @Override
+    public Request<GetCodeResponse> getCode(String accountName) {
+        return new Request<>(yxChainApiService.getService().getCode(new GetCodeRequest(accountName)), yxChainApiService);
     }
 
     @Override
@@ -118,6 +187,7 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
 
     @Override
     public Request<List<String>> getPublicKeys() {
+        if (yxWalletApiService == null) throw new IllegalStateException("Wallet daemon URL is not set");
         return new Request<>(yxWalletApiService.getService().getPublicKeys(), yxWalletApiService);
     }
 
@@ -133,6 +203,7 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
 
     @Override
     public Request<String> createKey(String walletName, String keyType) {
+        if (yxWalletApiService == null) throw new IllegalStateException("Wallet daemon URL is not set");
         if (StringUtils.isEmpty(walletName)) throw new IllegalArgumentException();
         if (StringUtils.isEmpty(keyType)) throw new IllegalArgumentException();
 
@@ -146,6 +217,7 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
 
     @Override
     public Request<SignedTransaction> signTransaction(SignedTransaction transactionToSign, List<String> publicKeys, String chainId) {
+        if (yxWalletApiService == null) throw new IllegalStateException("Wallet daemon URL is not set");
         Collection collectionReq = new ArrayList();
         collectionReq.add(transactionToSign);
         collectionReq.add(publicKeys);
@@ -156,6 +228,7 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
 
     @Override
     public Request<String> signDigest(String hexData, String pubKey) {
+        if (yxWalletApiService == null) throw new IllegalStateException("Wallet daemon URL is not set");
 
         Collection collectionReq = new ArrayList();
 
@@ -204,4 +277,49 @@ public class YosemiteApiRestClientImpl implements YosemiteApiRestClient {
     public void setTransactionFeePayer(String transactionFeePayer) {
         this.transactionFeePayer = transactionFeePayer;
     }
+
+    @Override
+    public TransactionSigner getTransactionSigner() {
+        return transactionSigner;
+    }
+
+    @Override
+    public void setTransactionSigner(TransactionSigner transactionSigner) {
+        this.transactionSigner = transactionSigner;
+    }
+
+    @Override
+    public ContractAbiCache getContractAbiCache() {
+        return contractAbiCache;
+    }
+
+    @Override
+    public ChainStateProvider getChainStateProvider() {
+        return chainStateProvider;
+    }
+
+    @Override
+    public NodePool getNodePool() {
+        return nodePool;
+    }
+
+    @Override
+    public AsyncExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    @Override
+    public void close() {
+        chainStateProvider.close();
+        if (nodePool != null) {
+            nodePool.close();
+        }
+        yxChainApiService.close();
+        if (yxWalletApiService != null) {
+            yxWalletApiService.close();
+        }
+        if (yxHistoryApiService != null) {
+            yxHistoryApiService.close();
+        }
+    }
 }
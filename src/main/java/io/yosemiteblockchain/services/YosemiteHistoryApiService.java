@@ -9,9 +9,13 @@ import retrofit2.http.Query;
 
 public interface YosemiteHistoryApiService {
 
+    @ReadOnly
+    @SingleFlight
     @GET("/transaction/{txId}")
     Call<Transaction> getTransaction(@Path("txId") String txId);
 
+    @ReadOnly
+    @SingleFlight
     @GET("/account/{accountName}/actions/received")
     Call<Actions> getActions(@Path("accountName") String accountName, @Query("start") long start, @Query("offset") int offset);
 }
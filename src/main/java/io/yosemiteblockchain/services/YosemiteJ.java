@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.yosemiteblockchain.services.yxcontracts.StandardTokenConsts;
 import io.yosemiteblockchain.crypto.digest.Sha256;
 import io.yosemiteblockchain.data.remote.api.AbiJsonToBinRequest;
+import io.yosemiteblockchain.data.remote.api.AbiJsonToBinResponse;
 import io.yosemiteblockchain.data.remote.api.GetRequiredKeysRequest;
 import io.yosemiteblockchain.data.remote.chain.*;
 import io.yosemiteblockchain.data.remote.history.action.GetTableOptions;
@@ -12,11 +13,14 @@ import io.yosemiteblockchain.data.types.TypePermission;
 import io.yosemiteblockchain.exception.YosemiteApiException;
 import io.yosemiteblockchain.util.StringUtils;
 import io.yosemiteblockchain.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 import static io.yosemiteblockchain.Consts.YOSEMITE_STANDARD_TOKEN_ABI_CONTRACT;
@@ -24,6 +28,8 @@ import static java.util.stream.Collectors.toList;
 
 public abstract class YosemiteJ {
 
+    private final static Logger logger = LoggerFactory.getLogger(YosemiteJ.class);
+
     private final YosemiteApiRestClient mYosemiteApiRestClient;
 
     protected static final Gson gson = Utils.createYosemiteJGson();
@@ -32,23 +38,57 @@ public abstract class YosemiteJ {
         mYosemiteApiRestClient = yosemiteApiRestClient;
     }
 
+    YosemiteApiRestClient getApiRestClient() {
+        return mYosemiteApiRestClient;
+    }
+
     private CompletableFuture<Action> getActionWithBinaryData(final String contract, String actionName, String data,
                                                               Collection<TypePermission> permissions) {
         String abiTarget = contract;
         if (StandardTokenConsts.STANDARD_TOKEN_ACTIONS.contains(actionName)) {
             abiTarget = YOSEMITE_STANDARD_TOKEN_ABI_CONTRACT;
         }
-        AbiJsonToBinRequest abiJsonToBinRequest = new AbiJsonToBinRequest(abiTarget, actionName, data);
 
-        return mYosemiteApiRestClient.abiJsonToBin(abiJsonToBinRequest).executeAsync().thenApply(abiJsonToBinRes -> {
+        return getBinaryData(abiTarget, actionName, data).thenApply(binargs -> {
             Action action = new Action(contract, actionName);
             action.setAuthorization(permissions);
-            action.setData(abiJsonToBinRes.getBinargs());
+            action.setData(binargs);
 
             return action;
         });
     }
 
+    private CompletableFuture<String> getBinaryData(final String abiTarget, String actionName, String data) {
+        ContractAbiCache contractAbiCache = mYosemiteApiRestClient.getContractAbiCache();
+        if (contractAbiCache == null || !contractAbiCache.isEnabled()) {
+            return getBinaryDataByChain(abiTarget, actionName, data);
+        }
+
+        return contractAbiCache.getSerializer(abiTarget).handle((serializer, throwable) -> {
+            if (throwable != null) {
+                logger.debug("failed to get abi of " + abiTarget, throwable);
+                return null;
+            }
+            if (!serializer.hasAction(actionName)) {
+                return null;
+            }
+            try {
+                return serializer.actionJsonToHex(actionName, data);
+            } catch (RuntimeException e) {
+                logger.debug("failed to convert " + abiTarget + "::" + actionName + " locally", e);
+                return null;
+            }
+        }).thenCompose(binargs -> binargs != null ?
+                CompletableFuture.completedFuture(binargs) : getBinaryDataByChain(abiTarget, actionName, data));
+    }
+
+    private CompletableFuture<String> getBinaryDataByChain(final String abiTarget, String actionName, String data) {
+        AbiJsonToBinRequest abiJsonToBinRequest = new AbiJsonToBinRequest(abiTarget, actionName, data);
+
+        return mYosemiteApiRestClient.abiJsonToBin(abiJsonToBinRequest).executeAsync().thenApply(
+                AbiJsonToBinResponse::getBinargs);
+    }
+
     private CompletableFuture<PackedTransaction> signAndPackTransaction(final SignedTransaction txnBeforeSign,
                                                                         final String chainId,
                                                                         List<String> requiredPublicKeys) {
@@ -69,16 +109,18 @@ public abstract class YosemiteJ {
     public CompletableFuture<SignedTransaction> signTransaction(SignedTransaction txnBeforeSign,
                                                                 String chainId,
                                                                 List<String> requiredPublicKeys) {
-        if (requiredPublicKeys == null || requiredPublicKeys.isEmpty()) {
-            List<String> pubKeys = mYosemiteApiRestClient.getPublicKeys().execute();
-            GetRequiredKeysRequest getRequiredKeysRequest = new GetRequiredKeysRequest(txnBeforeSign, pubKeys);
+        TransactionSigner transactionSigner = mYosemiteApiRestClient.getTransactionSigner();
+        if (transactionSigner == null) throw new IllegalStateException("transaction signer is not set");
 
-            return mYosemiteApiRestClient.getRequiredKeys(getRequiredKeysRequest).executeAsync().thenApply(
-                    keysResult ->
-                        mYosemiteApiRestClient.signTransaction(txnBeforeSign, keysResult.getRequiredKeys(), chainId).execute());
+        if (requiredPublicKeys == null || requiredPublicKeys.isEmpty()) {
+            return transactionSigner.getAvailablePublicKeys().thenCompose(pubKeys -> {
+                GetRequiredKeysRequest getRequiredKeysRequest = new GetRequiredKeysRequest(txnBeforeSign, pubKeys);
+                return mYosemiteApiRestClient.getRequiredKeys(getRequiredKeysRequest).executeAsync();
+            }).thenCompose(keysResult ->
+                    transactionSigner.signTransaction(txnBeforeSign, keysResult.getRequiredKeys(), chainId));
         }
 
-        return mYosemiteApiRestClient.signTransaction(txnBeforeSign, requiredPublicKeys, chainId).executeAsync();
+        return transactionSigner.signTransaction(txnBeforeSign, requiredPublicKeys, chainId);
     }
 
     /**
@@ -97,21 +139,26 @@ public abstract class YosemiteJ {
                                                                 final TransactionParameters params) {
         if (params == null) throw new IllegalArgumentException("params cannot be null");
 
-        return getActionWithBinaryData(contract, actionName, data, params.getPermissions()).thenCompose(action ->
-            mYosemiteApiRestClient.getInfo().executeAsync().thenCompose(info -> {
-
-                SignedTransaction txnBeforeSign = buildSignedTransaction(action, info, params);
-
-                return signTransaction(txnBeforeSign, info.getChainId(), params.getPublicKeys());
-            })
+        // the action data and the chain state are requested concurrently
+        CompletableFuture<ChainStateProvider.ChainState> chainStateFuture = getChainState();
+        return getActionWithBinaryData(contract, actionName, data, params.getPermissions()).thenCombine(chainStateFuture,
+            (action, chainState) -> buildSignedTransaction(action, chainState, params)
+        ).thenCompose(txnBeforeSign ->
+            signTransaction(txnBeforeSign, chainStateFuture.join().getChainId(), params.getPublicKeys())
         );
     }
 
-    private SignedTransaction buildSignedTransaction(Action action, Info info, TransactionParameters params) {
-        return buildSignedTransaction(Stream.of(action).collect(toList()), info, params);
+    private CompletableFuture<ChainStateProvider.ChainState> getChainState() {
+        return mYosemiteApiRestClient.getChainStateProvider().getChainState();
     }
 
-    private SignedTransaction buildSignedTransaction(List<Action> actions, Info info, TransactionParameters params) {
+    private SignedTransaction buildSignedTransaction(Action action, ChainStateProvider.ChainState chainState,
+                                                     TransactionParameters params) {
+        return buildSignedTransaction(Stream.of(action).collect(toList()), chainState, params);
+    }
+
+    private SignedTransaction buildSignedTransaction(List<Action> actions, ChainStateProvider.ChainState chainState,
+                                                     TransactionParameters params) {
         String txFeePayer = params.getTransactionFeePayer() != null ?
                 params.getTransactionFeePayer() : mYosemiteApiRestClient.getTransactionFeePayer();
         if (StringUtils.isEmpty(txFeePayer)) {
@@ -121,8 +168,8 @@ public abstract class YosemiteJ {
         SignedTransaction txnBeforeSign = new SignedTransaction();
 
         txnBeforeSign.addActions(actions);
-        txnBeforeSign.setReferenceBlock(info.getHeadBlockId());
-        txnBeforeSign.setExpiration(info.getTimeAfterHeadBlockTime(
+        txnBeforeSign.setReferenceBlock(chainState.getReferenceBlockId());
+        txnBeforeSign.setExpiration(chainState.getExpiration(
                 params.getTxExpirationInMillis() >= 0 ? params.getTxExpirationInMillis() : mYosemiteApiRestClient.getTxExpirationInMillis()));
         txnBeforeSign.setStringTransactionExtension(TransactionExtensionField.TRANSACTION_VOTE_ACCOUNT,
                 params.getTransactionVoteTarget() != null ? params.getTransactionVoteTarget() : mYosemiteApiRestClient.getTransactionVoteTarget());
@@ -155,13 +202,10 @@ public abstract class YosemiteJ {
             final String contract, final String actionName, final String data, final TransactionParameters params) {
         if (params == null) throw new IllegalArgumentException("params cannot be null");
 
-        return getActionWithBinaryData(contract, actionName, data, params.getPermissions()).thenCompose(action ->
-            mYosemiteApiRestClient.getInfo().executeAsync().thenCompose(info -> {
-                SignedTransaction txnBeforeSign = buildSignedTransaction(action, info, params);
-                return signAndPackTransaction(txnBeforeSign, info.getChainId(), params.getPublicKeys()).thenCompose(packedTx ->
-                        mYosemiteApiRestClient.pushTransaction(packedTx).executeAsync(txnBeforeSign));
-            })
-        );
+        CompletableFuture<ChainStateProvider.ChainState> chainStateFuture = getChainState();
+        return getActionWithBinaryData(contract, actionName, data, params.getPermissions()).thenCombine(chainStateFuture,
+            (action, chainState) -> buildSignedTransaction(action, chainState, params)
+        ).thenCompose(txnBeforeSign -> signAndPushTransaction(txnBeforeSign, chainStateFuture.join().getChainId(), params));
     }
 
     /**
@@ -186,12 +230,19 @@ public abstract class YosemiteJ {
             futures.add(actionWithBinaryDataFuture);
         }
 
-        List<Action> actionList = Stream.of(futures.toArray(new CompletableFuture[0])).map(CompletableFuture<Action>::join).collect(toList());
-        return mYosemiteApiRestClient.getInfo().executeAsync().thenCompose(info -> {
-            SignedTransaction txnBeforeSign = buildSignedTransaction(actionList, info, params);
-            return signAndPackTransaction(txnBeforeSign, info.getChainId(), params.getPublicKeys()).thenCompose(packedTx ->
-                mYosemiteApiRestClient.pushTransaction(packedTx).executeAsync(txnBeforeSign));
-        });
+        // all action data and the chain state are requested concurrently without blocking the caller
+        CompletableFuture<ChainStateProvider.ChainState> chainStateFuture = getChainState();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenCombine(chainStateFuture, (v, chainState) -> {
+            // all futures are already completed
+            List<Action> actionList = futures.stream().map(CompletableFuture::join).collect(toList());
+            return buildSignedTransaction(actionList, chainState, params);
+        }).thenCompose(txnBeforeSign -> signAndPushTransaction(txnBeforeSign, chainStateFuture.join().getChainId(), params));
+    }
+
+    private CompletableFuture<PushedTransaction> signAndPushTransaction(SignedTransaction txnBeforeSign, String chainId,
+                                                                       TransactionParameters params) {
+        return signAndPackTransaction(txnBeforeSign, chainId, params.getPublicKeys()).thenCompose(packedTx ->
+                mYosemiteApiRestClient.pushTransaction(packedTx).executeAsync(packedTx));
     }
 
     /**
@@ -206,6 +257,34 @@ public abstract class YosemiteJ {
         return mYosemiteApiRestClient.getTableRows(contract, scope, table, options).executeAsync();
     }
 
+    /**
+     * Create the scanner which streams all the rows of the table page by page
+     * @param contract the name of the smart contract
+     * @param scope the scope within the contract in which the table is found
+     * @param table the name of the table as specified by the contract abi
+     * @param rowType the class of the row
+     * @param keyExtractor the function to get the unique uint64 key of the row in the scanned index
+     * @return TableScanner instance
+     */
+    public final <T> TableScanner<T> scanTable(String contract, String scope, String table, Class<T> rowType,
+                                               ToLongFunction<? super T> keyExtractor) {
+        return new TableScanner<>(mYosemiteApiRestClient, contract, scope, table, rowType, keyExtractor);
+    }
+
+    /**
+     * Create the scanner which pages the partitions of the key range of the table concurrently
+     * @param contract the name of the smart contract
+     * @param scope the scope within the contract in which the table is found
+     * @param table the name of the table as specified by the contract abi
+     * @param rowType the class of the row
+     * @param keyExtractor the function to get the unique uint64 key of the row in the scanned index
+     * @return ParallelTableScanner instance
+     */
+    public final <T> ParallelTableScanner<T> scanTableInParallel(String contract, String scope, String table, Class<T> rowType,
+                                                                 ToLongFunction<? super T> keyExtractor) {
+        return new ParallelTableScanner<>(mYosemiteApiRestClient, contract, scope, table, rowType, keyExtractor);
+    }
+
     protected TransactionParameters buildCommonParametersWithDefaults(TransactionParameters transactionParameters,
                                                                       String defaultActorAccount) {
         if (transactionParameters == null) {
@@ -0,0 +1,206 @@
+package io.yosemiteblockchain.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor on which the asynchronous results of the client are completed,
+ * so the dependent stages such as signing run on it instead of the HTTP engine threads.
+ * <ul>
+ * <li>{@link #direct()} runs the task on the calling thread; the results are completed on the HTTP engine threads,
+ * which is the cheapest if the dependent stages never block.</li>
+ * <li>{@link #newIoPool(int, int)} is the dedicated pool for the stages which block e.g. on the wallet;
+ * the task is run on the calling thread if the queue is full.</li>
+ * <li>{@link #newWorkStealingPool(int)} is the work-stealing pool for the CPU-bound stages.</li>
+ * <li>{@link #of(Executor)} uses the executor of the application.</li>
+ * </ul>
+ * The pools have the daemon threads and are not shut down by this class unless {@link #shutdown()} is called.
+ */
+public final class AsyncExecutor implements Executor {
+
+    private static final AsyncExecutor DIRECT = new AsyncExecutor("direct", Runnable::run, false);
+
+    private static final AtomicInteger poolIndex = new AtomicInteger();
+
+    private final String name;
+    private final Executor executor;
+    private final boolean owned;
+
+    private AsyncExecutor(String name, Executor executor, boolean owned) {
+        this.name = name;
+        this.executor = executor;
+        this.owned = owned;
+    }
+
+    /**
+     * @return the executor which runs the task on the calling thread
+     */
+    public static AsyncExecutor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * @param threads the number of the threads
+     * @param queueCapacity the maximum number of the waiting tasks; the task is run on the calling thread if it's exceeded
+     * @return the new pool of the fixed number of threads
+     */
+    public static AsyncExecutor newIoPool(int threads, int queueCapacity) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive.");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be positive.");
+        String name = "yosemitej-io-" + poolIndex.incrementAndGet();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new AsyncExecutor(name, pool, true);
+    }
+
+    /**
+     * @param parallelism the number of the worker threads
+     * @return the new work-stealing pool in the async(FIFO) mode
+     */
+    public static AsyncExecutor newWorkStealingPool(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive.");
+        String name = "yosemitej-worker-" + poolIndex.incrementAndGet();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-" + threadIndex.incrementAndGet());
+            return thread;
+        }, null, true);
+        return new AsyncExecutor(name, pool, true);
+    }
+
+    /**
+     * @param executor the executor of the application; it's not shut down by {@link #shutdown()}
+     */
+    public static AsyncExecutor of(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("executor cannot be null.");
+        return executor instanceof AsyncExecutor ? (AsyncExecutor) executor
+                : new AsyncExecutor(executor.getClass().getSimpleName(), executor, false);
+    }
+
+    /**
+     * @return the work-stealing pool of the CPU count used by {@link Async#run(java.util.concurrent.Callable)}
+     */
+    public static AsyncExecutor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if the task is run on the calling thread
+     */
+    public boolean isDirect() {
+        return this == DIRECT;
+    }
+
+    /**
+     * @return the current saturation of the pool; all zero for the direct executor or the unknown type of executor
+     */
+    public Stats getStats() {
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            return new Stats(pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(), pool.getActiveThreadCount(),
+                    pool.getPoolSize(), pool.getStealCount(), 0);
+        } else if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            return new Stats(pool.getQueue().size(), pool.getActiveCount(), pool.getPoolSize(), 0,
+                    pool.getCompletedTaskCount());
+        }
+        return new Stats(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Shut down the pool created by this class. The executor of the application is not shut down.
+     */
+    public void shutdown() {
+        if (owned) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncExecutor{" + name + ", " + getStats() + '}';
+    }
+
+    /**
+     * The saturation of the pool.
+     */
+    public static final class Stats {
+        private final long queueDepth;
+        private final int activeCount;
+        private final int poolSize;
+        private final long stealCount;
+        private final long completedTaskCount;
+
+        Stats(long queueDepth, int activeCount, int poolSize, long stealCount, long completedTaskCount) {
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.poolSize = poolSize;
+            this.stealCount = stealCount;
+            this.completedTaskCount = completedTaskCount;
+        }
+
+        /**
+         * @return the number of the tasks waiting to be run
+         */
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * @return the number of the threads running the tasks
+         */
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * @return the number of the tasks stolen by the other threads of the work-stealing pool
+         */
+        public long getStealCount() {
+            return stealCount;
+        }
+
+        /**
+         * @return the number of the completed tasks of the thread pool; 0 for the work-stealing pool
+         */
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{queueDepth=" + queueDepth + ", activeCount=" + activeCount + ", poolSize=" + poolSize
+                    + ", stealCount=" + stealCount + ", completedTaskCount=" + completedTaskCount + '}';
+        }
+    }
+
+    private static final class DefaultHolder {
+        static final AsyncExecutor INSTANCE = newWorkStealingPool(Runtime.getRuntime().availableProcessors());
+    }
+}
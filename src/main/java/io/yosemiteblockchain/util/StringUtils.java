@@ -26,6 +26,8 @@ package io.yosemiteblockchain.util;
 
 import io.yosemiteblockchain.crypto.util.HexUtils;
 
+import java.nio.charset.StandardCharsets;
+
 public class StringUtils {
     public static boolean isEmpty( CharSequence data ) {
       return ( null == data ) || ( data.length() <= 0);
@@ -37,16 +39,10 @@ public class StringUtils {
      * @return the result of conversion e.g. I am user3
      */
     public static String convertHexStringToString(String hexString) {
-        StringBuilder sb = new StringBuilder();
-
-        //4962061d207573657233 split into two characters 49, 62, 06, ...
-        for (int i = 0; i < hexString.length() - 1; i += 2) {
-            String output = hexString.substring(i, (i + 2));
-            int decimal = Integer.parseInt(output, 16);
-            sb.append((char) decimal);
-        }
-
-        return sb.toString();
+        //4962061d207573657233 split into two characters 49, 62, 06, ...; the odd last character is ignored
+        byte[] bytes = new byte[hexString.length() / 2];
+        HexUtils.toBytes(hexString, 0, bytes.length * 2, bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
     }
 
     /**
@@ -0,0 +1,135 @@
+package io.yosemiteblockchain.sample;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.yosemiteblockchain.services.ActionSpecifier;
+import io.yosemiteblockchain.services.LocalTransactionSigner;
+import io.yosemiteblockchain.services.TransactionParameters;
+import io.yosemiteblockchain.services.YosemiteApiClientFactory;
+import io.yosemiteblockchain.services.YosemiteApiRestClient;
+import io.yosemiteblockchain.services.yxcontracts.StandardToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the latency of YosemiteJ.pushActions for 1, 10 and 100 actions against a local mock node
+ * which responds after the given delay.
+ * The ABI cache and the chain state cache are disabled, so every action requests abi_json_to_bin
+ * and every transaction requests get_info like a cold client.
+ *
+ * Arguments: [node delay in milliseconds, default 20] [iterations, default 20]
+ */
+public class PushActionsBenchmark extends SampleCommon {
+    private static final String PRIVATE_KEY = "YPV_5HwSdWSAxu5QSVPN6dB9gtTKXFLKSnQTYGa7eLRN91aiw98kCwL";
+    private static final int[] ACTION_COUNTS = {1, 10, 100};
+
+    public static void main(String[] args) throws IOException {
+        int delayMillis = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        HttpServer mockNode = startMockNode(delayMillis);
+        try {
+            String nodeUrl = "http://127.0.0.1:" + mockNode.getAddress().getPort();
+            LocalTransactionSigner signer = new LocalTransactionSigner();
+            String publicKey = signer.addPrivateKey(PRIVATE_KEY);
+
+            YosemiteApiRestClient apiClient = YosemiteApiClientFactory.createYosemiteApiClient(nodeUrl, signer);
+            apiClient.getContractAbiCache().setEnabled(false);
+            apiClient.getChainStateProvider().setEnabled(false);
+            StandardToken standardToken = new StandardToken(apiClient);
+
+            TransactionParameters txParameters = TransactionParameters.Builder()
+                    .addPermission("user1").addPublicKey(publicKey).setTransactionFeePayer("user1").build();
+
+            log("node delay = " + delayMillis + "ms, iterations = " + iterations);
+            for (int actionCount : ACTION_COUNTS) {
+                List<ActionSpecifier> actions = new ArrayList<>();
+                for (int i = 0; i < actionCount; i++) {
+                    actions.add(new ActionSpecifier("yx.ntoken", "transfer",
+                            "{\"from\":\"user1\",\"to\":\"user2\",\"token\":\"1.0000 DKRW\",\"memo\":\"" + i + "\"}"));
+                }
+
+                // warm up
+                standardToken.pushActions(actions, txParameters).join();
+
+                long[] latencies = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    standardToken.pushActions(actions, txParameters).join();
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+                log(String.format("%3d actions: p50 %7.2fms, p90 %7.2fms", actionCount,
+                        latencies[iterations / 2] / 1e6, latencies[iterations * 9 / 10] / 1e6));
+            }
+        } finally {
+            mockNode.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private static HttpServer startMockNode(int delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, responseOf(exchange.getRequestURI().getPath()));
+        });
+        server.start();
+        return server;
+    }
+
+    private static String responseOf(String path) {
+        switch (path) {
+            case "/v1/chain/get_info":
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+                format.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return "{\"chain_id\":\"6376573815dbd2de2d9929027a94aeab3f6e8e0a3ab4c1b7a58d7a8d3e2b0f4c\","
+                        + "\"head_block_num\":1000,\"last_irreversible_block_num\":990,"
+                        + "\"head_block_id\":\"000003e8a2b3c4d5e6f708192a3b4c5d6e7f8091a2b3c4d5e6f708192a3b4c5d\","
+                        + "\"head_block_time\":\"" + format.format(new Date()) + "\"}";
+            case "/v1/chain/abi_json_to_bin":
+                return "{\"binargs\":\"0000000000ea305500000000487a2b9d102700000000000004444b52570000000000\"}";
+            case "/v1/chain/push_transaction":
+                return "{\"transaction_id\":\"4b0e5b3d5f8e8a0e7c6a7c2f5e1d2c3b4a5968778695a4b3c2d1e0f0a1b2c3d4\","
+                        + "\"processed\":{\"id\":\"4b0e5b3d5f8e8a0e7c6a7c2f5e1d2c3b4a5968778695a4b3c2d1e0f0a1b2c3d4\"}}";
+            default:
+                return null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            while (in.read(buffer) != -1) {
+                // drain the request body
+            }
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
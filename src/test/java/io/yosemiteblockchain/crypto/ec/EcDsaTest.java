@@ -0,0 +1,196 @@
+package io.yosemiteblockchain.crypto.ec;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Random;
+
+public class EcDsaTest {
+
+    private static final CurveParam K1 = EcTools.getCurveParam(CurveParam.SECP256_K1);
+    private static final CurveParam R1 = EcTools.getCurveParam(CurveParam.SECP256_R1);
+
+    // the well-known development key pair of EOSIO
+    private static final String K1_PRIVATE_KEY = "5KQwrPbwdL6PhXujxW37FSSQZ1JiwsST4cqQzDeyXtP79zkvFD3";
+    private static final String K1_PUBLIC_KEY = "EOS6MRyAjQq8ud7hVNYcfnVPJqcVpscN5So8BhtHuGYqET5GDW5CV";
+
+    @Test
+    public void testKnownMultiplesK1() {
+        assertPoint("79be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798",
+                "483ada7726a3c4655da4fbfc0e1108a8fd17b448a68554199c47d08ffb10d4b8", K1.multiplyG(BigInteger.ONE));
+        assertPoint("c6047f9441ed7d6d3045406e95c07cd85c778e4b8cef3ca7abac09b95c709ee5",
+                "1ae168fea63dc339a3c58419466ceaeef7f632653266d0e1236431a950cfe52a", K1.multiplyG(BigInteger.valueOf(2)));
+        assertPoint("f9308a019258c31049344f85f89d5229b531c845836f99b08601f113bce036f9",
+                "388f7b0f632de8140fe337e62a37f3566500a99934c2231b6cb9fd7584b8e672", K1.multiplyG(BigInteger.valueOf(3)));
+
+        // (n - 1)G = -G
+        EcPoint minusG = K1.multiplyG(K1.n().subtract(BigInteger.ONE));
+        Assert.assertEquals(K1.G().getX().toBigInteger(), minusG.getX().toBigInteger());
+        Assert.assertEquals(K1.getCurve().getQ().subtract(K1.G().getY().toBigInteger()), minusG.getY().toBigInteger());
+        Assert.assertTrue(K1.multiplyG(K1.n()).isInfinity());
+    }
+
+    @Test
+    public void testKnownMultiplesR1() {
+        assertPoint("7cf27b188d034f7e8a52380304b51ac3c08969e277f21b35a60b48fc47669978",
+                "07775510db8ed040293d9ac69f7430dbba7dade63ce982299e04b79d227873d1", R1.multiplyG(BigInteger.valueOf(2)));
+
+        // the key and the k of RFC 6979 A.2.5, SHA-256 of "sample"
+        BigInteger x = new BigInteger("c9afa9d845ba75166b5c215767b1d6934e50c3db36e89b127b8a622b120f6721", 16);
+        assertPoint("60fed4ba255a9d31c961eb74c6356d68c049b8923b61fa6ce669622e60f29fb6",
+                "7903fe1008b8bc99a41ae9e95628bc64f2f1b20c2d7e9f5177a3c294d4462299", R1.multiplyG(x));
+        BigInteger k = new BigInteger("a6e3c57dd01abe90086538398355dd4c3b17aa873382b0f24d6129493d8aad60", 16);
+        Assert.assertEquals(new BigInteger("efd48b2aacb6a8fd1140dd9cd45e81d69d2c877b56aaf991c34d0ea84eaf3716", 16),
+                R1.multiplyG(k).getX().toBigInteger().mod(R1.n()));
+    }
+
+    @Test
+    public void testMultiplyMatchesAffine() {
+        Random random = new Random(42);
+        for (CurveParam curveParam : new CurveParam[]{K1, R1}) {
+            // not the instance of G, so it's multiplied by wNAF
+            EcPoint p = curveParam.getCurve().decodePoint(curveParam.multiplyG(BigInteger.valueOf(7)).getEncoded());
+            for (int i = 0; i < 8; i++) {
+                BigInteger k = new BigInteger(256, random);
+                BigInteger l = new BigInteger(256, random);
+                EcPoint kG = multiplyAffine(curveParam.G(), k);
+                EcPoint lP = multiplyAffine(p, l);
+
+                assertPoint(kG, curveParam.multiplyG(k));
+                assertPoint(lP, EcTools.multiply(p, l));
+                assertPoint(kG.add(lP), EcTools.sumOfTwoMultiplies(curveParam.G(), k, p, l));
+            }
+        }
+    }
+
+    @Test
+    public void testPublicKeyK1() {
+        EosPrivateKey privateKey = new EosPrivateKey(K1_PRIVATE_KEY);
+        Assert.assertEquals(new EosPublicKey(K1_PUBLIC_KEY), privateKey.getPublicKey());
+        Assert.assertEquals("YOS" + K1_PUBLIC_KEY.substring(3), privateKey.getPublicKey().toString());
+    }
+
+    @Test
+    public void testSignAndRecoverK1() {
+        EosPrivateKey privateKey = new EosPrivateKey(K1_PRIVATE_KEY);
+        for (int i = 0; i < 16; i++) {
+            Sha256 digest = Sha256.from(("message " + i).getBytes(StandardCharsets.UTF_8));
+            EcSignature signature = assertSignature(privateKey, digest);
+
+            // verified by the affine arithmetic
+            BigInteger e = new BigInteger(1, digest.getBytes());
+            BigInteger w = signature.s.modInverse(K1.n());
+            EcPoint q = K1.getCurve().decodePoint(privateKey.getPublicKey().getBytes());
+            EcPoint x = multiplyAffine(K1.G(), e.multiply(w).mod(K1.n())).add(multiplyAffine(q, signature.r.multiply(w).mod(K1.n())));
+            Assert.assertEquals(signature.r, x.getX().toBigInteger().mod(K1.n()));
+        }
+    }
+
+    @Test
+    public void testSignAndRecoverR1() throws Exception {
+        EosPrivateKey privateKey = new EosPrivateKey(EosEcUtil.encodeEosCrypto("PVT", R1, HexUtils.toBytes(
+                "c9afa9d845ba75166b5c215767b1d6934e50c3db36e89b127b8a622b120f6721")));
+        PublicKey jcaPublicKey = toJcaPublicKey(privateKey.getPublicKey());
+
+        for (int i = 0; i < 16; i++) {
+            byte[] message = ("message " + i).getBytes(StandardCharsets.UTF_8);
+            Sha256 digest = Sha256.from(message);
+            EcSignature signature = assertSignature(privateKey, digest);
+
+            // verified by the JDK
+            Signature verifier = Signature.getInstance("NONEwithECDSA");
+            verifier.initVerify(jcaPublicKey);
+            verifier.update(digest.getBytes());
+            Assert.assertTrue(verifier.verify(toDer(signature)));
+        }
+    }
+
+    @Test
+    public void testRandomKeys() {
+        for (int curveParamType : new int[]{CurveParam.SECP256_K1, CurveParam.SECP256_R1}) {
+            for (int i = 0; i < 4; i++) {
+                EosPrivateKey privateKey = new EosPrivateKey(curveParamType);
+                Assert.assertEquals(privateKey, new EosPrivateKey(privateKey.toString()));
+                assertSignature(privateKey, Sha256.from(privateKey.getBytes()));
+            }
+        }
+    }
+
+    private static EcSignature assertSignature(EosPrivateKey privateKey, Sha256 digest) {
+        CurveParam curveParam = privateKey.getCurveParam();
+        EcSignature signature = EcDsa.sign(digest, privateKey);
+
+        // deterministic and canonical
+        Assert.assertEquals(signature, EcDsa.sign(digest, privateKey));
+        Assert.assertSame(curveParam, signature.curveParam);
+        Assert.assertTrue(signature.s.compareTo(curveParam.halfCurveOrder()) <= 0);
+        Assert.assertTrue(signature.isRSEachLength(32));
+
+        EosPublicKey recovered = EcDsa.recoverPubKey(digest.getBytes(), signature);
+        Assert.assertArrayEquals(privateKey.getPublicKey().getBytes(), recovered.getBytes());
+
+        // the recovery id is kept by the string form
+        EcSignature parsed = new EcSignature(signature.toString());
+        Assert.assertEquals(signature.recId, parsed.recId);
+        Assert.assertArrayEquals(privateKey.getPublicKey().getBytes(), EcDsa.recoverPubKey(digest.getBytes(), parsed).getBytes());
+        return signature;
+    }
+
+    private static EcPoint multiplyAffine(EcPoint p, BigInteger k) {
+        EcPoint result = p.getCurve().getInfinity();
+        for (int i = k.bitLength() - 1; i >= 0; i--) {
+            result = result.twice();
+            if (k.testBit(i)) {
+                result = result.add(p);
+            }
+        }
+        return result;
+    }
+
+    private static void assertPoint(String x, String y, EcPoint actual) {
+        Assert.assertEquals(new BigInteger(x, 16), actual.getX().toBigInteger());
+        Assert.assertEquals(new BigInteger(y, 16), actual.getY().toBigInteger());
+    }
+
+    private static void assertPoint(EcPoint expected, EcPoint actual) {
+        Assert.assertEquals(expected.getX().toBigInteger(), actual.getX().toBigInteger());
+        Assert.assertEquals(expected.getY().toBigInteger(), actual.getY().toBigInteger());
+    }
+
+    private static PublicKey toJcaPublicKey(EosPublicKey publicKey) throws Exception {
+        EcPoint q = R1.getCurve().decodePoint(publicKey.getBytes());
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(q.getX().toBigInteger(), q.getY().toBigInteger());
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec));
+    }
+
+    private static byte[] toDer(EcSignature signature) {
+        byte[] r = signature.r.toByteArray();
+        byte[] s = signature.s.toByteArray();
+        ByteArrayOutputStream der = new ByteArrayOutputStream();
+        der.write(0x30);
+        der.write(4 + r.length + s.length);
+        der.write(0x02);
+        der.write(r.length);
+        der.write(r, 0, r.length);
+        der.write(0x02);
+        der.write(s.length);
+        der.write(s, 0, s.length);
+        return der.toByteArray();
+    }
+}
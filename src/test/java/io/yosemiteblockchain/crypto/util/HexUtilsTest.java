@@ -0,0 +1,106 @@
+package io.yosemiteblockchain.crypto.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+public class HexUtilsTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        String hex = HexUtils.toHex(bytes);
+        Assert.assertEquals("000102", hex.substring(0, 6));
+        Assert.assertEquals("7f80", hex.substring(0x7f * 2, 0x81 * 2));
+        Assert.assertEquals("feff", hex.substring(hex.length() - 4));
+        Assert.assertArrayEquals(bytes, HexUtils.toBytes(hex));
+        Assert.assertArrayEquals(bytes, HexUtils.toBytes(hex.toUpperCase()));
+    }
+
+    @Test
+    public void testSeparatorAndSingleByte() {
+        byte[] bytes = {(byte) 0xab, 0x01, (byte) 0xff};
+        Assert.assertEquals("ab:01:ff", HexUtils.toHex(bytes, ":"));
+        Assert.assertEquals("ab01ff", HexUtils.toHex(bytes, null));
+        Assert.assertEquals("0f", HexUtils.toHex((byte) 0x0f));
+        Assert.assertEquals("", HexUtils.toHex(new byte[0]));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        ByteBuffer direct = ByteBuffer.allocateDirect(4);
+        HexUtils.toBytes("DeadBeef", direct);
+        Assert.assertEquals(4, direct.position());
+        direct.flip();
+        Assert.assertEquals("deadbeef", HexUtils.toHex(direct));
+        Assert.assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void testReversed() {
+        Assert.assertArrayEquals(new byte[]{3, 2, 1}, HexUtils.toBytesReversed("010203"));
+    }
+
+    @Test
+    public void testOddLength() {
+        assertInvalid("abc", "Input string must contain an even number of characters");
+        assertInvalid(null, "Input string must contain an even number of characters");
+        try {
+            HexUtils.toBytes("abc", ByteBuffer.allocate(2));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Input string must contain an even number of characters", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNonHexDigit() {
+        assertInvalid("0g", "Invalid hex digit 0g");
+        assertInvalid("zz00", "Invalid hex digit zz");
+        assertInvalid("00 1", "Invalid hex digit  1");
+        try {
+            HexUtils.toBytes("00xy", ByteBuffer.allocateDirect(2));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Invalid hex digit xy", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNonAsciiDigit() {
+        // the digits beyond ASCII are not looked up in the table
+        assertInvalid("\u0660\u0661", "Invalid hex digit \u0660\u0661");
+        assertInvalid("a\uff10", "Invalid hex digit a\uff10");
+        assertInvalid("\u00ff0", "Invalid hex digit \u00ff0");
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testBufferOverflow() {
+        HexUtils.toBytes("010203", ByteBuffer.allocate(2));
+    }
+
+    @Test
+    public void testBufferNotWrittenOnOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(2);
+        try {
+            HexUtils.toBytes("010203", buffer);
+            Assert.fail();
+        } catch (BufferOverflowException e) {
+            Assert.assertEquals(0, buffer.position());
+        }
+    }
+
+    private static void assertInvalid(String hex, String message) {
+        try {
+            HexUtils.toBytes(hex);
+            Assert.fail("accepted " + hex);
+        } catch (RuntimeException e) {
+            Assert.assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.yosemiteblockchain.data.remote.abi;
+
+import com.google.gson.JsonParser;
+import io.yosemiteblockchain.util.Utils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EosAbiSerializerTest {
+
+    private static final String ABI = "{"
+            + "\"types\":[{\"new_type_name\":\"account\",\"type\":\"name\"}],"
+            + "\"structs\":["
+            + "{\"name\":\"transfer\",\"base\":\"\",\"fields\":["
+            + "{\"name\":\"from\",\"type\":\"account_name\"},{\"name\":\"to\",\"type\":\"account_name\"},"
+            + "{\"name\":\"quantity\",\"type\":\"asset\"},{\"name\":\"memo\",\"type\":\"string\"}]},"
+            + "{\"name\":\"oldtransfer\",\"base\":\"\",\"fields\":["
+            + "{\"name\":\"from\",\"type\":\"account_name\"},{\"name\":\"to\",\"type\":\"account_name\"},"
+            + "{\"name\":\"quantity\",\"type\":\"uint64\"}]},"
+            + "{\"name\":\"header\",\"base\":\"\",\"fields\":[{\"name\":\"version\",\"type\":\"uint8\"}]},"
+            + "{\"name\":\"everything\",\"base\":\"header\",\"fields\":["
+            + "{\"name\":\"flag\",\"type\":\"bool\"},{\"name\":\"small\",\"type\":\"int8\"},"
+            + "{\"name\":\"port\",\"type\":\"uint16\"},{\"name\":\"delta\",\"type\":\"int32\"},"
+            + "{\"name\":\"count\",\"type\":\"uint32\"},{\"name\":\"big\",\"type\":\"uint64\"},"
+            + "{\"name\":\"huge\",\"type\":\"int128\"},{\"name\":\"len\",\"type\":\"varuint32\"},"
+            + "{\"name\":\"signed\",\"type\":\"varint32\"},{\"name\":\"ratio\",\"type\":\"float64\"},"
+            + "{\"name\":\"blob\",\"type\":\"bytes\"},{\"name\":\"text\",\"type\":\"string\"},"
+            + "{\"name\":\"hash\",\"type\":\"checksum256\"},{\"name\":\"sec\",\"type\":\"time_point_sec\"},"
+            + "{\"name\":\"time\",\"type\":\"time_point\"},{\"name\":\"slot\",\"type\":\"block_timestamp_type\"},"
+            + "{\"name\":\"code\",\"type\":\"symbol_code\"},{\"name\":\"sym\",\"type\":\"symbol\"},"
+            + "{\"name\":\"key\",\"type\":\"public_key\"},{\"name\":\"who\",\"type\":\"account\"},"
+            + "{\"name\":\"tags\",\"type\":\"string[]\"},{\"name\":\"note\",\"type\":\"string?\"},"
+            + "{\"name\":\"extra\",\"type\":\"uint16$\"}]}],"
+            + "\"actions\":["
+            + "{\"name\":\"transfer\",\"type\":\"transfer\"},{\"name\":\"oldtransfer\",\"type\":\"oldtransfer\"},"
+            + "{\"name\":\"everything\",\"type\":\"everything\"}],"
+            + "\"tables\":[]}";
+
+    private static final String EVERYTHING_JSON = "{\"version\":1,\"flag\":true,\"small\":-1,\"port\":8888,\"delta\":-2,"
+            + "\"count\":4294967295,\"big\":\"18446744073709551615\",\"huge\":\"-1\",\"len\":300,\"signed\":-1,"
+            + "\"ratio\":1.5,\"blob\":\"cafe\",\"text\":\"yosemite\","
+            + "\"hash\":\"abababababababababababababababababababababababababababababababab\","
+            + "\"sec\":\"2018-01-01T00:00:00\",\"time\":\"2018-01-01T00:00:00.500\",\"slot\":\"2018-01-01T00:00:00.000\","
+            + "\"code\":\"EOS\",\"sym\":\"4,EOS\",\"key\":\"EOS6MRyAjQq8ud7hVNYcfnVPJqcVpscN5So8BhtHuGYqET5GDW5CV\","
+            + "\"who\":\"eosio\",\"tags\":[\"a\",\"bc\"],\"note\":null}";
+
+    private static final String EVERYTHING_HEX = "01" // version of the base
+            + "01" + "ff" + "b822" + "feffffff" + "ffffffff" + "ffffffffffffffff"
+            + "ffffffffffffffffffffffffffffffff" // int128
+            + "ac02" // varuint32
+            + "01" // zigzag
+            + "000000000000f83f"
+            + "02cafe" + "08796f73656d697465"
+            + "abababababababababababababababababababababababababababababababab"
+            + "007a495a" + "2021daa9ab610500" + "006db843"
+            + "454f530000000000" + "04454f5300000000"
+            + "00" + "02c0ded2bc1f1305fb0faac5e6c03ee3a1924234985427b6167ca569d13df435cf"
+            + "0000000000ea3055"
+            + "02" + "0161" + "026263"
+            + "00";
+
+    private static EosAbiSerializer createSerializer() {
+        return new EosAbiSerializer(Utils.createYosemiteJGson().fromJson(ABI, EosAbiMain.class));
+    }
+
+    @Test
+    public void testTransfer() {
+        // packed by abi_json_to_bin of eosio.token
+        Assert.assertEquals("0000000000ea305500a6823403ea3055102700000000000004454f5300000000046d656d6f",
+                createSerializer().actionJsonToHex("transfer",
+                        "{\"from\":\"eosio\",\"to\":\"eosio.token\",\"quantity\":\"1.0000 EOS\",\"memo\":\"memo\"}"));
+    }
+
+    @Test
+    public void testAbiJsonToBinExample() {
+        // the example of abi_json_to_bin in the EOSIO RPC reference
+        Assert.assertEquals("000000008093dd74000000000094dd74e803000000000000",
+                createSerializer().actionJsonToHex("oldtransfer", "{\"from\":\"initb\",\"to\":\"initc\",\"quantity\":1000}"));
+    }
+
+    @Test
+    public void testStructByPosition() {
+        Assert.assertEquals("000000008093dd74000000000094dd74e803000000000000",
+                createSerializer().actionJsonToHex("oldtransfer", "[\"initb\",\"initc\",\"1000\"]"));
+    }
+
+    @Test
+    public void testBuiltInTypes() {
+        EosAbiSerializer serializer = createSerializer();
+        Assert.assertEquals(EVERYTHING_HEX, serializer.actionJsonToHex("everything", EVERYTHING_JSON));
+
+        // the optional value and the binary extension
+        String withExtension = EVERYTHING_JSON.replace("\"note\":null", "\"note\":\"n\",\"extra\":1");
+        Assert.assertEquals(EVERYTHING_HEX.substring(0, EVERYTHING_HEX.length() - 2) + "01016e" + "0100",
+                serializer.actionJsonToHex("everything", withExtension));
+    }
+
+    @Test
+    public void testDecodeAndEncodeAgain() {
+        EosAbiSerializer serializer = createSerializer();
+        String json = serializer.actionHexToJson("everything", EVERYTHING_HEX);
+        Assert.assertEquals(EVERYTHING_HEX, serializer.actionJsonToHex("everything", json));
+        Assert.assertEquals("EOS", new JsonParser().parse(json).getAsJsonObject().get("code").getAsString());
+
+        String transferHex = "0000000000ea305500a6823403ea3055102700000000000004454f5300000000046d656d6f";
+        Assert.assertEquals(new JsonParser().parse(
+                "{\"from\":\"eosio\",\"to\":\"eosio.token\",\"quantity\":\"1.0000 EOS\",\"memo\":\"memo\"}"),
+                new JsonParser().parse(serializer.actionHexToJson("transfer", transferHex)));
+    }
+
+    @Test(expected = EosAbiSerializer.AbiSerializationException.class)
+    public void testUnknownAction() {
+        createSerializer().actionJsonToHex("issue", "{}");
+    }
+
+    @Test(expected = EosAbiSerializer.AbiSerializationException.class)
+    public void testMissingField() {
+        createSerializer().actionJsonToHex("transfer", "{\"from\":\"eosio\",\"to\":\"eosio.token\",\"memo\":\"memo\"}");
+    }
+
+    @Test(expected = EosAbiSerializer.AbiSerializationException.class)
+    public void testWrongValue() {
+        createSerializer().actionJsonToHex("oldtransfer", "{\"from\":\"initb\",\"to\":\"initc\",\"quantity\":\"many\"}");
+    }
+
+    @Test(expected = EosAbiSerializer.AbiSerializationException.class)
+    public void testTruncatedData() {
+        createSerializer().actionHexToJson("oldtransfer", "000000008093dd74000000000094dd74e803");
+    }
+}
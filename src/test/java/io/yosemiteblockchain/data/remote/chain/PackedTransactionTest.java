@@ -0,0 +1,156 @@
+package io.yosemiteblockchain.data.remote.chain;
+
+import com.google.gson.Gson;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.TypePermission;
+import io.yosemiteblockchain.util.Utils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class PackedTransactionTest {
+
+    // packed by hand: header, no context free action, eosio.token::transfer by eosio@active with data 0102, no extension
+    static final String PACKED_TRX = "007a495a" + "0a00" + "11223344" + "00" + "00" + "00"
+            + "00"
+            + "01" + "00a6823403ea3055" + "000000572d3ccdcd" + "01" + "0000000000ea3055" + "00000000a8ed3232" + "020102"
+            + "00";
+
+    // SHA-256 of PACKED_TRX
+    static final String TRANSACTION_ID = "dfc6867d5c5ee710c8c7fd206c9c871505d3709e7695e3375d66d60a5b59b583";
+
+    private static final String SIGNATURE = "SIG_K1_signature";
+
+    private static final String CHAIN_ID = "047316f411b2db9ba0f600fdbca8e3bbd224d82a367ff02fbd355bb0675288e3";
+
+    static SignedTransaction createTransaction() {
+        SignedTransaction transaction = new SignedTransaction();
+        transaction.setExpiration("2018-01-01T00:00:00");
+        transaction.setReferenceBlock("0000000a" + "00000000" + "11223344" + "00000000000000000000000000000000000000000000000000000000");
+        transaction.addAction(new Action("eosio.token", "transfer", new TypePermission("eosio"), "0102"));
+        return transaction;
+    }
+
+    @Test
+    public void testKnownVector() {
+        SignedTransaction transaction = createTransaction();
+        PackedTransaction packed = new PackedTransaction(transaction);
+        Assert.assertEquals(PACKED_TRX, packed.getSerializedTransaction().toHex());
+        Assert.assertEquals(TRANSACTION_ID, packed.getId());
+        Assert.assertEquals(TRANSACTION_ID, transaction.getId());
+    }
+
+    @Test
+    public void testRoundTripUncompressed() {
+        assertRoundTrip(PackedTransaction.CompressType.none, false);
+        assertRoundTrip(PackedTransaction.CompressType.none, true);
+    }
+
+    @Test
+    public void testRoundTripZlib() {
+        assertRoundTrip(PackedTransaction.CompressType.zlib, false);
+        assertRoundTrip(PackedTransaction.CompressType.zlib, true);
+    }
+
+    private static void assertRoundTrip(PackedTransaction.CompressType compressType, boolean contextFreeData) {
+        SignedTransaction transaction = createTransaction();
+        transaction.getSignatures().add(SIGNATURE);
+        if (contextFreeData) {
+            transaction.getCtxFreeData().addAll(Arrays.asList("cafe", "", "0102030405"));
+        }
+        PackedTransaction packed = new PackedTransaction(transaction, compressType);
+
+        // the one deserialized from json has only the exposed fields
+        Gson gson = Utils.createYosemiteJGson();
+        PackedTransaction fromJson = gson.fromJson(gson.toJson(packed), PackedTransaction.class);
+
+        for (SignedTransaction unpacked : new SignedTransaction[]{packed.unpack(), fromJson.unpack()}) {
+            Assert.assertEquals(TRANSACTION_ID, unpacked.getId());
+            Assert.assertEquals(PACKED_TRX, unpacked.getSerialized().toHex());
+            Assert.assertEquals(transaction.getExpiration(), unpacked.getExpiration());
+            Assert.assertEquals(transaction.getRefBlockNum(), unpacked.getRefBlockNum());
+            Assert.assertEquals(transaction.getRefBlockPrefix(), unpacked.getRefBlockPrefix());
+            Assert.assertEquals(Collections.singletonList(SIGNATURE), unpacked.getSignatures());
+            Assert.assertEquals(transaction.getCtxFreeData(), unpacked.getCtxFreeData());
+
+            Assert.assertEquals(1, unpacked.getActions().size());
+            Action action = unpacked.getActions().get(0);
+            Assert.assertEquals("eosio.token", action.getAccount());
+            Assert.assertEquals("transfer", action.getName());
+            Assert.assertEquals("0102", action.getData().getAsString());
+            TypePermission permission = action.getAuthorization().iterator().next();
+            Assert.assertEquals(new TypePermission("eosio", "active"), permission);
+
+            // the same digest is signed for the unpacked transaction
+            Assert.assertEquals(transaction.getDigestForSignature(CHAIN_ID),
+                    unpacked.getDigestForSignature(CHAIN_ID));
+        }
+    }
+
+    @Test
+    public void testZlibIsCompressed() {
+        SignedTransaction transaction = createTransaction();
+        transaction.getCtxFreeData().add("cafe");
+        PackedTransaction packed = new PackedTransaction(transaction, PackedTransaction.CompressType.zlib);
+        String packedTrx = Utils.createYosemiteJGson().toJsonTree(packed).getAsJsonObject().get("packed_trx").getAsString();
+
+        Assert.assertNotEquals(PACKED_TRX, packedTrx);
+        Assert.assertEquals(PACKED_TRX, HexUtils.toHex(
+                PackedTransaction.decompress(HexUtils.toBytes(packedTrx), PackedTransaction.CompressType.zlib)));
+        Assert.assertEquals(TRANSACTION_ID, packed.getId());
+    }
+
+    @Test
+    public void testUnpackWithoutSignatures() {
+        SignedTransaction unpacked = PackedTransaction.unpack(PACKED_TRX, PackedTransaction.CompressType.none);
+        Assert.assertEquals(TRANSACTION_ID, unpacked.getId());
+        Assert.assertTrue(unpacked.getSignatures().isEmpty());
+        Assert.assertTrue(unpacked.getCtxFreeData().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        PackedTransaction.unpack(PACKED_TRX.substring(0, PACKED_TRX.length() - 4), PackedTransaction.CompressType.none);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrailingBytes() {
+        PackedTransaction.unpack(PACKED_TRX + "00", PackedTransaction.CompressType.none);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidZlib() {
+        PackedTransaction.unpack(PACKED_TRX, PackedTransaction.CompressType.zlib);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedContextFreeData() {
+        PackedTransaction.unpack(PACKED_TRX, PackedTransaction.CompressType.none, null, "0104cafe");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHugeActionCount() {
+        PackedTransaction.unpack("007a495a" + "0a00" + "11223344" + "00" + "00" + "00" + "00" + "ffffffff07",
+                PackedTransaction.CompressType.none);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeActionDataLength() {
+        PackedTransaction.unpack("007a495a" + "0a00" + "11223344" + "00" + "00" + "00"
+                + "00"
+                + "01" + "00a6823403ea3055" + "000000572d3ccdcd" + "00" + "ffffffff0f" + "0102"
+                + "00", PackedTransaction.CompressType.none);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHugeContextFreeDataCount() {
+        PackedTransaction.unpack(PACKED_TRX, PackedTransaction.CompressType.none, null, "ffffffff07");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeContextFreeDataLength() {
+        PackedTransaction.unpack(PACKED_TRX, PackedTransaction.CompressType.none, null, "01ffffffff0f");
+    }
+}
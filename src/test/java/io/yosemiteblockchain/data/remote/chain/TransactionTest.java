@@ -0,0 +1,107 @@
+package io.yosemiteblockchain.data.remote.chain;
+
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import io.yosemiteblockchain.data.types.EosByteWriter;
+import io.yosemiteblockchain.data.types.TypePermission;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class TransactionTest {
+
+    @Test
+    public void testSerializedOnce() {
+        SignedTransaction transaction = PackedTransactionTest.createTransaction();
+        SerializedTransaction serialized = transaction.getSerialized();
+        Assert.assertSame(serialized, transaction.getSerialized());
+        Assert.assertSame(serialized, new PackedTransaction(transaction).getSerializedTransaction());
+        Assert.assertEquals(PackedTransactionTest.TRANSACTION_ID, serialized.getId());
+
+        // the kept bytes are written as they are
+        EosByteWriter writer = new EosByteWriter(16);
+        transaction.pack(writer);
+        Assert.assertEquals(PackedTransactionTest.PACKED_TRX, HexUtils.toHex(writer.toBytes()));
+    }
+
+    @Test
+    public void testActionModified() {
+        SignedTransaction transaction = PackedTransactionTest.createTransaction();
+        SerializedTransaction serialized = transaction.getSerialized();
+
+        Action action = transaction.getActions().get(0);
+        action.setData("0103");
+        Assert.assertNotSame(serialized, transaction.getSerialized());
+        Assert.assertEquals(PackedTransactionTest.PACKED_TRX.replace("020102", "020103"), transaction.getSerialized().toHex());
+        assertSameAsFreshlyPacked(transaction);
+
+        action.setAuthorization(Collections.singletonList(new TypePermission("eosio", "owner")));
+        assertSameAsFreshlyPacked(transaction);
+        action.setName("issue");
+        assertSameAsFreshlyPacked(transaction);
+        action.setAccount("yx.token");
+        assertSameAsFreshlyPacked(transaction);
+    }
+
+    @Test
+    public void testTransactionModified() {
+        SignedTransaction transaction = PackedTransactionTest.createTransaction();
+        String id = transaction.getId();
+
+        transaction.setExpiration("2018-01-01T00:00:01");
+        Assert.assertNotEquals(id, transaction.getId());
+        assertSameAsFreshlyPacked(transaction);
+
+        transaction.addAction(new Action("eosio.token", "transfer", new TypePermission("eosio"), "0102"));
+        assertSameAsFreshlyPacked(transaction);
+
+        transaction.setStringTransactionExtension(TransactionExtensionField.TRANSACTION_FEE_PAYER, "eosio");
+        assertSameAsFreshlyPacked(transaction);
+    }
+
+    @Test
+    public void testUnpackedActionModified() {
+        SignedTransaction unpacked = PackedTransaction.unpack(PackedTransactionTest.PACKED_TRX, PackedTransaction.CompressType.none);
+        Assert.assertEquals(PackedTransactionTest.TRANSACTION_ID, unpacked.getId());
+
+        unpacked.getActions().get(0).setData("0103");
+        Assert.assertNotEquals(PackedTransactionTest.TRANSACTION_ID, unpacked.getId());
+        assertSameAsFreshlyPacked(unpacked);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SignedTransaction transaction = PackedTransactionTest.createTransaction();
+        SerializedTransaction serialized = transaction.getSerialized();
+        SignedTransaction copy = new SignedTransaction(transaction);
+        Assert.assertSame(serialized, copy.getSerialized());
+
+        copy.setExpiration("2018-01-01T00:00:01");
+        Assert.assertSame(serialized, transaction.getSerialized());
+        Assert.assertNotEquals(serialized.getId(), copy.getId());
+
+        SignedTransaction extended = new SignedTransaction(transaction);
+        extended.setStringTransactionExtension(TransactionExtensionField.TRANSACTION_VOTE_ACCOUNT, "producer.a");
+        Assert.assertEquals(1, extended.getTransactionExtensions().size());
+        Assert.assertEquals(0, transaction.getTransactionExtensions().size());
+        Assert.assertEquals(PackedTransactionTest.TRANSACTION_ID, transaction.getId());
+        Assert.assertEquals(PackedTransactionTest.PACKED_TRX, transaction.getSerialized().toHex());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testActionsNotModifiable() {
+        PackedTransactionTest.createTransaction().getActions().add(new Action("eosio", "noop"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAuthorizationNotModifiable() {
+        PackedTransactionTest.createTransaction().getActions().get(0).getAuthorization().clear();
+    }
+
+    private static void assertSameAsFreshlyPacked(Transaction transaction) {
+        Transaction fresh = new Transaction(transaction);
+        fresh.invalidateSerialized();
+        Assert.assertEquals(fresh.getSerialized().toHex(), transaction.getSerialized().toHex());
+        Assert.assertEquals(fresh.getId(), transaction.getId());
+    }
+}
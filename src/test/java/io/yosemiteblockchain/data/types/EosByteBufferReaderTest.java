@@ -0,0 +1,177 @@
+package io.yosemiteblockchain.data.types;
+
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class EosByteBufferReaderTest {
+
+    // the value and its encoding as variable uint
+    private static final Object[][] VARIABLE_UINTS = {
+            {0L, "00"},
+            {1L, "01"},
+            {127L, "7f"},
+            {128L, "8001"},
+            {300L, "ac02"},
+            {16383L, "ff7f"},
+            {16384L, "808001"},
+            {0xFFFFFFFFL, "ffffffff0f"},
+            {1L << 32, "8080808010"},
+            {Long.MAX_VALUE, "ffffffffffffffff7f"},
+            // 10 bytes; the writer doesn't encode the negative value
+            {Long.MIN_VALUE, "80808080808080808001"},
+            {-1L, "ffffffffffffffffff01"},
+    };
+
+    @Test
+    public void testVariableUintNearEnd() throws Exception {
+        // less than 10 bytes remain, so the checked path reads them
+        for (Object[] vector : VARIABLE_UINTS) {
+            EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes((String) vector[1]));
+            Assert.assertEquals((String) vector[1], (long) (Long) vector[0], reader.getVariableUint());
+            Assert.assertEquals(0, reader.remaining());
+        }
+    }
+
+    @Test
+    public void testVariableUintFastPath() throws Exception {
+        for (Object[] vector : VARIABLE_UINTS) {
+            String hex = (String) vector[1];
+            EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes(hex + "2a2a2a2a2a2a2a2a2a2a"));
+            Assert.assertEquals(hex, (long) (Long) vector[0], reader.getVariableUint());
+            Assert.assertEquals(hex.length() / 2, reader.position());
+            Assert.assertEquals(0x2a, reader.get());
+        }
+    }
+
+    @Test
+    public void testVariableUintDirectBuffer() throws Exception {
+        for (Object[] vector : VARIABLE_UINTS) {
+            String hex = (String) vector[1];
+            ByteBuffer direct = ByteBuffer.allocateDirect(hex.length() / 2 + 10);
+            HexUtils.toBytes(hex + "00000000000000000000", direct);
+            direct.flip();
+            EosByteBufferReader reader = new EosByteBufferReader(direct);
+            Assert.assertEquals(hex, (long) (Long) vector[0], reader.getVariableUint());
+            Assert.assertEquals(hex.length() / 2, reader.position());
+        }
+    }
+
+    @Test
+    public void testVariableUintFromOffset() throws Exception {
+        // the fast path indexes the array from the offset of the view
+        ByteBuffer buffer = ByteBuffer.wrap(HexUtils.toBytes("ffff" + "ac02" + "00000000000000000000"));
+        buffer.position(2);
+        EosByteBufferReader reader = new EosByteBufferReader(buffer);
+        Assert.assertEquals(300L, reader.getVariableUint());
+        Assert.assertEquals(2, reader.position());
+        Assert.assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void testVariableUintParity() throws Exception {
+        for (Object[] vector : VARIABLE_UINTS) {
+            long value = (Long) vector[0];
+            if (value < 0) {
+                continue;
+            }
+            EosByteBufferWriter writer = new EosByteBufferWriter(16);
+            writer.putVariableUInt(value);
+            Assert.assertEquals(vector[1], HexUtils.toHex(writer.toBytes()));
+
+            // EosByteReader shifts the value as int
+            if (value <= Integer.MAX_VALUE) {
+                EosByteReader reader = new EosByteReader(HexUtils.toBytes((String) vector[1]));
+                Assert.assertEquals(value, reader.getVariableUint());
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatedVariableUint() {
+        for (String hex : new String[]{"", "80", "ff", "8080", "ffffffff", "ffffffffffffffffff"}) {
+            EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes(hex));
+            try {
+                reader.getVariableUint();
+                Assert.fail("read " + hex);
+            } catch (EosType.InsufficientBytesException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testInsufficientBytes() {
+        for (int size : new int[]{-1, Integer.MIN_VALUE, 5, Integer.MAX_VALUE}) {
+            EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes("01020304"));
+            try {
+                reader.getBytes(size);
+                Assert.fail("read " + size + " bytes");
+            } catch (EosType.InsufficientBytesException e) {
+                // expected
+            }
+            Assert.assertEquals(4, reader.remaining());
+        }
+    }
+
+    @Test
+    public void testFixedSizeValues() throws Exception {
+        EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes("01" + "0201" + "04030201" + "0807060504030201"));
+        Assert.assertEquals(1, reader.get());
+        Assert.assertEquals(0x0102, reader.getShortLE());
+        Assert.assertEquals(0x01020304, reader.getIntLE());
+        Assert.assertEquals(0x0102030405060708L, reader.getLongLE());
+        try {
+            reader.get();
+            Assert.fail();
+        } catch (EosType.InsufficientBytesException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUtf8AndSlice() throws Exception {
+        String text = "yosemite \uc694\uc138\ubbf8\ud2f0 \ud83c\udf32";
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+
+        EosByteBufferWriter writer = new EosByteBufferWriter(8);
+        writer.putString(text);
+        writer.putBytes(new byte[]{1, 2, 3});
+        byte[] bytes = writer.toBytes();
+
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.wrap(bytes), toDirect(bytes)}) {
+            EosByteBufferReader reader = new EosByteBufferReader(buffer);
+            Assert.assertEquals(text, reader.getUtf8());
+            Assert.assertEquals(1 + utf8.length, reader.position());
+            ByteBuffer slice = reader.getSlice(3);
+            Assert.assertEquals(3, slice.remaining());
+            Assert.assertEquals(3, slice.get(2));
+            Assert.assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void testStringLongerThanRemaining() {
+        EosByteBufferReader reader = new EosByteBufferReader(HexUtils.toBytes("05616263"));
+        try {
+            reader.getUtf8();
+            Assert.fail();
+        } catch (EosType.InsufficientBytesException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = EosType.InsufficientBytesException.class)
+    public void testNegativeSize() throws Exception {
+        new EosByteBufferReader(new byte[4]).getSlice(-1);
+    }
+
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        return direct;
+    }
+}
@@ -0,0 +1,141 @@
+package io.yosemiteblockchain.data.types;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.util.HexUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class EosByteBufferWriterTest {
+
+    private static void writeSample(EosType.Writer writer) {
+        writer.put((byte) 0x7f);
+        writer.putShortLE((short) 0x0102);
+        writer.putIntLE(0x01020304);
+        writer.putLongLE(0x0102030405060708L);
+        writer.putVariableUInt(0);
+        writer.putVariableUInt(300);
+        writer.putVariableUInt(Long.MAX_VALUE);
+        writer.putString("");
+        writer.putString(null);
+        writer.putString("yosemite");
+        writer.putBytes(new byte[]{1, 2, 3});
+        writer.putCollection(Arrays.asList(w -> w.putIntLE(1), w -> w.putIntLE(2)));
+    }
+
+    @Test
+    public void testParityWithEosByteWriter() {
+        EosByteWriter expected = new EosByteWriter(16);
+        writeSample(expected);
+
+        // the small capacity makes the buffer grow several times
+        for (EosByteBufferWriter writer : new EosByteBufferWriter[]{new EosByteBufferWriter(1), new EosByteBufferWriter(1, true)}) {
+            writeSample(writer);
+            Assert.assertEquals(expected.length(), writer.length());
+            Assert.assertArrayEquals(expected.toBytes(), writer.toBytes());
+        }
+    }
+
+    @Test
+    public void testLittleEndianInBigEndianBuffer() {
+        ByteBuffer target = ByteBuffer.allocate(14).order(ByteOrder.BIG_ENDIAN);
+        EosByteBufferWriter writer = EosByteBufferWriter.wrap(target);
+        writer.putShortLE((short) 0x0102);
+        writer.putIntLE(0x01020304);
+        writer.putLongLE(0x0102030405060708L);
+        Assert.assertEquals("0201" + "04030201" + "0807060504030201", HexUtils.toHex(writer.toBytes()));
+        Assert.assertEquals(14, target.position());
+    }
+
+    @Test
+    public void testUtf8String() {
+        String[] values = {
+                "yosemite",
+                "\u00e9\u00df",
+                "\uc694\uc138\ubbf8\ud2f0",
+                "tree \ud83c\udf32",
+                // the lone surrogates are replaced with '?' as String.getBytes does
+                "a\ud83cb",
+                "a\udf32",
+                "\ud83c",
+        };
+        for (String value : values) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            EosByteWriter expected = new EosByteWriter(16);
+            expected.putVariableUInt(utf8.length);
+            expected.putBytes(utf8);
+
+            EosByteBufferWriter writer = new EosByteBufferWriter(2);
+            writer.putString(value);
+            Assert.assertArrayEquals(value, expected.toBytes(), writer.toBytes());
+        }
+    }
+
+    @Test
+    public void testWrapDoesNotGrow() {
+        ByteBuffer target = ByteBuffer.allocate(4);
+        target.put((byte) 9);
+        EosByteBufferWriter writer = EosByteBufferWriter.wrap(target);
+        writer.putShortLE((short) 1);
+        Assert.assertEquals(2, writer.length());
+        try {
+            writer.putIntLE(1);
+            Assert.fail();
+        } catch (BufferOverflowException e) {
+            Assert.assertEquals(3, target.position());
+        }
+        // the bytes before the position of the target are not part of the written bytes
+        Assert.assertArrayEquals(new byte[]{1, 0}, writer.toBytes());
+        writer.reset();
+        Assert.assertEquals(1, target.position());
+    }
+
+    @Test
+    public void testHashAndView() {
+        EosByteBufferWriter writer = new EosByteBufferWriter(1, true);
+        writeSample(writer);
+        byte[] bytes = writer.toBytes();
+
+        Assert.assertEquals(Sha256.from(bytes), writer.sha256());
+        ByteBuffer view = writer.view();
+        Assert.assertTrue(view.isReadOnly());
+        Assert.assertEquals(bytes.length, view.remaining());
+
+        ByteBuffer target = ByteBuffer.allocate(bytes.length + 1);
+        target.put((byte) 0);
+        writer.writeTo(target);
+        Assert.assertArrayEquals(bytes, Arrays.copyOfRange(target.array(), 1, target.capacity()));
+
+        writer.putHex("abCD");
+        Assert.assertEquals("abcd", HexUtils.toHex(writer.toBytes(), bytes.length, 2));
+    }
+
+    @Test
+    public void testPooledWriter() {
+        EosByteBufferWriter outer = EosByteBufferWriter.acquire();
+        outer.putIntLE(1);
+        try (EosByteBufferWriter nested = EosByteBufferWriter.acquire()) {
+            // the cached writer is in use, so the nested one is new
+            Assert.assertNotSame(outer, nested);
+            Assert.assertEquals(0, nested.length());
+        }
+        outer.close();
+
+        try (EosByteBufferWriter again = EosByteBufferWriter.acquire()) {
+            Assert.assertSame(outer, again);
+            Assert.assertEquals(0, again.length());
+            // larger than the pooled capacity; it's not kept after it's closed
+            again.putBytes(new byte[128 * 1024]);
+        }
+        try (EosByteBufferWriter again = EosByteBufferWriter.acquire()) {
+            Assert.assertEquals(0, again.length());
+            again.putIntLE(7);
+            Assert.assertArrayEquals(new byte[]{7, 0, 0, 0}, again.toBytes());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.data.remote.chain.account.Account;
+import io.yosemiteblockchain.data.remote.chain.Info;
+import io.yosemiteblockchain.exception.YosemiteApiException;
+import io.yosemiteblockchain.services.FakeNodeServer.FakeResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ApiServiceExecutorTest {
+
+    private static final String GET_INFO = "/v1/chain/get_info";
+    private static final String GET_ACCOUNT = "/v1/chain/get_account";
+    private static final String INFO = "{\"head_block_num\":1,\"chain_id\":\"x\"}";
+    private static final String ACCOUNT = "{\"account_name\":\"user1\"}";
+
+    private FakeNodeServer server;
+    private final List<YosemiteApiRestClient> clients = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeNodeServer();
+    }
+
+    @After
+    public void tearDown() {
+        for (YosemiteApiRestClient client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    private YosemiteApiRestClient createClient(YosemiteApiClientFactory.YosemiteApiClientBuilder builder) {
+        YosemiteApiRestClient client = builder.setNodeUrl(server.getUrl()).setKeyosUrl(server.getUrl()).build();
+        clients.add(client);
+        return client;
+    }
+
+    private YosemiteApiRestClient createClient() {
+        return createClient(YosemiteApiClientFactory.Builder());
+    }
+
+    private static Throwable getFailure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("the future is completed normally");
+        return null;
+    }
+
+    @Test
+    public void testExecuteAsyncTwiceCompletesExceptionally() throws Exception {
+        server.on(GET_INFO, count -> FakeResponse.ok(INFO));
+        Request<Info> request = createClient().getInfo();
+
+        assertEquals("1", String.valueOf(request.executeAsync().get(5, TimeUnit.SECONDS).getHeadBlockNum()));
+        assertTrue(getFailure(request.executeAsync()) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testRetryOnServiceUnavailable() throws Exception {
+        server.on(GET_INFO, count -> count <= 2 ? FakeResponse.of(503, "busy") : FakeResponse.ok(INFO));
+        InMemoryMetricsRecorder metricsRecorder = new InMemoryMetricsRecorder();
+        YosemiteApiRestClient client = createClient(YosemiteApiClientFactory.Builder()
+                .setRetryPolicy(RetryPolicy.Builder().setMaxAttempts(3).setBackoff(10, 20, 2).build())
+                .setMetricsRecorder(metricsRecorder));
+
+        client.getInfo().executeAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, server.getCount(GET_INFO));
+        assertEquals(2, metricsRecorder.getMetrics(GET_INFO).getRetryCount());
+    }
+
+    @Test
+    public void testNoRetryByDefault() throws Exception {
+        server.on(GET_INFO, count -> FakeResponse.of(503, "busy"));
+
+        getFailure(createClient().getInfo().executeAsync());
+        assertEquals(1, server.getCount(GET_INFO));
+    }
+
+    @Test
+    public void testEndpointLimitBoundsInFlightRequests() throws Exception {
+        server.on(GET_ACCOUNT, count -> FakeResponse.ok(ACCOUNT).delayed(30));
+        YosemiteApiRestClient client = createClient(YosemiteApiClientFactory.Builder()
+                .setRequestLimits(RequestLimits.Builder().setEndpointLimit(GET_ACCOUNT, 0, 0, 2).setQueueing(5000).build()));
+
+        List<CompletableFuture<Account>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(client.getAccount("user" + i).executeAsync());
+        }
+        for (CompletableFuture<Account> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(8, server.getCount(GET_ACCOUNT));
+        assertTrue(server.getMaxInFlight() <= 2);
+    }
+
+    @Test
+    public void testEndpointLimitFailFast() throws Exception {
+        server.on(GET_ACCOUNT, count -> FakeResponse.ok(ACCOUNT).delayed(100));
+        YosemiteApiRestClient client = createClient(YosemiteApiClientFactory.Builder()
+                .setRequestLimits(RequestLimits.Builder().setEndpointLimit(GET_ACCOUNT, 0, 0, 1).setFailFast().build()));
+
+        CompletableFuture<Account> first = client.getAccount("user1").executeAsync();
+        Throwable rejected = getFailure(client.getAccount("user2").executeAsync());
+
+        assertTrue(rejected instanceof YosemiteApiException);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(1, server.getCount(GET_ACCOUNT));
+    }
+
+    @Test
+    public void testSingleFlightCoalescesIdenticalRequests() throws Exception {
+        server.on(GET_ACCOUNT, count -> FakeResponse.ok(ACCOUNT).delayed(100));
+        InMemoryMetricsRecorder metricsRecorder = new InMemoryMetricsRecorder();
+        YosemiteApiRestClient client = createClient(YosemiteApiClientFactory.Builder().setMetricsRecorder(metricsRecorder));
+
+        List<CompletableFuture<Account>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(client.getAccount("user1").executeAsync());
+        }
+        for (CompletableFuture<Account> future : futures) {
+            assertEquals("user1", future.get(5, TimeUnit.SECONDS).getAccountName());
+        }
+
+        assertEquals(1, server.getCount(GET_ACCOUNT));
+        assertEquals(4, metricsRecorder.getMetrics(GET_ACCOUNT).getCoalescedCount());
+    }
+}
@@ -0,0 +1,116 @@
+package io.yosemiteblockchain.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The HTTP server answering the API requests by the handlers of the paths, counting the requests of each path.
+ */
+final class FakeNodeServer implements AutoCloseable {
+
+    interface Handler {
+        /**
+         * @param count the number of the requests of the path including this one
+         * @return the response; null to drop the connection
+         */
+        FakeResponse handle(int count) throws InterruptedException;
+    }
+
+    static final class FakeResponse {
+        final int status;
+        final String body;
+        final long delayMillis;
+
+        private FakeResponse(int status, String body, long delayMillis) {
+            this.status = status;
+            this.body = body;
+            this.delayMillis = delayMillis;
+        }
+
+        static FakeResponse of(int status, String body) {
+            return new FakeResponse(status, body, 0);
+        }
+
+        static FakeResponse ok(String body) {
+            return of(200, body);
+        }
+
+        FakeResponse delayed(long delayMillis) {
+            return new FakeResponse(status, body, delayMillis);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    FakeNodeServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @param path e.g. /v1/chain/get_info
+     */
+    FakeNodeServer on(String path, Handler handler) {
+        handlers.put(path, handler);
+        return this;
+    }
+
+    int getCount(String path) {
+        AtomicInteger count = counts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int count = counts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Handler handler = handlers.get(path);
+            FakeResponse response = handler == null ? FakeResponse.of(404, "{}") : handler.handle(count);
+            if (response == null) {
+                return;
+            }
+            if (response.delayMillis > 0) {
+                Thread.sleep(response.delayMillis);
+            }
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package io.yosemiteblockchain.services;
+
+import io.yosemiteblockchain.crypto.digest.Sha256;
+import io.yosemiteblockchain.crypto.ec.CurveParam;
+import io.yosemiteblockchain.crypto.ec.EcDsa;
+import io.yosemiteblockchain.crypto.ec.EcSignature;
+import io.yosemiteblockchain.crypto.ec.EosPrivateKey;
+import io.yosemiteblockchain.crypto.ec.EosPublicKey;
+import io.yosemiteblockchain.data.remote.chain.Action;
+import io.yosemiteblockchain.data.remote.chain.SignedTransaction;
+import io.yosemiteblockchain.data.types.TypePermission;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class LocalTransactionSignerTest {
+
+    private static final String CHAIN_ID = "047316f411b2db9ba0f600fdbca8e3bbd224d82a367ff02fbd355bb0675288e3";
+
+    // the well-known development key pair of EOSIO
+    private static final String K1_PRIVATE_KEY = "5KQwrPbwdL6PhXujxW37FSSQZ1JiwsST4cqQzDeyXtP79zkvFD3";
+    private static final String K1_PUBLIC_KEY = "YOS6MRyAjQq8ud7hVNYcfnVPJqcVpscN5So8BhtHuGYqET5GDW5CV";
+
+    private static SignedTransaction createTransaction() {
+        SignedTransaction transaction = new SignedTransaction();
+        transaction.setExpiration("2018-01-01T00:00:00");
+        transaction.setReferenceBlock("0000000a0000000011223344000000000000000000000000000000000000000000000000");
+        transaction.addAction(new Action("yx.token", "transfer", new TypePermission("useraccounta"), "0102"));
+        return transaction;
+    }
+
+    @Test
+    public void testSignK1AndR1() {
+        LocalTransactionSigner signer = new LocalTransactionSigner();
+        String k1PublicKey = signer.addPrivateKey(K1_PRIVATE_KEY);
+        EosPrivateKey r1PrivateKey = new EosPrivateKey(CurveParam.SECP256_R1);
+        String r1PublicKey = signer.addPrivateKey(r1PrivateKey.toString());
+
+        Assert.assertEquals(K1_PUBLIC_KEY, k1PublicKey);
+        Assert.assertTrue(r1PublicKey.startsWith("PUB_R1_"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(k1PublicKey, r1PublicKey)),
+                new HashSet<>(signer.getAvailablePublicKeys().join()));
+
+        SignedTransaction transaction = createTransaction();
+        List<String> publicKeys = Arrays.asList(k1PublicKey, r1PublicKey);
+        SignedTransaction signed = signer.signTransaction(transaction, publicKeys, CHAIN_ID).join();
+
+        // the original is not modified
+        Assert.assertTrue(transaction.getSignatures().isEmpty());
+        Assert.assertEquals(transaction.getId(), signed.getId());
+        Assert.assertEquals(2, signed.getSignatures().size());
+
+        byte[] digest = signed.getDigestForSignature(CHAIN_ID).getBytes();
+        for (int i = 0; i < publicKeys.size(); i++) {
+            EosPublicKey recovered = EcDsa.recoverPubKey(digest, new EcSignature(signed.getSignatures().get(i)));
+            EosPublicKey expected = new EosPublicKey(publicKeys.get(i));
+            Assert.assertEquals(expected.isCurveParamK1(), recovered.isCurveParamK1());
+            Assert.assertArrayEquals(expected.getBytes(), recovered.getBytes());
+            Assert.assertEquals(publicKeys.get(i), recovered.toString());
+        }
+
+        // deterministic
+        Assert.assertEquals(signed.getSignatures(), signer.sign(transaction, publicKeys, CHAIN_ID).getSignatures());
+    }
+
+    @Test
+    public void testVerifySignatureR1() {
+        EosPrivateKey privateKey = new EosPrivateKey(CurveParam.SECP256_R1);
+        byte[] message = "hello".getBytes(StandardCharsets.UTF_8);
+        String signature = privateKey.sign(Sha256.from(message)).toString();
+
+        Assert.assertTrue(signature.contains("_R1_"));
+        Assert.assertTrue(EcDsa.verifySignature(message, signature, privateKey.getPublicKey().toString()));
+        Assert.assertFalse(EcDsa.verifySignature("world".getBytes(StandardCharsets.UTF_8), signature,
+                privateKey.getPublicKey().toString()));
+    }
+
+    @Test
+    public void testMissingKey() {
+        LocalTransactionSigner signer = new LocalTransactionSigner();
+        signer.addPrivateKey(K1_PRIVATE_KEY);
+        signer.removePrivateKey(K1_PUBLIC_KEY);
+        Assert.assertTrue(signer.getAvailablePublicKeys().join().isEmpty());
+
+        try {
+            signer.signTransaction(createTransaction(), Collections.singletonList(K1_PUBLIC_KEY), CHAIN_ID).join();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPublicKey() {
+        new LocalTransactionSigner().sign(createTransaction(), Collections.emptyList(), CHAIN_ID);
+    }
+}
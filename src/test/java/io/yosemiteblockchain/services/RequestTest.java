@@ -0,0 +1,54 @@
+package io.yosemiteblockchain.services;
+
+import io.reactivex.Single;
+import io.yosemiteblockchain.data.remote.chain.Info;
+import io.yosemiteblockchain.services.FakeNodeServer.FakeResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class RequestTest {
+
+    private static final String GET_INFO = "/v1/chain/get_info";
+
+    private FakeNodeServer server;
+    private YosemiteApiRestClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeNodeServer();
+        client = YosemiteApiClientFactory.Builder().setNodeUrl(server.getUrl()).setKeyosUrl(server.getUrl()).build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testToSingleSubscribedTwice() {
+        server.on(GET_INFO, count -> FakeResponse.ok("{\"head_block_num\":" + count + ",\"chain_id\":\"x\"}"));
+        Single<Info> single = client.getInfo().toSingle().timeout(5, TimeUnit.SECONDS);
+
+        assertEquals(1, single.blockingGet().getHeadBlockNum().intValue());
+        assertEquals(2, single.blockingGet().getHeadBlockNum().intValue());
+        assertEquals(2, server.getCount(GET_INFO));
+    }
+
+    @Test
+    public void testToSingleRetried() {
+        server.on(GET_INFO, count -> count == 1
+                ? FakeResponse.of(500, "{\"code\":500,\"message\":\"Internal Service Error\","
+                        + "\"error\":{\"code\":3060002,\"name\":\"x\",\"what\":\"x\",\"details\":[]}}")
+                : FakeResponse.ok("{\"head_block_num\":" + count + ",\"chain_id\":\"x\"}"));
+        Single<Info> single = client.getInfo().toSingle().timeout(5, TimeUnit.SECONDS).retry(1);
+
+        assertEquals(2, single.blockingGet().getHeadBlockNum().intValue());
+        assertEquals(2, server.getCount(GET_INFO));
+    }
+}